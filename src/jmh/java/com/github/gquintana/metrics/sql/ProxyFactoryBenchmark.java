@@ -0,0 +1,208 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.proxy.ByteBuddyProxyFactory;
+import com.github.gquintana.metrics.proxy.CGLibProxyFactory;
+import com.github.gquintana.metrics.proxy.CachingProxyFactory;
+import com.github.gquintana.metrics.proxy.MethodHandleMethodInvoker;
+import com.github.gquintana.metrics.proxy.MethodInvoker;
+import com.github.gquintana.metrics.proxy.ProxyFactory;
+import com.github.gquintana.metrics.proxy.ReflectMethodInvoker;
+import com.github.gquintana.metrics.proxy.ReflectProxyFactory;
+import com.github.gquintana.metrics.sql.wrapper.JdbcWrapperProxyFactory;
+import com.github.gquintana.metrics.sql.stub.StubConnection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-call overhead of each {@link ProxyFactory} compared to raw JDBC.
+ * Run with {@code mvn -Pbenchmark -DskipTests verify}, the {@code gc} profiler
+ * reports allocated bytes per operation ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProxyFactoryBenchmark {
+    private static final String SQL = "select ID, TEXT, CREATED from METRICS_TEST where ID > ?";
+    private static final int ROW_COUNT = 10;
+
+    /**
+     * Proxy factory, raw means no proxy at all
+     */
+    @Param({"raw", "reflect", "cglib", "caching", "bytebuddy", "wrapper"})
+    public String factory;
+
+    /**
+     * Method invoker used by proxies, spread_handle is the former method handle invoker
+     * looking up a spreading method handle on each call, kept as a baseline for method_handle
+     */
+    @Param({"reflect", "method_handle", "spread_handle"})
+    public String invoker;
+
+    /**
+     * Database, stub isolates metrics-sql overhead, h2 gives more realistic figures
+     */
+    @Param({"stub"})
+    public String database;
+
+    private Connection rawConnection;
+    private Connection connection;
+    private PreparedStatement preparedStatement;
+    private ResultSet resultSet;
+
+    private static ProxyFactory createProxyFactory(String name) {
+        switch (name) {
+            case "reflect":
+                return new ReflectProxyFactory();
+            case "cglib":
+                return new CGLibProxyFactory();
+            case "caching":
+                return new CachingProxyFactory();
+            case "bytebuddy":
+                return new ByteBuddyProxyFactory();
+            case "wrapper":
+                return new JdbcWrapperProxyFactory();
+            default:
+                return null;
+        }
+    }
+
+    private static MethodInvoker createMethodInvoker(String name) {
+        switch (name) {
+            case "method_handle":
+                return new MethodHandleMethodInvoker();
+            case "spread_handle":
+                return new SpreadMethodHandleInvoker();
+            default:
+                return ReflectMethodInvoker.INSTANCE;
+        }
+    }
+
+    /**
+     * Method invoker which is not bound per method: a spreading method handle is looked up and invoked on each call
+     */
+    private static final class SpreadMethodHandleInvoker implements MethodInvoker {
+        private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+        private final ConcurrentHashMap<Method, MethodHandle> methodHandleCache = new ConcurrentHashMap<>();
+
+        private static MethodHandle createMethodHandle(Method method) {
+            try {
+                return MethodHandles.publicLookup().unreflect(method)
+                        .asSpreader(Object[].class, method.getParameterTypes().length)
+                        .asType(INVOKER_TYPE);
+            } catch (IllegalAccessException illegalAccessException) {
+                throw new IllegalStateException(illegalAccessException);
+            }
+        }
+
+        @Override
+        public Object invoke(Method method, Object target, Object[] args) throws Throwable {
+            return methodHandleCache.computeIfAbsent(method, SpreadMethodHandleInvoker::createMethodHandle).invokeExact(target, args);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        if (database.equals("h2")) {
+            rawConnection = H2DbUtil.openConnection();
+            H2DbUtil.initTable(rawConnection);
+        } else {
+            rawConnection = new StubConnection(ROW_COUNT);
+        }
+        ProxyFactory proxyFactory = createProxyFactory(factory);
+        if (proxyFactory == null) {
+            connection = rawConnection;
+        } else {
+            connection = MetricsSql.forRegistry(new SimpleMeterRegistry())
+                    .withProxyFactory(proxyFactory)
+                    .withMethodInvoker(createMethodInvoker(invoker))
+                    .wrap(rawConnection);
+        }
+        preparedStatement = connection.prepareStatement(SQL, ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        preparedStatement.setInt(1, -1);
+        resultSet = preparedStatement.executeQuery();
+        resultSet.first();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        H2DbUtil.close(resultSet, preparedStatement);
+        if (database.equals("h2")) {
+            H2DbUtil.dropTable(rawConnection);
+        }
+        H2DbUtil.close(connection, rawConnection);
+    }
+
+    @Benchmark
+    public PreparedStatement prepareStatement() throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(SQL);
+        statement.close();
+        return statement;
+    }
+
+    @Benchmark
+    public ResultSet executeQuery() throws SQLException {
+        ResultSet executedResultSet = preparedStatement.executeQuery();
+        executedResultSet.close();
+        return executedResultSet;
+    }
+
+    @Benchmark
+    public boolean next() throws SQLException {
+        boolean next = resultSet.next();
+        if (!next) {
+            resultSet.beforeFirst();
+        }
+        return next;
+    }
+
+    @Benchmark
+    public String getString() throws SQLException {
+        return resultSet.getString(2);
+    }
+}
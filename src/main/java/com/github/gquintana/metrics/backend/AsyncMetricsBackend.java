@@ -0,0 +1,450 @@
+package com.github.gquintana.metrics.backend;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.ToDoubleFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Backend moving meter registration and recording off the calling thread.
+ * Timers, counters and histograms are lightweight handles: recording only writes a meter and value couple
+ * into a bounded lock-free ring buffer.
+ * A background thread drains the ring buffer and applies events to the delegate backend,
+ * meters are registered in the delegate backend on their first event.
+ * <p>
+ * The pipeline is published in the delegate backend as <code>metrics-sql.async.*</code> gauges:
+ * <code>pending</code>, <code>processed</code>, <code>dropped</code> and <code>overflow</code> events.
+ */
+public class AsyncMetricsBackend implements MetricsBackend {
+    public static final int DEFAULT_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+    private static final Logger LOGGER = Logger.getLogger(AsyncMetricsBackend.class.getName());
+
+    /**
+     * What to do with an event when the ring buffer is full
+     */
+    public enum OverflowPolicy {
+        /**
+         * Discard event, it is only counted
+         */
+        DROP,
+        /**
+         * Apply event on the calling thread, it is counted as well
+         */
+        RECORD_INLINE
+    }
+
+    private final MetricsBackend delegate;
+    private final OverflowPolicy overflowPolicy;
+    private final int mask;
+    /**
+     * Ring buffer slot sequences: slot is writable when its sequence equals the producer position,
+     * readable when it equals the producer position + 1
+     */
+    private final AtomicLongArray sequences;
+    private final AsyncMeter<?>[] meters;
+    private final long[] values;
+    /**
+     * Position of the next event to write
+     */
+    private final AtomicLong head = new AtomicLong();
+    /**
+     * Position of the next event to read, written under this lock
+     */
+    private volatile long tail;
+    private final AtomicLong processedCount = new AtomicLong();
+    private final AtomicLong dropCount = new AtomicLong();
+    private final AtomicLong overflowCount = new AtomicLong();
+    private final ConcurrentHashMap<MeterName, AsyncTimer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<MeterName, AsyncCounter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<MeterName, AsyncHistogram> histograms = new ConcurrentHashMap<>();
+    private volatile Thread drainThread;
+
+    /**
+     * Constructor with default capacity, events are dropped when the ring buffer is full
+     *
+     * @param delegate Backend where events are applied
+     */
+    public AsyncMetricsBackend(MetricsBackend delegate) {
+        this(delegate, DEFAULT_CAPACITY, OverflowPolicy.DROP);
+    }
+
+    /**
+     * Main constructor
+     *
+     * @param delegate Backend where events are applied
+     * @param capacity Ring buffer size, rounded up to a power of two
+     * @param overflowPolicy What to do with events when the ring buffer is full
+     */
+    public AsyncMetricsBackend(MetricsBackend delegate, int capacity, OverflowPolicy overflowPolicy) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.delegate = delegate;
+        this.overflowPolicy = overflowPolicy;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.meters = new AsyncMeter<?>[size];
+        this.values = new long[size];
+        delegate.gauge(MeterName.of("metrics-sql.async.pending"), this, AsyncMetricsBackend::getPendingCount);
+        delegate.gauge(MeterName.of("metrics-sql.async.processed"), processedCount, AtomicLong::get);
+        delegate.gauge(MeterName.of("metrics-sql.async.dropped"), dropCount, AtomicLong::get);
+        delegate.gauge(MeterName.of("metrics-sql.async.overflow"), overflowCount, AtomicLong::get);
+    }
+
+    /**
+     * Start background thread applying events to the delegate backend
+     *
+     * @return Current backend
+     */
+    public synchronized AsyncMetricsBackend start() {
+        if (drainThread == null) {
+            Thread thread = new Thread(this::drainLoop, "metrics-sql-async-backend");
+            thread.setDaemon(true);
+            drainThread = thread;
+            thread.start();
+        }
+        return this;
+    }
+
+    private void drainLoop() {
+        while (drainThread == Thread.currentThread()) {
+            try {
+                if (drain() == 0) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Metrics event failed", e);
+            }
+        }
+    }
+
+    /**
+     * Apply events written so far, then flush the delegate backend
+     */
+    @Override
+    public void flush() {
+        while (drain() > 0) {
+            // Until ring buffer is empty
+        }
+        delegate.flush();
+    }
+
+    /**
+     * Stop background thread, apply remaining events and close the delegate backend
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            thread = drainThread;
+            drainThread = null;
+        }
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        while (drain() > 0) {
+            // Until ring buffer is empty
+        }
+        delegate.close();
+    }
+
+    /**
+     * Write event into the ring buffer, or apply overflow policy when it is full
+     */
+    private void offer(AsyncMeter<?> meter, long value) {
+        long position = head.get();
+        while (true) {
+            int index = (int) position & mask;
+            long available = sequences.get(index) - position;
+            if (available == 0L) {
+                if (head.compareAndSet(position, position + 1)) {
+                    meters[index] = meter;
+                    values[index] = value;
+                    sequences.lazySet(index, position + 1);
+                    return;
+                }
+                position = head.get();
+            } else if (available < 0L) {
+                overflow(meter, value);
+                return;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    private void overflow(AsyncMeter<?> meter, long value) {
+        if (overflowPolicy == OverflowPolicy.RECORD_INLINE) {
+            overflowCount.incrementAndGet();
+            meter.apply(value);
+        } else {
+            dropCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Apply a batch of events from the ring buffer to the delegate backend
+     *
+     * @return Number of applied events
+     */
+    public synchronized int drain() {
+        int drained = 0;
+        try {
+            long position = tail;
+            while (drained < BATCH_SIZE) {
+                int index = (int) position & mask;
+                if (sequences.get(index) != position + 1) {
+                    // Empty, or claimed but not written yet
+                    break;
+                }
+                AsyncMeter<?> meter = meters[index];
+                long value = values[index];
+                meters[index] = null;
+                sequences.lazySet(index, position + mask + 1);
+                tail = ++position;
+                drained++;
+                meter.apply(value);
+            }
+        } finally {
+            processedCount.addAndGet(drained);
+        }
+        return drained;
+    }
+
+    /**
+     * @return Number of events written in the ring buffer and not applied yet
+     */
+    public long getPendingCount() {
+        long pending = head.get() - tail;
+        return Math.max(0L, Math.min(pending, mask + 1L));
+    }
+
+    /**
+     * @return Number of events applied to the delegate backend by the background thread
+     */
+    public long getProcessedCount() {
+        return processedCount.get();
+    }
+
+    /**
+     * @return Number of events discarded because the ring buffer was full
+     */
+    public long getDropCount() {
+        return dropCount.get();
+    }
+
+    /**
+     * @return Number of events applied on the calling thread because the ring buffer was full
+     */
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    @Override
+    public Timer timer(MeterName name) {
+        return timers.computeIfAbsent(name, AsyncTimer::new);
+    }
+
+    @Override
+    public Counter counter(MeterName name) {
+        return counters.computeIfAbsent(name, AsyncCounter::new);
+    }
+
+    @Override
+    public Histogram histogram(MeterName name, String baseUnit) {
+        return histograms.computeIfAbsent(name, n -> new AsyncHistogram(n, baseUnit));
+    }
+
+    /**
+     * Gauges are registered in the delegate backend directly, they are read by the backend, not recorded
+     */
+    @Override
+    public <T> Meter gauge(MeterName name, T object, ToDoubleFunction<T> function) {
+        return delegate.gauge(name, object, function);
+    }
+
+    @Override
+    public void remove(Meter meter) {
+        if (meter instanceof AsyncMeter) {
+            timers.remove(meter.getName(), meter);
+            counters.remove(meter.getName(), meter);
+            histograms.remove(meter.getName(), meter);
+            ((AsyncMeter<?>) meter).remove();
+        } else {
+            delegate.remove(meter);
+        }
+    }
+
+    /**
+     * Handle writing events into the ring buffer, the delegate meter is created by the first applied event
+     *
+     * @param <M> Delegate meter type
+     */
+    private abstract class AsyncMeter<M extends Meter> implements Meter {
+        private final MeterName name;
+        /**
+         * Delegate meter, guarded by this
+         */
+        private M meter;
+        private boolean resolved;
+        private boolean removed;
+        /**
+         * Number of events recorded, including those not applied yet
+         */
+        private final LongAdder recordCount = new LongAdder();
+
+        private AsyncMeter(MeterName name) {
+            this.name = name;
+        }
+
+        @Override
+        public MeterName getName() {
+            return name;
+        }
+
+        final void offer(long value) {
+            recordCount.increment();
+            AsyncMetricsBackend.this.offer(this, value);
+        }
+
+        final synchronized void apply(long value) {
+            if (removed) {
+                return;
+            }
+            if (!resolved) {
+                meter = create(name);
+                resolved = true;
+            }
+            if (meter != null) {
+                apply(meter, value);
+            }
+        }
+
+        final synchronized void remove() {
+            removed = true;
+            if (meter != null) {
+                delegate.remove(meter);
+                meter = null;
+            }
+        }
+
+        /**
+         * @return Number of events recorded on this handle, counted when recorded rather than when applied,
+         * so that a meter waiting in the ring buffer doesn't look idle
+         */
+        @Override
+        public final long count() {
+            return recordCount.sum();
+        }
+
+        protected abstract M create(MeterName name);
+
+        protected abstract void apply(M meter, long value);
+    }
+
+    private final class AsyncTimer extends AsyncMeter<Timer> implements Timer {
+        private AsyncTimer(MeterName name) {
+            super(name);
+        }
+
+        @Override
+        public void record(long durationNanos) {
+            offer(durationNanos);
+        }
+
+        @Override
+        protected Timer create(MeterName name) {
+            return delegate.timer(name);
+        }
+
+        @Override
+        protected void apply(Timer meter, long value) {
+            meter.record(value);
+        }
+    }
+
+    private final class AsyncCounter extends AsyncMeter<Counter> implements Counter {
+        private AsyncCounter(MeterName name) {
+            super(name);
+        }
+
+        @Override
+        public void increment(long amount) {
+            offer(amount);
+        }
+
+        @Override
+        protected Counter create(MeterName name) {
+            return delegate.counter(name);
+        }
+
+        @Override
+        protected void apply(Counter meter, long value) {
+            meter.increment(value);
+        }
+    }
+
+    private final class AsyncHistogram extends AsyncMeter<Histogram> implements Histogram {
+        private final String baseUnit;
+
+        private AsyncHistogram(MeterName name, String baseUnit) {
+            super(name);
+            this.baseUnit = baseUnit;
+        }
+
+        @Override
+        public void record(long value) {
+            offer(value);
+        }
+
+        @Override
+        protected Histogram create(MeterName name) {
+            return delegate.histogram(name, baseUnit);
+        }
+
+        @Override
+        protected void apply(Histogram meter, long value) {
+            meter.record(value);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.github.gquintana.metrics.backend;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import io.micrometer.core.instrument.Tag;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.logging.Logger;
+
+/**
+ * Backend recording directly into a Dropwizard {@link MetricRegistry}, without going through Micrometer.
+ * Requires the Dropwizard metrics-core library on the classpath.
+ * Dropwizard metric names are flat: tag values are appended to the meter name, in tag key order, separated by dots.
+ * A gauge name can only be bound to one object, binding it to another object is ignored with a warning.
+ */
+public class DropwizardMetricsBackend implements MetricsBackend {
+    private static final Logger LOGGER = Logger.getLogger(DropwizardMetricsBackend.class.getName());
+    private final MetricRegistry registry;
+    /**
+     * Flat gauge name to measured object
+     */
+    private final ConcurrentHashMap<String, Object> gaugeObjects = new ConcurrentHashMap<>();
+
+    public DropwizardMetricsBackend(MetricRegistry registry) {
+        this.registry = registry;
+    }
+
+    public MetricRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * @return Flat Dropwizard metric name
+     */
+    static String flatName(MeterName name) {
+        StringBuilder flatName = null;
+        for (Tag tag : name.getTags()) {
+            if (flatName == null) {
+                flatName = new StringBuilder(name.getName());
+            }
+            flatName.append('.').append(tag.getValue());
+        }
+        return flatName == null ? name.getName() : flatName.toString();
+    }
+
+    @Override
+    public Timer timer(MeterName name) {
+        String flatName = flatName(name);
+        return new DropwizardTimer(name, flatName, registry.timer(flatName));
+    }
+
+    @Override
+    public Counter counter(MeterName name) {
+        String flatName = flatName(name);
+        return new DropwizardCounter(name, flatName, registry.counter(flatName));
+    }
+
+    @Override
+    public Histogram histogram(MeterName name, String baseUnit) {
+        String flatName = flatName(name);
+        return new DropwizardHistogram(name, flatName, registry.histogram(flatName));
+    }
+
+    /**
+     * @return Gauge, or null when the name is already bound to another object
+     */
+    @Override
+    public <T> Meter gauge(MeterName name, T object, ToDoubleFunction<T> function) {
+        String flatName = flatName(name);
+        Object boundObject = gaugeObjects.putIfAbsent(flatName, object);
+        if (boundObject == null) {
+            try {
+                registry.register(flatName, (Gauge<Double>) () -> function.applyAsDouble(object));
+            } catch (IllegalArgumentException e) {
+                // Registered outside of this backend
+                gaugeObjects.remove(flatName, object);
+                LOGGER.warning("Metric " + flatName + " already registered, gauge ignored");
+                return null;
+            }
+        } else if (boundObject != object) {
+            LOGGER.warning("Gauge " + flatName + " already bound to another object, ignored");
+            return null;
+        }
+        return new DropwizardGauge(name, flatName);
+    }
+
+    @Override
+    public void remove(Meter meter) {
+        if (meter instanceof DropwizardMeter) {
+            String flatName = ((DropwizardMeter) meter).flatName;
+            registry.remove(flatName);
+            if (meter instanceof DropwizardGauge) {
+                gaugeObjects.remove(flatName);
+            }
+        }
+    }
+
+    private abstract static class DropwizardMeter implements Meter {
+        private final MeterName name;
+        private final String flatName;
+
+        private DropwizardMeter(MeterName name, String flatName) {
+            this.name = name;
+            this.flatName = flatName;
+        }
+
+        @Override
+        public MeterName getName() {
+            return name;
+        }
+    }
+
+    private static final class DropwizardTimer extends DropwizardMeter implements Timer {
+        private final com.codahale.metrics.Timer timer;
+
+        private DropwizardTimer(MeterName name, String flatName, com.codahale.metrics.Timer timer) {
+            super(name, flatName);
+            this.timer = timer;
+        }
+
+        @Override
+        public void record(long durationNanos) {
+            timer.update(durationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public long count() {
+            return timer.getCount();
+        }
+    }
+
+    private static final class DropwizardGauge extends DropwizardMeter {
+        private DropwizardGauge(MeterName name, String flatName) {
+            super(name, flatName);
+        }
+
+        @Override
+        public long count() {
+            return 0L;
+        }
+    }
+
+    private static final class DropwizardCounter extends DropwizardMeter implements Counter {
+        private final com.codahale.metrics.Counter counter;
+
+        private DropwizardCounter(MeterName name, String flatName, com.codahale.metrics.Counter counter) {
+            super(name, flatName);
+            this.counter = counter;
+        }
+
+        @Override
+        public void increment(long amount) {
+            counter.inc(amount);
+        }
+
+        @Override
+        public long count() {
+            return counter.getCount();
+        }
+    }
+
+    private static final class DropwizardHistogram extends DropwizardMeter implements Histogram {
+        private final com.codahale.metrics.Histogram histogram;
+
+        private DropwizardHistogram(MeterName name, String flatName, com.codahale.metrics.Histogram histogram) {
+            super(name, flatName);
+            this.histogram = histogram;
+        }
+
+        @Override
+        public void record(long value) {
+            histogram.update(value);
+        }
+
+        @Override
+        public long count() {
+            return histogram.getCount();
+        }
+    }
+}
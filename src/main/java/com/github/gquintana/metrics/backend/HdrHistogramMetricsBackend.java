@@ -0,0 +1,316 @@
+package com.github.gquintana.metrics.backend;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.micrometer.core.instrument.Clock;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Backend recording timers into HdrHistogram {@link Recorder}s, one per meter name, so one per SQL Id.
+ * Recording is lock-free and the memory cost of each timer is fixed,
+ * it depends on the value range and precision.
+ * Percentiles and max are computed over a sliding window: a ring of intervals, {@link #DEFAULT_INTERVAL_COUNT} intervals
+ * of {@link #DEFAULT_INTERVAL} by default, so that old values stop affecting them.
+ * <p>
+ * Counters, histograms and gauges are delegated to another backend, where timers are published as gauges:
+ * <code>&lt;timer&gt;.percentile</code> tagged <code>percentile=0.5|0.99|0.999</code> and <code>&lt;timer&gt;.max</code>, in seconds,
+ * over the sliding window; <code>&lt;timer&gt;.samples</code>, the number of recorded durations,
+ * and <code>&lt;timer&gt;.sum</code>, their total in seconds, both cumulative like a Micrometer <code>FunctionTimer</code>.
+ */
+public class HdrHistogramMetricsBackend implements MetricsBackend {
+    /**
+     * Default highest trackable duration: 1 minute
+     */
+    public static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = TimeUnit.MINUTES.toNanos(1L);
+    public static final int DEFAULT_SIGNIFICANT_DIGITS = 2;
+    /**
+     * Default sliding window interval duration: 1 minute
+     */
+    public static final long DEFAULT_INTERVAL = TimeUnit.MINUTES.toNanos(1L);
+    /**
+     * Default number of intervals in the sliding window
+     */
+    public static final int DEFAULT_INTERVAL_COUNT = 3;
+    /**
+     * Lowest discernible duration: 1 microsecond
+     */
+    private static final long LOWEST_DISCERNIBLE_VALUE = TimeUnit.MICROSECONDS.toNanos(1L);
+    private static final double NANOS_PER_SECOND = 1.0E9D;
+    private static final double[] PERCENTILES = {50.0D, 99.0D, 99.9D};
+    private static final String[] PERCENTILE_TAGS = {"0.5", "0.99", "0.999"};
+    private final MetricsBackend delegate;
+    private final long highestTrackableValue;
+    private final int significantDigits;
+    private final long interval;
+    private final int intervalCount;
+    private final Clock clock;
+    private final ConcurrentHashMap<MeterName, HdrTimer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor with default value range and precision
+     *
+     * @param delegate Backend recording counters, histograms and gauges
+     */
+    public HdrHistogramMetricsBackend(MetricsBackend delegate) {
+        this(delegate, DEFAULT_HIGHEST_TRACKABLE_VALUE, DEFAULT_SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * Constructor with default sliding window
+     *
+     * @param delegate Backend recording counters, histograms and gauges
+     * @param highestTrackableValue Highest recorded duration in nanoseconds, longer durations are recorded as this value
+     * @param significantDigits Number of significant decimal digits kept, between 0 and 5
+     */
+    public HdrHistogramMetricsBackend(MetricsBackend delegate, long highestTrackableValue, int significantDigits) {
+        this(delegate, highestTrackableValue, significantDigits, DEFAULT_INTERVAL, DEFAULT_INTERVAL_COUNT, Clock.SYSTEM);
+    }
+
+    /**
+     * Main constructor
+     *
+     * @param delegate Backend recording counters, histograms and gauges
+     * @param highestTrackableValue Highest recorded duration in nanoseconds, longer durations are recorded as this value
+     * @param significantDigits Number of significant decimal digits kept, between 0 and 5
+     * @param interval Duration of a sliding window interval in nanoseconds
+     * @param intervalCount Number of intervals in the sliding window
+     * @param clock Clock rotating intervals
+     */
+    public HdrHistogramMetricsBackend(MetricsBackend delegate, long highestTrackableValue, int significantDigits,
+                                      long interval, int intervalCount, Clock clock) {
+        if (highestTrackableValue < 2 * LOWEST_DISCERNIBLE_VALUE) {
+            throw new IllegalArgumentException("Invalid highest trackable value " + highestTrackableValue);
+        }
+        if (significantDigits < 0 || significantDigits > 5) {
+            throw new IllegalArgumentException("Invalid significant digits " + significantDigits);
+        }
+        if (interval <= 0L || intervalCount <= 0) {
+            throw new IllegalArgumentException("Invalid sliding window " + intervalCount + "x" + interval);
+        }
+        this.delegate = delegate;
+        this.highestTrackableValue = highestTrackableValue;
+        this.significantDigits = significantDigits;
+        this.interval = interval;
+        this.intervalCount = intervalCount;
+        this.clock = clock;
+    }
+
+    @Override
+    public Timer timer(MeterName name) {
+        return timers.computeIfAbsent(name, this::createTimer);
+    }
+
+    private HdrTimer createTimer(MeterName name) {
+        HdrTimer timer = new HdrTimer(name);
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            double percentile = PERCENTILES[i];
+            timer.gauges[i] = delegate.gauge(MeterName.of(name.getName() + ".percentile", name.getTags().and("percentile", PERCENTILE_TAGS[i])),
+                    timer, t -> t.getValueAtPercentile(percentile) / NANOS_PER_SECOND);
+        }
+        timer.gauges[PERCENTILES.length] = delegate.gauge(MeterName.of(name.getName() + ".max", name.getTags()),
+                timer, t -> t.getMaxValue() / NANOS_PER_SECOND);
+        timer.gauges[PERCENTILES.length + 1] = delegate.gauge(MeterName.of(name.getName() + ".samples", name.getTags()),
+                timer, HdrTimer::count);
+        timer.gauges[PERCENTILES.length + 2] = delegate.gauge(MeterName.of(name.getName() + ".sum", name.getTags()),
+                timer, t -> t.getTotalTime() / NANOS_PER_SECOND);
+        return timer;
+    }
+
+    /**
+     * @return Timers by name
+     */
+    public Map<MeterName, HdrTimer> getTimers() {
+        return timers;
+    }
+
+    @Override
+    public Counter counter(MeterName name) {
+        return delegate.counter(name);
+    }
+
+    @Override
+    public Histogram histogram(MeterName name, String baseUnit) {
+        return delegate.histogram(name, baseUnit);
+    }
+
+    @Override
+    public <T> Meter gauge(MeterName name, T object, ToDoubleFunction<T> function) {
+        return delegate.gauge(name, object, function);
+    }
+
+    @Override
+    public void remove(Meter meter) {
+        if (meter instanceof HdrTimer) {
+            if (timers.remove(meter.getName(), meter)) {
+                for (Meter gauge : ((HdrTimer) meter).gauges) {
+                    if (gauge != null) {
+                        delegate.remove(gauge);
+                    }
+                }
+            }
+        } else {
+            delegate.remove(meter);
+        }
+    }
+
+    @Override
+    public void flush() {
+        delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    /**
+     * Timer recording into an interval recorder, intervals are moved into a ring of histograms when read
+     */
+    public final class HdrTimer implements Timer {
+        private final MeterName name;
+        private final Recorder recorder;
+        private final LongAdder totalTime = new LongAdder();
+        /**
+         * Sliding window intervals, the current one receives recorded values
+         */
+        private final org.HdrHistogram.Histogram[] intervals = new org.HdrHistogram.Histogram[intervalCount];
+        /**
+         * Sum of sliding window intervals
+         */
+        private final org.HdrHistogram.Histogram window;
+        private org.HdrHistogram.Histogram recorded;
+        private int current;
+        private long currentEnd;
+        private long count;
+        private boolean windowStale;
+        /**
+         * Percentile, max, samples and sum gauges registered in the delegate backend, removed with this timer
+         */
+        private final Meter[] gauges = new Meter[PERCENTILES.length + 3];
+
+        private HdrTimer(MeterName name) {
+            this.name = name;
+            this.recorder = new Recorder(LOWEST_DISCERNIBLE_VALUE, highestTrackableValue, significantDigits);
+            for (int i = 0; i < intervalCount; i++) {
+                intervals[i] = newHistogram();
+            }
+            this.window = newHistogram();
+            this.currentEnd = clock.monotonicTime() + interval;
+        }
+
+        private org.HdrHistogram.Histogram newHistogram() {
+            return new org.HdrHistogram.Histogram(LOWEST_DISCERNIBLE_VALUE, highestTrackableValue, significantDigits);
+        }
+
+        @Override
+        public MeterName getName() {
+            return name;
+        }
+
+        @Override
+        public void record(long durationNanos) {
+            recorder.recordValue(Math.min(durationNanos, highestTrackableValue));
+            totalTime.add(durationNanos);
+        }
+
+        @Override
+        public void record(long durationNanos, long count) {
+            recorder.recordValueWithCount(Math.min(durationNanos, highestTrackableValue), count);
+            totalTime.add(durationNanos * count);
+        }
+
+        /**
+         * Expire intervals older than the sliding window, then move values recorded since last call into the current interval.
+         * Values belong to the interval where they are read, gauges are read at least once per publication.
+         */
+        private org.HdrHistogram.Histogram refresh() {
+            long now = clock.monotonicTime();
+            for (int i = 0; i < intervalCount && now - currentEnd >= 0L; i++) {
+                current = (current + 1) % intervalCount;
+                intervals[current].reset();
+                currentEnd += interval;
+                windowStale = true;
+            }
+            if (now - currentEnd >= 0L) {
+                currentEnd = now + interval;
+            }
+            recorded = recorder.getIntervalHistogram(recorded);
+            long recordedCount = recorded.getTotalCount();
+            if (recordedCount > 0L) {
+                intervals[current].add(recorded);
+                count += recordedCount;
+                windowStale = true;
+            }
+            if (windowStale) {
+                window.reset();
+                for (org.HdrHistogram.Histogram histogram : intervals) {
+                    window.add(histogram);
+                }
+                windowStale = false;
+            }
+            return window;
+        }
+
+        /**
+         * @return Number of recorded durations since creation
+         */
+        @Override
+        public synchronized long count() {
+            refresh();
+            return count;
+        }
+
+        /**
+         * @return Total recorded duration since creation, in nanoseconds
+         */
+        public long getTotalTime() {
+            return totalTime.sum();
+        }
+
+        /**
+         * @param percentile Percentile between 0 and 100, like 99.9
+         * @return Duration in nanoseconds, over the sliding window
+         */
+        public synchronized long getValueAtPercentile(double percentile) {
+            return refresh().getValueAtPercentile(percentile);
+        }
+
+        /**
+         * @return Maximum duration in nanoseconds, over the sliding window
+         */
+        public synchronized long getMaxValue() {
+            return refresh().getMaxValue();
+        }
+
+        /**
+         * @return Copy of values recorded in the sliding window
+         */
+        public synchronized org.HdrHistogram.Histogram getSnapshot() {
+            return refresh().copy();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.gquintana.metrics.backend;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Records the distribution of values, like result set sizes
+ */
+public interface Histogram extends Meter {
+    /**
+     * @param value Value
+     */
+    void record(long value);
+
+    /**
+     * Record the same value several times
+     *
+     * @param value Value
+     * @param count Number of recorded events
+     */
+    default void record(long value, long count) {
+        for (long i = 0; i < count; i++) {
+            record(value);
+        }
+    }
+}
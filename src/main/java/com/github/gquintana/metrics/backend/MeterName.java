@@ -0,0 +1,92 @@
+package com.github.gquintana.metrics.backend;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.micrometer.core.instrument.Tags;
+
+import java.util.Objects;
+
+/**
+ * Meter name and tags couple, immutable.
+ */
+public final class MeterName {
+    private final String name;
+    private final Tags tags;
+
+    private MeterName(String name, Tags tags) {
+        this.name = Objects.requireNonNull(name, "name");
+        this.tags = tags == null ? Tags.empty() : tags;
+    }
+
+    /**
+     * @param name Meter name, may be null
+     * @return Meter name without tags, or null when name is null
+     */
+    public static MeterName of(String name) {
+        return name == null ? null : new MeterName(name, Tags.empty());
+    }
+
+    /**
+     * @param name Meter name
+     * @param tags Meter tags
+     * @return Meter name with tags
+     */
+    public static MeterName of(String name, Tags tags) {
+        return new MeterName(name, tags);
+    }
+
+    /**
+     * @return Name of given meter name, or null
+     */
+    public static String nameOf(MeterName meterName) {
+        return meterName == null ? null : meterName.getName();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Tags getTags() {
+        return tags;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MeterName)) {
+            return false;
+        }
+        MeterName meterName = (MeterName) o;
+        return name.equals(meterName.name) && tags.equals(meterName.tags);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + tags.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name + tags;
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.gquintana.metrics.backend;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Metrics library where timers, counters and histograms are recorded.
+ * Meters are created once and cached by the caller, recording should be as cheap as possible.
+ * Implementations must be thread safe.
+ */
+public interface MetricsBackend extends Closeable {
+    /**
+     * Get or create timer
+     *
+     * @param name Meter name
+     * @return Timer, or null when timers are not recorded
+     */
+    Timer timer(MeterName name);
+
+    /**
+     * Get or create counter
+     *
+     * @param name Meter name
+     * @return Counter, or null when counters are not recorded
+     */
+    Counter counter(MeterName name);
+
+    /**
+     * Get or create histogram
+     *
+     * @param name Meter name
+     * @param baseUnit Unit of recorded values, like <code>rows</code>
+     * @return Histogram, or null when histograms are not recorded
+     */
+    Histogram histogram(MeterName name, String baseUnit);
+
+    /**
+     * Register gauge, nothing is done when it is already registered
+     *
+     * @param name Meter name
+     * @param object Observed object
+     * @param function Function reading the gauge value from the observed object
+     * @param <T> Observed object type
+     * @return Gauge, to {@link #remove(Meter) remove} it, or null when gauges are not recorded
+     */
+    <T> Meter gauge(MeterName name, T object, ToDoubleFunction<T> function);
+
+    /**
+     * Remove meter, it won't be published anymore
+     *
+     * @param meter Meter created by this backend
+     */
+    void remove(Meter meter);
+
+    /**
+     * Publish values buffered by this backend, for instance before metrics are scraped
+     */
+    default void flush() {
+    }
+
+    /**
+     * Stop background threads and publish buffered values.
+     * Backends decorating another backend close it as well.
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,165 @@
+package com.github.gquintana.metrics.backend;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Backend recording into a Micrometer {@link MeterRegistry}
+ */
+public class MicrometerMetricsBackend implements MetricsBackend {
+    private final MeterRegistry registry;
+
+    public MicrometerMetricsBackend(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Adapt a Micrometer timer
+     *
+     * @param timer Micrometer timer
+     * @return Timer
+     */
+    public static Timer wrap(io.micrometer.core.instrument.Timer timer) {
+        io.micrometer.core.instrument.Meter.Id id = timer.getId();
+        return new MicrometerTimer(MeterName.of(id.getName(), Tags.of(id.getTags())), timer);
+    }
+
+    @Override
+    public Timer timer(MeterName name) {
+        return new MicrometerTimer(name, io.micrometer.core.instrument.Timer.builder(name.getName())
+                .tags(name.getTags())
+                .register(registry));
+    }
+
+    @Override
+    public Counter counter(MeterName name) {
+        return new MicrometerCounter(name, io.micrometer.core.instrument.Counter.builder(name.getName())
+                .tags(name.getTags())
+                .register(registry));
+    }
+
+    @Override
+    public Histogram histogram(MeterName name, String baseUnit) {
+        return new MicrometerHistogram(name, DistributionSummary.builder(name.getName())
+                .tags(name.getTags())
+                .baseUnit(baseUnit)
+                .register(registry));
+    }
+
+    @Override
+    public <T> Meter gauge(MeterName name, T object, ToDoubleFunction<T> function) {
+        return new MicrometerGauge(name, Gauge.builder(name.getName(), object, function)
+                .tags(name.getTags())
+                .register(registry));
+    }
+
+    @Override
+    public void remove(Meter meter) {
+        if (meter instanceof MicrometerMeter) {
+            registry.remove(((MicrometerMeter<?>) meter).meter);
+        }
+    }
+
+    private abstract static class MicrometerMeter<M extends io.micrometer.core.instrument.Meter> implements Meter {
+        private final MeterName name;
+        protected final M meter;
+
+        private MicrometerMeter(MeterName name, M meter) {
+            this.name = name;
+            this.meter = meter;
+        }
+
+        @Override
+        public MeterName getName() {
+            return name;
+        }
+    }
+
+    private static final class MicrometerTimer extends MicrometerMeter<io.micrometer.core.instrument.Timer> implements Timer {
+        private MicrometerTimer(MeterName name, io.micrometer.core.instrument.Timer timer) {
+            super(name, timer);
+        }
+
+        @Override
+        public void record(long durationNanos) {
+            meter.record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public long count() {
+            return meter.count();
+        }
+    }
+
+    private static final class MicrometerGauge extends MicrometerMeter<Gauge> {
+        private MicrometerGauge(MeterName name, Gauge gauge) {
+            super(name, gauge);
+        }
+
+        @Override
+        public long count() {
+            return 0L;
+        }
+    }
+
+    private static final class MicrometerCounter extends MicrometerMeter<io.micrometer.core.instrument.Counter> implements Counter {
+        private MicrometerCounter(MeterName name, io.micrometer.core.instrument.Counter counter) {
+            super(name, counter);
+        }
+
+        @Override
+        public void increment(long amount) {
+            meter.increment(amount);
+        }
+
+        @Override
+        public long count() {
+            return (long) meter.count();
+        }
+    }
+
+    private static final class MicrometerHistogram extends MicrometerMeter<DistributionSummary> implements Histogram {
+        private MicrometerHistogram(MeterName name, DistributionSummary summary) {
+            super(name, summary);
+        }
+
+        @Override
+        public void record(long value) {
+            meter.record(value);
+        }
+
+        @Override
+        public long count() {
+            return meter.count();
+        }
+    }
+}
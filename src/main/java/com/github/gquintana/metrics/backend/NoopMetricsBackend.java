@@ -0,0 +1,57 @@
+package com.github.gquintana.metrics.backend;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Backend recording nothing: no meter is created, so JDBC calls are proxied without being timed nor counted.
+ */
+public final class NoopMetricsBackend implements MetricsBackend {
+    public static final NoopMetricsBackend INSTANCE = new NoopMetricsBackend();
+
+    private NoopMetricsBackend() {
+    }
+
+    @Override
+    public Timer timer(MeterName name) {
+        return null;
+    }
+
+    @Override
+    public Counter counter(MeterName name) {
+        return null;
+    }
+
+    @Override
+    public Histogram histogram(MeterName name, String baseUnit) {
+        return null;
+    }
+
+    @Override
+    public <T> Meter gauge(MeterName name, T object, ToDoubleFunction<T> function) {
+        return null;
+    }
+
+    @Override
+    public void remove(Meter meter) {
+    }
+}
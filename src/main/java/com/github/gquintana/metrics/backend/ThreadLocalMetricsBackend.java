@@ -0,0 +1,594 @@
+package com.github.gquintana.metrics.backend;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+
+import java.lang.ref.WeakReference;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ToDoubleFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Backend accumulating timers, counters and histograms in buffers confined to the recording thread,
+ * so that threads recording the same meter don't contend on shared state.
+ * Each thread only writes its own primitive arrays: count, sum and maximum, with counts and sums
+ * for each power of two bucket of timers and histograms.
+ * Buffers are merged into the delegate backend periodically by a background thread, or when {@link #merge()}
+ * or {@link #flush()} is called.
+ * <p>
+ * Merged counts, sums and maximums are exact. Within a bucket, values are merged as the bucket mean,
+ * so percentiles computed by the delegate backend are less precise.
+ * The number of thread buffers is published as <code>metrics-sql.thread-local.buffers</code> gauge.
+ */
+public class ThreadLocalMetricsBackend implements MetricsBackend {
+    public static final long DEFAULT_MERGE_INTERVAL_MILLIS = 1000L;
+    private static final int BUCKETS = 64;
+    /**
+     * Distribution layout: maximum, then count and sum for each bucket
+     */
+    private static final int MAX = 0;
+    private static final int DISTRIBUTION_WIDTH = 1 + 2 * BUCKETS;
+    private static final Logger LOGGER = Logger.getLogger(ThreadLocalMetricsBackend.class.getName());
+    private final MetricsBackend delegate;
+    private final long mergeIntervalMillis;
+    private final ThreadLocal<Buffer> buffers = ThreadLocal.withInitial(this::createBuffer);
+    private final Queue<Buffer> allBuffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    /**
+     * Slots of removed meters, cleared in every buffer
+     */
+    private final Queue<Integer> freeSlots = new ConcurrentLinkedQueue<>();
+    private final Queue<LocalMeter<?>> removedMeters = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<MeterName, LocalTimer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<MeterName, LocalCounter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<MeterName, LocalHistogram> histograms = new ConcurrentHashMap<>();
+    private volatile Thread mergeThread;
+
+    /**
+     * Constructor with default merge interval
+     *
+     * @param delegate Backend where buffers are merged
+     */
+    public ThreadLocalMetricsBackend(MetricsBackend delegate) {
+        this(delegate, DEFAULT_MERGE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Main constructor
+     *
+     * @param delegate Backend where buffers are merged
+     * @param mergeInterval Delay between merges by the background thread
+     * @param unit Merge interval unit
+     */
+    public ThreadLocalMetricsBackend(MetricsBackend delegate, long mergeInterval, TimeUnit unit) {
+        if (mergeInterval <= 0L) {
+            throw new IllegalArgumentException("Invalid merge interval " + mergeInterval);
+        }
+        this.delegate = delegate;
+        this.mergeIntervalMillis = Math.max(1L, unit.toMillis(mergeInterval));
+        delegate.gauge(MeterName.of("metrics-sql.thread-local.buffers"), allBuffers, Queue::size);
+    }
+
+    private Buffer createBuffer() {
+        Buffer buffer = new Buffer(Thread.currentThread());
+        allBuffers.add(buffer);
+        return buffer;
+    }
+
+    private int allocateSlot() {
+        Integer slot = freeSlots.poll();
+        return slot == null ? nextSlot.getAndIncrement() : slot;
+    }
+
+    /**
+     * Start background thread merging buffers into the delegate backend
+     *
+     * @return Current backend
+     */
+    public synchronized ThreadLocalMetricsBackend start() {
+        if (mergeThread == null) {
+            Thread thread = new Thread(this::mergeLoop, "metrics-sql-thread-local-backend");
+            thread.setDaemon(true);
+            mergeThread = thread;
+            thread.start();
+        }
+        return this;
+    }
+
+    private void mergeLoop() {
+        while (mergeThread == Thread.currentThread()) {
+            try {
+                merge();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Metrics merge failed", e);
+            }
+            try {
+                Thread.sleep(mergeIntervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Merge buffers and flush the delegate backend
+     */
+    @Override
+    public void flush() {
+        merge();
+        delegate.flush();
+    }
+
+    /**
+     * Stop background thread, merge buffers and close the delegate backend
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            thread = mergeThread;
+            mergeThread = null;
+        }
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        merge();
+        delegate.close();
+    }
+
+    /**
+     * Merge values recorded since last merge into the delegate backend.
+     * Buffers of terminated threads are merged one last time and released.
+     */
+    public synchronized void merge() {
+        LocalMeter<?> removedMeter;
+        while ((removedMeter = removedMeters.poll()) != null) {
+            for (Buffer buffer : allBuffers) {
+                buffer.clear(removedMeter);
+            }
+            freeSlots.add(removedMeter.slot);
+        }
+        for (Buffer buffer : allBuffers) {
+            // Read before merging, so that last values of a terminated thread are merged
+            boolean alive = buffer.isAlive();
+            AtomicReferenceArray<Accumulator> accumulators = buffer.accumulators;
+            for (int i = 0; i < accumulators.length(); i++) {
+                Accumulator accumulator = accumulators.get(i);
+                if (accumulator != null) {
+                    accumulator.meter.merge(accumulator);
+                }
+            }
+            if (!alive) {
+                for (int i = 0; i < accumulators.length(); i++) {
+                    Accumulator accumulator = accumulators.get(i);
+                    if (accumulator != null) {
+                        accumulator.meter.releasedCount += accumulator.meter.recordedCount(accumulator.values);
+                    }
+                }
+                allBuffers.remove(buffer);
+            }
+        }
+    }
+
+    @Override
+    public Timer timer(MeterName name) {
+        return timers.computeIfAbsent(name, LocalTimer::new);
+    }
+
+    @Override
+    public Counter counter(MeterName name) {
+        return counters.computeIfAbsent(name, LocalCounter::new);
+    }
+
+    @Override
+    public Histogram histogram(MeterName name, String baseUnit) {
+        return histograms.computeIfAbsent(name, n -> new LocalHistogram(n, baseUnit));
+    }
+
+    /**
+     * Gauges are registered in the delegate backend directly, they are read by the backend, not recorded
+     */
+    @Override
+    public <T> Meter gauge(MeterName name, T object, ToDoubleFunction<T> function) {
+        return delegate.gauge(name, object, function);
+    }
+
+    @Override
+    public void remove(Meter meter) {
+        if (meter instanceof LocalMeter) {
+            timers.remove(meter.getName(), meter);
+            counters.remove(meter.getName(), meter);
+            histograms.remove(meter.getName(), meter);
+            LocalMeter<?> localMeter = (LocalMeter<?>) meter;
+            if (localMeter.remove()) {
+                removedMeters.add(localMeter);
+            }
+        } else {
+            delegate.remove(meter);
+        }
+    }
+
+    /**
+     * @param value Recorded value
+     * @return Power of two bucket of value
+     */
+    private static int bucket(long value) {
+        return value <= 0L ? 0 : BUCKETS - Long.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * Accumulators of a thread, indexed by meter slot
+     */
+    private static final class Buffer {
+        private final WeakReference<Thread> owner;
+        /**
+         * Replaced by owner thread when grown
+         */
+        private volatile AtomicReferenceArray<Accumulator> accumulators = new AtomicReferenceArray<>(16);
+
+        private Buffer(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        /**
+         * Called by owner thread only
+         */
+        private AtomicLongArray values(LocalMeter<?> meter) {
+            AtomicReferenceArray<Accumulator> current = accumulators;
+            int slot = meter.slot;
+            if (slot >= current.length()) {
+                AtomicReferenceArray<Accumulator> grown = new AtomicReferenceArray<>(Math.max(slot + 1, current.length() * 2));
+                for (int i = 0; i < current.length(); i++) {
+                    grown.set(i, current.get(i));
+                }
+                accumulators = grown;
+                current = grown;
+            }
+            Accumulator accumulator = current.get(slot);
+            if (accumulator == null || accumulator.meter != meter) {
+                // Slot is unused or was used by a removed meter
+                accumulator = new Accumulator(meter);
+                current.set(slot, accumulator);
+            }
+            return accumulator.values;
+        }
+
+        /**
+         * @return Accumulator of meter, or null when this thread didn't record it
+         */
+        private Accumulator accumulator(LocalMeter<?> meter) {
+            AtomicReferenceArray<Accumulator> current = accumulators;
+            if (meter.slot < current.length()) {
+                Accumulator accumulator = current.get(meter.slot);
+                if (accumulator != null && accumulator.meter == meter) {
+                    return accumulator;
+                }
+            }
+            return null;
+        }
+
+        private void clear(LocalMeter<?> meter) {
+            Accumulator accumulator = accumulator(meter);
+            if (accumulator != null) {
+                accumulators.compareAndSet(meter.slot, accumulator, null);
+            }
+        }
+
+        private boolean isAlive() {
+            Thread thread = owner.get();
+            return thread != null && thread.isAlive();
+        }
+    }
+
+    /**
+     * Values of a meter recorded by a thread.
+     * Values are only written by the recording thread, without atomic read-modify-write.
+     */
+    private static final class Accumulator {
+        private final LocalMeter<?> meter;
+        private final AtomicLongArray values;
+        /**
+         * Values at last merge, used by merging thread only
+         */
+        private final long[] merged;
+
+        private Accumulator(LocalMeter<?> meter) {
+            this.meter = meter;
+            this.values = new AtomicLongArray(meter.width);
+            this.merged = new long[meter.width];
+        }
+    }
+
+    /**
+     * Handle writing into the buffer of the current thread, the delegate meter is created by the first merge
+     *
+     * @param <M> Delegate meter type
+     */
+    private abstract class LocalMeter<M extends Meter> implements Meter {
+        private final MeterName name;
+        private final int slot;
+        private final int width;
+        /**
+         * Delegate meter, guarded by this
+         */
+        private M meter;
+        private boolean resolved;
+        private volatile boolean removed;
+        /**
+         * Events recorded by released buffers, guarded by backend
+         */
+        private long releasedCount;
+
+        private LocalMeter(MeterName name, int width) {
+            this.name = name;
+            this.slot = allocateSlot();
+            this.width = width;
+        }
+
+        @Override
+        public MeterName getName() {
+            return name;
+        }
+
+        /**
+         * @return Values of current thread, or null when this meter was removed
+         */
+        protected final AtomicLongArray localValues() {
+            return removed ? null : buffers.get().values(this);
+        }
+
+        private synchronized void merge(Accumulator accumulator) {
+            if (removed) {
+                return;
+            }
+            if (!resolved) {
+                meter = create(name);
+                resolved = true;
+            }
+            if (meter != null) {
+                merge(meter, accumulator.values, accumulator.merged);
+            }
+        }
+
+        /**
+         * @return True when this meter was not removed yet
+         */
+        private synchronized boolean remove() {
+            if (removed) {
+                return false;
+            }
+            removed = true;
+            if (meter != null) {
+                delegate.remove(meter);
+                meter = null;
+            }
+            return true;
+        }
+
+        /**
+         * @return Number of events recorded by all threads, merged or not
+         */
+        @Override
+        public final long count() {
+            if (removed) {
+                return 0L;
+            }
+            synchronized (ThreadLocalMetricsBackend.this) {
+                long count = releasedCount;
+                for (Buffer buffer : allBuffers) {
+                    Accumulator accumulator = buffer.accumulator(this);
+                    if (accumulator != null) {
+                        count += recordedCount(accumulator.values);
+                    }
+                }
+                return count;
+            }
+        }
+
+        protected abstract M create(MeterName name);
+
+        /**
+         * @param values Values recorded by a thread
+         * @return Number of events recorded by this thread
+         */
+        protected abstract long recordedCount(AtomicLongArray values);
+
+        /**
+         * Apply values recorded since last merge to delegate meter
+         *
+         * @param meter Delegate meter
+         * @param values Recorded values
+         * @param merged Values at last merge, to update
+         */
+        protected abstract void merge(M meter, AtomicLongArray values, long[] merged);
+    }
+
+    /**
+     * Meter accumulating a distribution of values
+     *
+     * @param <M> Delegate meter type
+     */
+    private abstract class LocalDistribution<M extends Meter> extends LocalMeter<M> {
+        private LocalDistribution(MeterName name) {
+            super(name, DISTRIBUTION_WIDTH);
+        }
+
+        protected final void accumulate(long value, long count) {
+            AtomicLongArray values = localValues();
+            if (values == null || count <= 0L) {
+                return;
+            }
+            value = Math.max(0L, value);
+            int countIndex = 1 + 2 * bucket(value);
+            // Sum before count, so that merged sums cover at least merged counts
+            values.lazySet(countIndex + 1, values.get(countIndex + 1) + value * count);
+            values.lazySet(countIndex, values.get(countIndex) + count);
+            if (value > values.get(MAX)) {
+                values.lazySet(MAX, value);
+            }
+        }
+
+        @Override
+        protected final long recordedCount(AtomicLongArray values) {
+            long count = 0L;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                count += values.get(1 + 2 * bucket);
+            }
+            return count;
+        }
+
+        @Override
+        protected final void merge(M meter, AtomicLongArray values, long[] merged) {
+            long max = values.getAndSet(MAX, 0L);
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                int countIndex = 1 + 2 * bucket;
+                long count = values.get(countIndex);
+                long sum = values.get(countIndex + 1);
+                long deltaCount = count - merged[countIndex];
+                if (deltaCount <= 0L) {
+                    // Sum of events not counted yet is carried to next merge
+                    continue;
+                }
+                long deltaSum = sum - merged[countIndex + 1];
+                merged[countIndex] = count;
+                merged[countIndex + 1] = sum;
+                if (max > 0L && bucket(max) == bucket && deltaSum >= max) {
+                    record(meter, max, 1L);
+                    deltaCount--;
+                    deltaSum -= max;
+                }
+                if (deltaCount > 0L) {
+                    // Bucket mean, spread so that the sum is exact
+                    long mean = Math.max(0L, deltaSum) / deltaCount;
+                    long remainder = Math.max(0L, deltaSum) - mean * deltaCount;
+                    if (remainder > 0L) {
+                        record(meter, mean + 1L, remainder);
+                    }
+                    record(meter, mean, deltaCount - remainder);
+                }
+            }
+        }
+
+        protected abstract void record(M meter, long value, long count);
+    }
+
+    private final class LocalTimer extends LocalDistribution<Timer> implements Timer {
+        private LocalTimer(MeterName name) {
+            super(name);
+        }
+
+        @Override
+        public void record(long durationNanos) {
+            accumulate(durationNanos, 1L);
+        }
+
+        @Override
+        public void record(long durationNanos, long count) {
+            accumulate(durationNanos, count);
+        }
+
+        @Override
+        protected Timer create(MeterName name) {
+            return delegate.timer(name);
+        }
+
+        @Override
+        protected void record(Timer meter, long value, long count) {
+            meter.record(value, count);
+        }
+    }
+
+    private final class LocalHistogram extends LocalDistribution<Histogram> implements Histogram {
+        private final String baseUnit;
+
+        private LocalHistogram(MeterName name, String baseUnit) {
+            super(name);
+            this.baseUnit = baseUnit;
+        }
+
+        @Override
+        public void record(long value) {
+            accumulate(value, 1L);
+        }
+
+        @Override
+        public void record(long value, long count) {
+            accumulate(value, count);
+        }
+
+        @Override
+        protected Histogram create(MeterName name) {
+            return delegate.histogram(name, baseUnit);
+        }
+
+        @Override
+        protected void record(Histogram meter, long value, long count) {
+            meter.record(value, count);
+        }
+    }
+
+    private final class LocalCounter extends LocalMeter<Counter> implements Counter {
+        private LocalCounter(MeterName name) {
+            super(name, 1);
+        }
+
+        @Override
+        public void increment(long amount) {
+            AtomicLongArray values = localValues();
+            if (values != null) {
+                values.lazySet(0, values.get(0) + amount);
+            }
+        }
+
+        @Override
+        protected Counter create(MeterName name) {
+            return delegate.counter(name);
+        }
+
+        @Override
+        protected long recordedCount(AtomicLongArray values) {
+            return values.get(0);
+        }
+
+        @Override
+        protected void merge(Counter meter, AtomicLongArray values, long[] merged) {
+            long count = values.get(0);
+            long delta = count - merged[0];
+            if (delta > 0L) {
+                meter.increment(delta);
+                merged[0] = count;
+            }
+        }
+    }
+}
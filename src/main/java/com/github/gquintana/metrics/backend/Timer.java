@@ -0,0 +1,43 @@
+package com.github.gquintana.metrics.backend;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Records durations
+ */
+public interface Timer extends Meter {
+    /**
+     * @param durationNanos Duration in nanoseconds
+     */
+    void record(long durationNanos);
+
+    /**
+     * Record the same duration several times
+     *
+     * @param durationNanos Duration in nanoseconds
+     * @param count Number of recorded events
+     */
+    default void record(long durationNanos, long count) {
+        for (long i = 0; i < count; i++) {
+            record(durationNanos);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.gquintana.metrics.proxy;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * {@link MethodInvoker} bound to a single method, see {@link MethodInvoker#bind(java.lang.reflect.Method)}
+ */
+public interface BoundMethodInvoker {
+    /**
+     * Invoke bound method on target object
+     *
+     * @param target Target (real) object
+     * @param args Invocation arguments, may be null when method has no parameter
+     * @return Method invocation results
+     * @throws Throwable Exception raised by the method itself, not wrapped
+     */
+    Object invoke(Object target, Object[] args) throws Throwable;
+}
@@ -0,0 +1,140 @@
+package com.github.gquintana.metrics.proxy;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.modifier.FieldManifestation;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.implementation.InvocationHandlerAdapter;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.matcher.ElementMatchers;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.bytebuddy.matcher.ElementMatchers.isDeclaredBy;
+import static net.bytebuddy.matcher.ElementMatchers.isEquals;
+import static net.bytebuddy.matcher.ElementMatchers.isHashCode;
+import static net.bytebuddy.matcher.ElementMatchers.isSuperTypeOf;
+import static net.bytebuddy.matcher.ElementMatchers.isToString;
+import static net.bytebuddy.matcher.ElementMatchers.none;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+
+/**
+ * {@link ProxyFactory} generating proxy classes with ByteBuddy.
+ * Methods intercepted by the {@link ProxyHandler.InvocationFilter} are routed to the proxy handler,
+ * other methods directly call the delegate (a plain {@code invokeinterface}, no reflection).
+ * Requires the ByteBuddy library on the classpath.
+ * Like {@link CGLibProxyFactory}, proxy classes are generated once per {@link ProxyClass}
+ * and the invocation filter of the first proxy handler is used.
+ */
+public class ByteBuddyProxyFactory implements ProxyFactory {
+    private static final String HANDLER_FIELD = "handler";
+    private static final String DELEGATE_FIELD = "delegate";
+    private final ConcurrentHashMap<ProxyClass, Constructor<?>> constructorCache = new ConcurrentHashMap<>();
+
+    /**
+     * Build a matcher of methods intercepted by given filter.
+     * Methods are matched by signature, because interface methods are looked up
+     * on the proxied interfaces while ByteBuddy describes the generated class methods.
+     */
+    private static ElementMatcher.Junction<MethodDescription> interceptedMethods(ProxyHandler.InvocationFilter invocationFilter, Class<?>[] interfaces) {
+        ElementMatcher.Junction<MethodDescription> matcher = none();
+        for (Class<?> iface : interfaces) {
+            for (Method method : iface.getMethods()) {
+                if (!Modifier.isStatic(method.getModifiers()) && invocationFilter.isIntercepted(method)) {
+                    matcher = matcher.or(ElementMatchers.<MethodDescription>named(method.getName())
+                            .and(ElementMatchers.takesArguments(method.getParameterTypes())));
+                }
+            }
+        }
+        return matcher;
+    }
+
+    /**
+     * Generate proxy class and return its (handler, delegate) constructor.
+     */
+    private static Constructor<?> createConstructor(ProxyHandler<?> proxyHandler, ProxyClass proxyClass) {
+        final Class<?>[] interfaces = proxyClass.getInterfaces();
+        // Delegate field is typed with the first interface, methods of other interfaces go through the handler
+        final Class<?> delegateType = interfaces[0];
+        final ElementMatcher.Junction<MethodDescription> interfaceMethods = ElementMatchers.<MethodDescription>isAbstract()
+                .or(ElementMatchers.<MethodDescription>isDefaultMethod());
+        final ClassLoader classLoader = proxyClass.getClassLoader() == null ? ByteBuddyProxyFactory.class.getClassLoader() : proxyClass.getClassLoader();
+        try {
+            Class<?> clazz = new ByteBuddy()
+                    .subclass(Object.class)
+                    .implement(interfaces)
+                    .defineField(HANDLER_FIELD, InvocationHandler.class, Visibility.PRIVATE, FieldManifestation.FINAL)
+                    .defineField(DELEGATE_FIELD, delegateType, Visibility.PRIVATE, FieldManifestation.FINAL)
+                    .defineConstructor(Visibility.PUBLIC)
+                    .withParameters(InvocationHandler.class, delegateType)
+                    .intercept(MethodCall.invoke(Object.class.getConstructor())
+                            .andThen(FieldAccessor.ofField(HANDLER_FIELD).setsArgumentAt(0))
+                            .andThen(FieldAccessor.ofField(DELEGATE_FIELD).setsArgumentAt(1)))
+                    // Same as java.lang.reflect.Proxy: everything goes through the handler
+                    .method(interfaceMethods.or(isHashCode()).or(isEquals()).or(isToString()))
+                    .intercept(InvocationHandlerAdapter.toField(HANDLER_FIELD))
+                    // Except non intercepted methods which call the delegate directly
+                    .method(interfaceMethods
+                            .and(isDeclaredBy(isSuperTypeOf(delegateType)))
+                            .and(not(interceptedMethods(proxyHandler.getInvocationFilter(), interfaces))))
+                    .intercept(MethodCall.invokeSelf().onField(DELEGATE_FIELD).withAllArguments())
+                    .make()
+                    .load(classLoader, ClassLoadingStrategy.Default.WRAPPER)
+                    .getLoaded();
+            return clazz.getConstructor(InvocationHandler.class, delegateType);
+        } catch (NoSuchMethodException noSuchMethodException) {
+            throw new ProxyException(noSuchMethodException);
+        }
+    }
+
+    @Override
+    public <T> T newProxy(ProxyHandler<T> proxyHandler, ProxyClass proxyClass) {
+        Constructor<?> constructor = constructorCache.get(proxyClass);
+        if (constructor == null) {
+            constructor = createConstructor(proxyHandler, proxyClass);
+            final Constructor<?> oldConstructor = constructorCache.putIfAbsent(proxyClass, constructor);
+            constructor = oldConstructor == null ? constructor : oldConstructor;
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            T proxy = (T) constructor.newInstance(proxyHandler, proxyHandler.getDelegate());
+            return proxy;
+        } catch (ReflectiveOperationException reflectiveOperationException) {
+            throw new ProxyException(reflectiveOperationException);
+        }
+    }
+
+    /**
+     * Clears the proxy class cache
+     */
+    public void clearCache() {
+        constructorCache.clear();
+    }
+}
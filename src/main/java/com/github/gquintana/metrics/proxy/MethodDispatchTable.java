@@ -0,0 +1,200 @@
+package com.github.gquintana.metrics.proxy;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Resolves each invoked {@link Method} to an integer action code, so that proxy handlers
+ * can dispatch with a {@code switch} instead of comparing method names on every call.
+ * Actions are declared by method name, the name is looked up only the first time a given
+ * {@link Method} instance is seen: proxy classes pass the same {@link Method} instances on each call,
+ * following calls are identity lookups.
+ * This table is also an {@link ProxyHandler.InvocationFilter}, a method is intercepted when it has an action.
+ * Each {@link Entry} also keeps the method bound to a {@link MethodInvoker}, to call the wrapped object
+ * without resolving the method again.
+ */
+public final class MethodDispatchTable implements ProxyHandler.InvocationFilter {
+    /**
+     * Action code of methods which are not intercepted
+     */
+    public static final int PROCEED = 0;
+    /**
+     * Action codes indexed by method name
+     */
+    private final Map<String, Integer> actionsByName;
+    /**
+     * Entries indexed by method instance, copied on write
+     */
+    private volatile Map<Method, Entry> entriesByMethod = new IdentityHashMap<Method, Entry>();
+
+    private MethodDispatchTable(Map<String, Integer> actionsByName) {
+        this.actionsByName = actionsByName;
+    }
+
+    /**
+     * Get action code for given method
+     *
+     * @param method Invoked method
+     * @return Action code or {@link #PROCEED}
+     */
+    public int getAction(Method method) {
+        return getEntry(method).getAction();
+    }
+
+    /**
+     * Get entry for given method
+     *
+     * @param method Invoked method
+     * @return Entry holding action code and bound invoker
+     */
+    public Entry getEntry(Method method) {
+        Entry entry = entriesByMethod.get(method);
+        if (entry == null) {
+            entry = resolveEntry(method);
+        }
+        return entry;
+    }
+
+    private synchronized Entry resolveEntry(Method method) {
+        Entry entry = entriesByMethod.get(method);
+        if (entry == null) {
+            Integer action = actionsByName.get(method.getName());
+            entry = new Entry(method, action == null ? PROCEED : action);
+            final Map<Method, Entry> newEntriesByMethod = new IdentityHashMap<Method, Entry>(entriesByMethod);
+            newEntriesByMethod.put(method, entry);
+            entriesByMethod = newEntriesByMethod;
+        }
+        return entry;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isIntercepted(Method method) {
+        return getAction(method) != PROCEED;
+    }
+
+    /**
+     * Dispatch table entry of a method
+     */
+    public static final class Entry {
+        private final Method method;
+        private final int action;
+        /**
+         * Method bound to the first invoker class used, null until first call
+         */
+        private volatile Binding binding;
+
+        private Entry(Method method, int action) {
+            this.method = method;
+            this.action = action;
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        /**
+         * @return Action code or {@link #PROCEED}
+         */
+        public int getAction() {
+            return action;
+        }
+
+        /**
+         * Invoke method on target object, using the invoker bound to this method.
+         * The method is bound on first call, invokers of another class call {@link MethodInvoker#invoke(Method, Object, Object[])}.
+         *
+         * @param methodInvoker Strategy to call the method
+         * @param target Target (real) object
+         * @param args Invocation arguments, may be null when method has no parameter
+         * @return Method invocation results
+         * @throws Throwable Exception raised by the method itself, not wrapped
+         */
+        public Object invoke(MethodInvoker methodInvoker, Object target, Object[] args) throws Throwable {
+            Binding binding = this.binding;
+            if (binding == null) {
+                binding = bind(methodInvoker);
+            }
+            if (binding.invokerClass != methodInvoker.getClass()) {
+                return methodInvoker.invoke(method, target, args);
+            }
+            return binding.boundInvoker.invoke(target, args);
+        }
+
+        private synchronized Binding bind(MethodInvoker methodInvoker) {
+            if (binding == null) {
+                binding = new Binding(methodInvoker.getClass(), methodInvoker.bind(method));
+            }
+            return binding;
+        }
+    }
+
+    /**
+     * Method bound to an invoker class
+     */
+    private static final class Binding {
+        private final Class<?> invokerClass;
+        private final BoundMethodInvoker boundInvoker;
+
+        private Binding(Class<?> invokerClass, BoundMethodInvoker boundInvoker) {
+            this.invokerClass = invokerClass;
+            this.boundInvoker = boundInvoker;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder of {@link MethodDispatchTable}
+     */
+    public static class Builder {
+        private final Map<String, Integer> actionsByName = new HashMap<String, Integer>();
+
+        /**
+         * Map method names to an action
+         *
+         * @param action Action code, different from {@link #PROCEED}
+         * @param methodNames Method names
+         * @return Current builder
+         */
+        public Builder withAction(int action, String... methodNames) {
+            if (action == PROCEED) {
+                throw new IllegalArgumentException("Invalid action " + action);
+            }
+            for (String methodName : methodNames) {
+                actionsByName.put(methodName, action);
+            }
+            return this;
+        }
+
+        public MethodDispatchTable build() {
+            return new MethodDispatchTable(new HashMap<String, Integer>(actionsByName));
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.github.gquintana.metrics.proxy;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link MethodInvoker} using {@link MethodHandle}s.
+ * Each {@link Method} is {@link #bind(Method) bound} once: methods with up to {@link #MAX_LAMBDA_ARITY} parameters
+ * get a class generated by {@link LambdaMetafactory} calling the method directly, so that the call can be inlined;
+ * other methods get a spreading method handle.
+ * Bound methods are invoked without argument copy nor {@link java.lang.reflect.InvocationTargetException} wrapping.
+ * Proxy handlers using a {@link MethodDispatchTable} keep bound invokers in its entries,
+ * {@link #invoke(Method, Object, Object[])} looks them up in a cache.
+ */
+public class MethodHandleMethodInvoker implements MethodInvoker {
+    /**
+     * Maximum number of parameters of methods bound with {@link LambdaMetafactory}
+     */
+    static final int MAX_LAMBDA_ARITY = 3;
+    /**
+     * Generic type of spreading method handles: (Object target, Object[] args) returns Object
+     */
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+    /**
+     * Functional interfaces implemented by {@link LambdaMetafactory}, indexed by arity, for non void methods
+     */
+    private static final Class<?>[] FUNCTION_TYPES = {Function0.class, Function1.class, Function2.class, Function3.class};
+    /**
+     * Functional interfaces implemented by {@link LambdaMetafactory}, indexed by arity, for void methods
+     */
+    private static final Class<?>[] PROCEDURE_TYPES = {Procedure0.class, Procedure1.class, Procedure2.class, Procedure3.class};
+    private final ConcurrentHashMap<Method, BoundMethodInvoker> boundInvokerCache = new ConcurrentHashMap<>();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BoundMethodInvoker bind(Method method) {
+        MethodHandle methodHandle;
+        try {
+            methodHandle = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException illegalAccessException) {
+            throw new ProxyException(illegalAccessException);
+        }
+        BoundMethodInvoker boundInvoker = null;
+        if (method.getParameterTypes().length <= MAX_LAMBDA_ARITY && isVisible(method)) {
+            boundInvoker = createLambda(methodHandle);
+        }
+        if (boundInvoker == null) {
+            MethodHandle spreader = methodHandle.asSpreader(Object[].class, method.getParameterTypes().length)
+                    .asType(INVOKER_TYPE);
+            boundInvoker = (target, args) -> spreader.invokeExact(target, args);
+        }
+        return boundInvoker;
+    }
+
+    /**
+     * Check types used by the method can be resolved from this class loader, where lambda classes are defined
+     */
+    private static boolean isVisible(Method method) {
+        if (!isVisible(method.getDeclaringClass()) || !isVisible(method.getReturnType())) {
+            return false;
+        }
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isVisible(parameterType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVisible(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        try {
+            return Class.forName(type.getName(), false, MethodHandleMethodInvoker.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Generate a class implementing a functional interface by calling the method handle
+     *
+     * @return Bound invoker or null when the method handle can not be converted
+     */
+    private static BoundMethodInvoker createLambda(MethodHandle methodHandle) {
+        MethodType type = methodHandle.type();
+        int arity = type.parameterCount() - 1;
+        boolean isVoid = type.returnType() == void.class;
+        Class<?> functionType = (isVoid ? PROCEDURE_TYPES : FUNCTION_TYPES)[arity];
+        MethodType samType = MethodType.genericMethodType(arity + 1);
+        MethodType instantiatedType = type.wrap();
+        if (isVoid) {
+            samType = samType.changeReturnType(void.class);
+            instantiatedType = instantiatedType.changeReturnType(void.class);
+        }
+        try {
+            CallSite callSite = LambdaMetafactory.metafactory(MethodHandles.lookup(), "call", MethodType.methodType(functionType),
+                    samType, methodHandle, instantiatedType);
+            return (BoundMethodInvoker) callSite.getTarget().invoke();
+        } catch (LambdaConversionException | IllegalArgumentException e) {
+            return null;
+        } catch (Throwable throwable) {
+            throw new ProxyException(throwable);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        BoundMethodInvoker boundInvoker = boundInvokerCache.get(method);
+        if (boundInvoker == null) {
+            boundInvoker = bind(method);
+            final BoundMethodInvoker oldBoundInvoker = boundInvokerCache.putIfAbsent(method, boundInvoker);
+            boundInvoker = oldBoundInvoker == null ? boundInvoker : oldBoundInvoker;
+        }
+        return boundInvoker.invoke(target, args);
+    }
+
+    /**
+     * Clears the bound invoker cache
+     */
+    public void clearCache() {
+        boundInvokerCache.clear();
+    }
+
+    private interface Function0 extends BoundMethodInvoker {
+        Object call(Object target) throws Throwable;
+
+        @Override
+        default Object invoke(Object target, Object[] args) throws Throwable {
+            return call(target);
+        }
+    }
+
+    private interface Function1 extends BoundMethodInvoker {
+        Object call(Object target, Object arg0) throws Throwable;
+
+        @Override
+        default Object invoke(Object target, Object[] args) throws Throwable {
+            return call(target, args[0]);
+        }
+    }
+
+    private interface Function2 extends BoundMethodInvoker {
+        Object call(Object target, Object arg0, Object arg1) throws Throwable;
+
+        @Override
+        default Object invoke(Object target, Object[] args) throws Throwable {
+            return call(target, args[0], args[1]);
+        }
+    }
+
+    private interface Function3 extends BoundMethodInvoker {
+        Object call(Object target, Object arg0, Object arg1, Object arg2) throws Throwable;
+
+        @Override
+        default Object invoke(Object target, Object[] args) throws Throwable {
+            return call(target, args[0], args[1], args[2]);
+        }
+    }
+
+    private interface Procedure0 extends BoundMethodInvoker {
+        void call(Object target) throws Throwable;
+
+        @Override
+        default Object invoke(Object target, Object[] args) throws Throwable {
+            call(target);
+            return null;
+        }
+    }
+
+    private interface Procedure1 extends BoundMethodInvoker {
+        void call(Object target, Object arg0) throws Throwable;
+
+        @Override
+        default Object invoke(Object target, Object[] args) throws Throwable {
+            call(target, args[0]);
+            return null;
+        }
+    }
+
+    private interface Procedure2 extends BoundMethodInvoker {
+        void call(Object target, Object arg0, Object arg1) throws Throwable;
+
+        @Override
+        default Object invoke(Object target, Object[] args) throws Throwable {
+            call(target, args[0], args[1]);
+            return null;
+        }
+    }
+
+    private interface Procedure3 extends BoundMethodInvoker {
+        void call(Object target, Object arg0, Object arg1, Object arg2) throws Throwable;
+
+        @Override
+        default Object invoke(Object target, Object[] args) throws Throwable {
+            call(target, args[0], args[1], args[2]);
+            return null;
+        }
+    }
+}
@@ -20,7 +20,6 @@ package com.github.gquintana.metrics.proxy;
  * #L%
  */
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 /**
@@ -46,8 +45,17 @@ public final class MethodInvocation<T> {
      * Invocation arguments
      */
     private final Object[] args;
+    /**
+     * Strategy to call method on target
+     */
+    private final MethodInvoker methodInvoker;
 
     public MethodInvocation(T target, Object proxy, Method method, Object... args) {
+        this(ReflectMethodInvoker.INSTANCE, target, proxy, method, args);
+    }
+
+    public MethodInvocation(MethodInvoker methodInvoker, T target, Object proxy, Method method, Object... args) {
+        this.methodInvoker = methodInvoker;
         this.delegate = target;
         this.proxy = proxy;
         this.method = method;
@@ -71,11 +79,7 @@ public final class MethodInvocation<T> {
     }
 
     public Object proceed() throws Throwable {
-        try {
-            return method.invoke(delegate, args);
-        } catch(InvocationTargetException e) {
-            throw e.getTargetException();
-        }
+        return methodInvoker.invoke(method, delegate, args);
     }
 
 }
@@ -0,0 +1,50 @@
+package com.github.gquintana.metrics.proxy;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.lang.reflect.Method;
+
+/**
+ * Strategy used to call a method on the wrapped (real) object
+ */
+public interface MethodInvoker {
+    /**
+     * Invoke method on target object
+     *
+     * @param method Method to call
+     * @param target Target (real) object
+     * @param args Invocation arguments, may be null when method has no parameter
+     * @return Method invocation results
+     * @throws Throwable Exception raised by the method itself, not wrapped
+     */
+    Object invoke(Method method, Object target, Object[] args) throws Throwable;
+
+    /**
+     * Resolve once the way to call a method, callers keep the bound invoker to avoid resolving the method on each call.
+     * The bound invoker only depends on the method: it may be shared by all invokers of the same class.
+     *
+     * @param method Method to call
+     * @return Invoker of this method
+     */
+    default BoundMethodInvoker bind(Method method) {
+        return (target, args) -> invoke(method, target, args);
+    }
+}
@@ -38,22 +38,76 @@ public class ProxyHandler<T> implements InvocationHandler {
      * Wrapped class and concrete implementation
      */
     protected final T delegate;
+    /**
+     * Strategy used to call wrapped class methods
+     */
+    protected final MethodInvoker methodInvoker;
 
     /**
-     * Main constructor
+     * Constructor using reflection to call wrapped class
      *
      * @param delegate Wrapped class and concrete implementation
      */
     public ProxyHandler(T delegate) {
+        this(delegate, ReflectMethodInvoker.INSTANCE);
+    }
+
+    /**
+     * Main constructor
+     *
+     * @param delegate Wrapped class and concrete implementation
+     * @param methodInvoker Strategy used to call wrapped class methods
+     */
+    public ProxyHandler(T delegate, MethodInvoker methodInvoker) {
         super();
         this.delegate = delegate;
+        this.methodInvoker = methodInvoker;
     }
 
     /**
      * {@inheritDoc }
      */
     public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-        return invoke(new MethodInvocation<T>(delegate, proxy, method, args));
+        return intercept(proxy, method, args);
+    }
+
+    /**
+     * Method to override in child classes which don't need a {@link MethodInvocation}:
+     * nothing is allocated on each call.
+     * Wrapped object method is called using {@link #proceed(Method, Object[])}.
+     *
+     * @param proxy Proxy
+     * @param method Invoked method
+     * @param args Invocation arguments
+     * @return Method invocation results
+     * @throws Throwable Method invocation raised exception
+     */
+    protected Object intercept(Object proxy, Method method, Object[] args) throws Throwable {
+        return invoke(new MethodInvocation<T>(methodInvoker, delegate, proxy, method, args));
+    }
+
+    /**
+     * Call wrapped object method
+     *
+     * @param method Invoked method
+     * @param args Invocation arguments
+     * @return Method invocation results
+     * @throws Throwable Method invocation raised exception
+     */
+    protected final Object proceed(Method method, Object[] args) throws Throwable {
+        return methodInvoker.invoke(method, delegate, args);
+    }
+
+    /**
+     * Call wrapped object method, bound once in the dispatch table entry
+     *
+     * @param entry Dispatch table entry of invoked method
+     * @param args Invocation arguments
+     * @return Method invocation results
+     * @throws Throwable Method invocation raised exception
+     */
+    protected final Object proceed(MethodDispatchTable.Entry entry, Object[] args) throws Throwable {
+        return entry.invoke(methodInvoker, delegate, args);
     }
 
     /**
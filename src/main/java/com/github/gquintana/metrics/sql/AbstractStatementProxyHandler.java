@@ -21,8 +21,9 @@ package com.github.gquintana.metrics.sql;
  */
 
 
-import com.github.gquintana.metrics.proxy.MethodInvocation;
+import com.github.gquintana.metrics.proxy.MethodDispatchTable;
 
+import java.lang.reflect.Method;
 import java.sql.ResultSet;
 import java.sql.Statement;
 
@@ -32,36 +33,37 @@ import java.sql.Statement;
  * @param <T> Statement type
  */
 public abstract class AbstractStatementProxyHandler<T extends Statement> extends JdbcProxyHandler<T> {
+    private static final int EXECUTE = 4;
+    private static final MethodDispatchTable DISPATCH_TABLE = wrapperDispatchTableBuilder()
+            .withAction(EXECUTE, "execute", "executeQuery", "executeUpdate")
+            .build();
 
     public AbstractStatementProxyHandler(T delegate, Class<T> delegateType, JdbcProxyFactory proxyFactory, TimeObservation lifeTimerContext) {
         super(delegate, delegateType, proxyFactory, lifeTimerContext);
     }
 
     @Override
-    protected Object invoke(MethodInvocation<T> delegatingMethodInvocation) throws Throwable {
-        final String methodName = delegatingMethodInvocation.getMethodName();
-        Object result;
-        if (methodName.equals("isWrapperFor")) {
-            result = isWrapperFor(delegatingMethodInvocation);
-        } else if (methodName.equals("unwrap")) {
-            result = unwrap(delegatingMethodInvocation);
-        } else if (methodName.equals("close")) {
-            result = close(delegatingMethodInvocation);
-        } else if (methodName.equals("execute") || methodName.equals("executeQuery") || methodName.equals("executeUpdate")) {
-            result = execute(delegatingMethodInvocation);
-        } else {
-            result = delegatingMethodInvocation.proceed();
+    protected Object intercept(Object proxy, Method method, Object[] args) throws Throwable {
+        MethodDispatchTable.Entry entry = DISPATCH_TABLE.getEntry(method);
+        switch (entry.getAction()) {
+            case IS_WRAPPER_FOR:
+                return isWrapperFor(entry, args);
+            case UNWRAP:
+                return unwrap(args);
+            case CLOSE:
+                return close(entry, args);
+            case EXECUTE:
+                return execute(entry, args);
+            default:
+                return proceed(entry, args);
         }
-        return result;
     }
 
-    protected abstract Object execute(MethodInvocation<T> delegatingMethodInvocation) throws Throwable;
-
-    private static final InvocationFilter THIS_INVOCATION_FILTER = new MethodNamesInvocationFilter("isWrapperFor", "unwrap", "close", "execute", "executeQuery", "executeUpdate");
+    protected abstract Object execute(MethodDispatchTable.Entry entry, Object[] args) throws Throwable;
 
     @Override
     public InvocationFilter getInvocationFilter() {
-        return THIS_INVOCATION_FILTER;
+        return DISPATCH_TABLE;
     }
 
     protected Object wrapResultSet(Query query, Object result) {
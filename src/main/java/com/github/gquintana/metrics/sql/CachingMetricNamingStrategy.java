@@ -0,0 +1,297 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.backend.MeterName;
+import com.github.gquintana.metrics.util.LruCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Objects;
+
+/**
+ * Decorates a {@link MetricNamingStrategy} to remember generated SQL Ids and metric names.
+ * When the wrapped strategy is a {@link TaggedMetricNamingStrategy}, meter tags are cached as well.
+ * Names depending on the SQL query are cached by (name type, SQL) in bounded LRU caches,
+ * other names are computed once at construction.
+ * The wrapped strategy must always return the same name for the same arguments.
+ *
+ * Cache hits, misses, evictions and size can be published as {@code cache.*} meters using {@link #bindTo(MeterRegistry)}.
+ */
+public class CachingMetricNamingStrategy implements TaggedMetricNamingStrategy, MeterBinder {
+    /**
+     * Default maximum number of cached SQL queries for each name type
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+    private static final int STATEMENT_EXECUTE = 0;
+    private static final int PREPARED_STATEMENT_LIFE = 1;
+    private static final int PREPARED_STATEMENT_EXECUTE = 2;
+    private static final int CALLABLE_STATEMENT_LIFE = 3;
+    private static final int CALLABLE_STATEMENT_EXECUTE = 4;
+    private static final int RESULT_SET_LIFE = 5;
+    private static final int RESULT_SET_ROW = 6;
+    private static final int RESULT_SET_ROW_SUMMARY = 7;
+    private static final int NAME_TYPE_COUNT = 8;
+
+    private final MetricNamingStrategy namingStrategy;
+    private final TaggedMetricNamingStrategy taggedNamingStrategy;
+    private final MeterName connectionGetTimer;
+    private final MeterName connectionLifeTimer;
+    private final MeterName statementLifeTimer;
+    private final LruCache<String, String> sqlIdCache;
+    /**
+     * Name caches indexed by name type
+     */
+    private final LruCache<String, CachedName>[] nameCaches;
+
+    /**
+     * Cached metric name, with the SQL Id used to generate it
+     */
+    private static final class CachedName {
+        private final String sqlId;
+        private final MeterName name;
+
+        private CachedName(String sqlId, MeterName name) {
+            this.sqlId = sqlId;
+            this.name = name;
+        }
+    }
+
+    /**
+     * Constructor using default maximum size
+     *
+     * @param namingStrategy Wrapped naming strategy
+     */
+    public CachingMetricNamingStrategy(MetricNamingStrategy namingStrategy) {
+        this(namingStrategy, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Main constructor
+     *
+     * @param namingStrategy Wrapped naming strategy
+     * @param maximumSize Maximum number of cached SQL queries for each name type
+     */
+    public CachingMetricNamingStrategy(MetricNamingStrategy namingStrategy, int maximumSize) {
+        this.namingStrategy = namingStrategy;
+        this.taggedNamingStrategy = FlatMetricNamingStrategyAdapter.adapt(namingStrategy);
+        this.connectionGetTimer = taggedNamingStrategy.getTaggedConnectionGetTimer();
+        this.connectionLifeTimer = taggedNamingStrategy.getTaggedConnectionLifeTimer();
+        this.statementLifeTimer = taggedNamingStrategy.getTaggedStatementLifeTimer();
+        this.sqlIdCache = new LruCache<>(maximumSize);
+        this.nameCaches = newNameCaches(NAME_TYPE_COUNT);
+        for (int i = 0; i < NAME_TYPE_COUNT; i++) {
+            nameCaches[i] = new LruCache<>(maximumSize);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static LruCache<String, CachedName>[] newNameCaches(int count) {
+        return (LruCache<String, CachedName>[]) new LruCache<?, ?>[count];
+    }
+
+    public MetricNamingStrategy getNamingStrategy() {
+        return namingStrategy;
+    }
+
+    private MeterName computeName(int nameType, String sql, String sqlId) {
+        switch (nameType) {
+            case STATEMENT_EXECUTE:
+                return taggedNamingStrategy.getTaggedStatementExecuteTimer(sql, sqlId);
+            case PREPARED_STATEMENT_LIFE:
+                return taggedNamingStrategy.getTaggedPreparedStatementLifeTimer(sql, sqlId);
+            case PREPARED_STATEMENT_EXECUTE:
+                return taggedNamingStrategy.getTaggedPreparedStatementExecuteTimer(sql, sqlId);
+            case CALLABLE_STATEMENT_LIFE:
+                return taggedNamingStrategy.getTaggedCallableStatementLifeTimer(sql, sqlId);
+            case CALLABLE_STATEMENT_EXECUTE:
+                return taggedNamingStrategy.getTaggedCallableStatementExecuteTimer(sql, sqlId);
+            case RESULT_SET_LIFE:
+                return taggedNamingStrategy.getTaggedResultSetLifeTimer(sql, sqlId);
+            case RESULT_SET_ROW:
+                return taggedNamingStrategy.getTaggedResultSetRowMeter(sql, sqlId);
+            case RESULT_SET_ROW_SUMMARY:
+                return taggedNamingStrategy.getTaggedResultSetRowSummary(sql, sqlId);
+            default:
+                throw new IllegalArgumentException("Invalid name type " + nameType);
+        }
+    }
+
+    private MeterName getName(int nameType, String sql, String sqlId) {
+        if (sql == null) {
+            return computeName(nameType, sql, sqlId);
+        }
+        final LruCache<String, CachedName> nameCache = nameCaches[nameType];
+        CachedName cachedName = nameCache.get(sql);
+        // A Query built with an explicit SQL Id may use another SQL Id for the same SQL
+        if (cachedName == null || !Objects.equals(cachedName.sqlId, sqlId)) {
+            cachedName = new CachedName(sqlId, computeName(nameType, sql, sqlId));
+            nameCache.put(sql, cachedName);
+        }
+        return cachedName.name;
+    }
+
+    @Override
+    public MeterName getTaggedConnectionGetTimer() {
+        return connectionGetTimer;
+    }
+
+    @Override
+    public MeterName getTaggedConnectionLifeTimer() {
+        return connectionLifeTimer;
+    }
+
+    @Override
+    public MeterName getTaggedStatementLifeTimer() {
+        return statementLifeTimer;
+    }
+
+    @Override
+    public MeterName getTaggedStatementExecuteTimer(String sql, String sqlId) {
+        return getName(STATEMENT_EXECUTE, sql, sqlId);
+    }
+
+    @Override
+    public MeterName getTaggedPreparedStatementLifeTimer(String sql, String sqlId) {
+        return getName(PREPARED_STATEMENT_LIFE, sql, sqlId);
+    }
+
+    @Override
+    public MeterName getTaggedPreparedStatementExecuteTimer(String sql, String sqlId) {
+        return getName(PREPARED_STATEMENT_EXECUTE, sql, sqlId);
+    }
+
+    @Override
+    public MeterName getTaggedCallableStatementLifeTimer(String sql, String sqlId) {
+        return getName(CALLABLE_STATEMENT_LIFE, sql, sqlId);
+    }
+
+    @Override
+    public MeterName getTaggedCallableStatementExecuteTimer(String sql, String sqlId) {
+        return getName(CALLABLE_STATEMENT_EXECUTE, sql, sqlId);
+    }
+
+    @Override
+    public MeterName getTaggedResultSetLifeTimer(String sql, String sqlId) {
+        return getName(RESULT_SET_LIFE, sql, sqlId);
+    }
+
+    @Override
+    public String getSqlId(String sql) {
+        String sqlId = sqlIdCache.get(sql);
+        if (sqlId == null) {
+            sqlId = namingStrategy.getSqlId(sql);
+            if (sqlId != null) {
+                sqlIdCache.put(sql, sqlId);
+            }
+        }
+        return sqlId;
+    }
+
+    @Override
+    public MeterName getTaggedResultSetRowMeter(String sql, String sqlId) {
+        return getName(RESULT_SET_ROW, sql, sqlId);
+    }
+
+    @Override
+    public MeterName getTaggedResultSetRowSummary(String sql, String sqlId) {
+        return getName(RESULT_SET_ROW_SUMMARY, sql, sqlId);
+    }
+
+    /**
+     * @return Number of SQL Ids and names found in cache
+     */
+    public long getHitCount() {
+        long hitCount = sqlIdCache.getHitCount();
+        for (LruCache<String, CachedName> nameCache : nameCaches) {
+            hitCount += nameCache.getHitCount();
+        }
+        return hitCount;
+    }
+
+    /**
+     * @return Number of SQL Ids and names generated by the wrapped naming strategy
+     */
+    public long getMissCount() {
+        long missCount = sqlIdCache.getMissCount();
+        for (LruCache<String, CachedName> nameCache : nameCaches) {
+            missCount += nameCache.getMissCount();
+        }
+        return missCount;
+    }
+
+    /**
+     * @return Number of SQL Ids and names evicted from cache
+     */
+    public long getEvictionCount() {
+        long evictionCount = sqlIdCache.getEvictionCount();
+        for (LruCache<String, CachedName> nameCache : nameCaches) {
+            evictionCount += nameCache.getEvictionCount();
+        }
+        return evictionCount;
+    }
+
+    /**
+     * @return Number of cached SQL Ids and names
+     */
+    public long size() {
+        long size = sqlIdCache.size();
+        for (LruCache<String, CachedName> nameCache : nameCaches) {
+            size += nameCache.size();
+        }
+        return size;
+    }
+
+    /**
+     * Remove all cached SQL Ids and names
+     */
+    public void clear() {
+        sqlIdCache.clear();
+        for (LruCache<String, CachedName> nameCache : nameCaches) {
+            nameCache.clear();
+        }
+    }
+
+    /**
+     * Register cache meters, using the same names as Micrometer cache meters
+     *
+     * @param registry Meter registry
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Tags tags = Tags.of("cache", "metrics-sql-naming");
+        FunctionCounter.builder("cache.gets", this, CachingMetricNamingStrategy::getHitCount)
+                .tags(tags).tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, CachingMetricNamingStrategy::getMissCount)
+                .tags(tags).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", this, CachingMetricNamingStrategy::getEvictionCount)
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("cache.size", this, CachingMetricNamingStrategy::size)
+                .tags(tags)
+                .register(registry);
+    }
+}
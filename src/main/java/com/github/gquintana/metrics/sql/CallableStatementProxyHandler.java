@@ -21,7 +21,7 @@ package com.github.gquintana.metrics.sql;
  */
 
 
-import com.github.gquintana.metrics.proxy.MethodInvocation;
+import com.github.gquintana.metrics.proxy.MethodDispatchTable;
 
 import java.sql.CallableStatement;
 
@@ -37,17 +37,27 @@ public class CallableStatementProxyHandler extends AbstractStatementProxyHandler
         this.query = query;
     }
 
-    protected final Object execute(MethodInvocation<CallableStatement> methodInvocation) throws Throwable {
+    protected final Object execute(MethodDispatchTable.Entry entry, Object[] args) throws Throwable {
         Query currentQuery;
-        if (methodInvocation.getArgCount() > 0) {
-            currentQuery = new Query(methodInvocation.getArgAt(0, String.class));
+        if (args != null && args.length > 0) {
+            currentQuery = new Query((String) args[0]);
         } else {
             currentQuery = this.query;
         }
         TimeObservation timerContext = getTimerStarter().startCallableStatementExecuteTimer(currentQuery);
-        Object result = methodInvocation.proceed();
-        stopTimer(timerContext);
+        Object result;
+        try {
+            result = proceed(entry, args);
+        } catch (Throwable throwable) {
+            getTimerStarter().markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
         return wrapResultSet(currentQuery, result);
     }
 
+    public Query getQuery() {
+        return query;
+    }
 }
@@ -0,0 +1,169 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.backend.Meter;
+import com.github.gquintana.metrics.backend.MeterName;
+import com.github.gquintana.metrics.backend.MetricsBackend;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Limits the number of distinct meters of one {@link QueryMeter} type.
+ * Internal helper class.
+ * <p>
+ * When the limit is reached, the least recently resolved meter is checked:
+ * if it was not used since the last check, it is removed from the backend and the new meter takes its place,
+ * otherwise it gets a second chance and the new meter name is replaced by the shared overflow meter.
+ */
+class CardinalityLimiter {
+    private final int maximumSize;
+    private final MetricsBackend backend;
+    private final Function<MeterName, Meter> meterFactory;
+    private final MeterName overflowName;
+    /**
+     * Meter handles by name, in resolution order
+     */
+    private final LinkedHashMap<MeterName, Handle> handles = new LinkedHashMap<>(16, 0.75F, true);
+    private Handle overflowHandle;
+    private long evictionCount;
+    private long overflowCount;
+
+    /**
+     * Meter shared by queries, removed from backend when evicted
+     */
+    static final class Handle {
+        private final Meter meter;
+        private volatile boolean removed;
+        /**
+         * Meter use count when last checked for eviction
+         */
+        private long checkedUseCount;
+
+        private Handle(Meter meter) {
+            this.meter = meter;
+        }
+
+        Meter getMeter() {
+            return meter;
+        }
+
+        boolean isRemoved() {
+            return removed;
+        }
+
+        private long getUseCount() {
+            return meter == null ? 0L : meter.count();
+        }
+    }
+
+    /**
+     * @param maximumSize Maximum number of distinct meters, excluding overflow meter
+     * @param backend Backend meters are removed from
+     * @param meterFactory Meter registration function
+     * @param overflowName Overflow meter name, null to drop measures past the limit
+     */
+    CardinalityLimiter(int maximumSize, MetricsBackend backend, Function<MeterName, Meter> meterFactory, MeterName overflowName) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Invalid maximum size " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.backend = backend;
+        this.meterFactory = meterFactory;
+        this.overflowName = overflowName;
+    }
+
+    /**
+     * Get or register meter
+     *
+     * @param name Meter name
+     * @return Meter handle, or null when the limit is reached and there is no overflow meter
+     */
+    synchronized Handle getHandle(MeterName name) {
+        Handle handle = handles.get(name);
+        if (handle != null) {
+            return handle;
+        }
+        if (handles.size() >= maximumSize && !evictIdle()) {
+            overflowCount++;
+            return getOverflowHandle();
+        }
+        handle = new Handle(meterFactory.apply(name));
+        handles.put(name, handle);
+        return handle;
+    }
+
+    private Handle getOverflowHandle() {
+        if (overflowHandle == null && overflowName != null) {
+            overflowHandle = new Handle(meterFactory.apply(overflowName));
+        }
+        return overflowHandle;
+    }
+
+    /**
+     * Evict least recently resolved meter when it was not used since last check
+     *
+     * @return true if a meter was evicted
+     */
+    private boolean evictIdle() {
+        Iterator<Map.Entry<MeterName, Handle>> iterator = handles.entrySet().iterator();
+        Map.Entry<MeterName, Handle> eldest = iterator.next();
+        Handle handle = eldest.getValue();
+        long useCount = handle.getUseCount();
+        if (useCount == handle.checkedUseCount) {
+            iterator.remove();
+            handle.removed = true;
+            if (handle.meter != null) {
+                backend.remove(handle.meter);
+            }
+            evictionCount++;
+            return true;
+        }
+        // Second chance: move it to the most recently resolved position
+        handle.checkedUseCount = useCount;
+        handles.get(eldest.getKey());
+        return false;
+    }
+
+    /**
+     * @return Number of distinct meters, excluding overflow meter
+     */
+    synchronized int size() {
+        return handles.size();
+    }
+
+    /**
+     * @return Number of meters removed from backend
+     */
+    synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return Number of meter names replaced by the overflow meter
+     */
+    synchronized long getOverflowCount() {
+        return overflowCount;
+    }
+}
@@ -20,8 +20,9 @@ package com.github.gquintana.metrics.sql;
  * #L%
  */
 
-import com.github.gquintana.metrics.proxy.MethodInvocation;
+import com.github.gquintana.metrics.proxy.MethodDispatchTable;
 
+import java.lang.reflect.Method;
 import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -31,6 +32,14 @@ import java.sql.Statement;
  * JDBC Proxy handler for {@link Connection}
  */
 public class ConnectionProxyHandler extends JdbcProxyHandler<Connection> {
+    private static final int CREATE_STATEMENT = 4;
+    private static final int PREPARE_STATEMENT = 5;
+    private static final int PREPARE_CALL = 6;
+    private static final MethodDispatchTable DISPATCH_TABLE = wrapperDispatchTableBuilder()
+            .withAction(CREATE_STATEMENT, "createStatement")
+            .withAction(PREPARE_STATEMENT, "prepareStatement")
+            .withAction(PREPARE_CALL, "prepareCall")
+            .build();
 
     /**
      * Main constructor
@@ -44,58 +53,65 @@ public class ConnectionProxyHandler extends JdbcProxyHandler<Connection> {
     }
 
     @Override
-    protected Object invoke(MethodInvocation<Connection> delegatingMethodInvocation) throws Throwable {
-        final String methodName = delegatingMethodInvocation.getMethodName();
-        Object result;
-        if (methodName.equals("isWrapperFor")) {
-            result = isWrapperFor(delegatingMethodInvocation);
-        } else if (methodName.equals("unwrap")) {
-            result = unwrap(delegatingMethodInvocation);
-        } else if (methodName.equals("close")) {
-            result = close(delegatingMethodInvocation);
-        } else if (methodName.equals("createStatement")) {
-            result = createStatement(delegatingMethodInvocation);
-        } else if (methodName.equals("prepareStatement")) {
-            result = prepareStatement(delegatingMethodInvocation);
-        } else if (methodName.equals("prepareCall")) {
-            result = prepareCall(delegatingMethodInvocation);
-        } else {
-            result = delegatingMethodInvocation.proceed();
+    protected Object intercept(Object proxy, Method method, Object[] args) throws Throwable {
+        MethodDispatchTable.Entry entry = DISPATCH_TABLE.getEntry(method);
+        switch (entry.getAction()) {
+            case IS_WRAPPER_FOR:
+                return isWrapperFor(entry, args);
+            case UNWRAP:
+                return unwrap(args);
+            case CLOSE:
+                return close(entry, args);
+            case CREATE_STATEMENT:
+                return createStatement(entry, args);
+            case PREPARE_STATEMENT:
+                return prepareStatement(entry, args);
+            case PREPARE_CALL:
+                return prepareCall(entry, args);
+            default:
+                return proceed(entry, args);
         }
-        return result;
+    }
+
+    @Override
+    public InvocationFilter getInvocationFilter() {
+        return DISPATCH_TABLE;
     }
 
     /**
      * Wrap Statement during {@link Connection#createStatement()}
-     * @param methodInvocation Current {@link Connection#createStatement()} invocation
+     * @param entry Dispatch table entry of current {@link Connection#createStatement()} method
+     * @param args Current invocation arguments
      * @return Proxified {@link Statement}
      */
-    private Statement createStatement(MethodInvocation<Connection> methodInvocation) throws Throwable {
-        Statement result = (Statement) methodInvocation.proceed();
+    private Statement createStatement(MethodDispatchTable.Entry entry, Object[] args) throws Throwable {
+        Statement result = (Statement) proceed(entry, args);
         result = proxyFactory.wrapStatement(result);
         return result;
     }
 
     /**
      * Wrap Statement during {@link Connection#prepareStatement(String)} ()}
-     * @param methodInvocation Current {@link Connection#prepareStatement(String)} invocation
+     * @param entry Dispatch table entry of current {@link Connection#prepareStatement(String)} method
+     * @param args Current invocation arguments
      * @return Proxified {@link PreparedStatement}
      */
-    private PreparedStatement prepareStatement(MethodInvocation<Connection> methodInvocation) throws Throwable {
-        String sql = methodInvocation.getArgAt(0, String.class);
-        PreparedStatement result = (PreparedStatement) methodInvocation.proceed();
+    private PreparedStatement prepareStatement(MethodDispatchTable.Entry entry, Object[] args) throws Throwable {
+        String sql = (String) args[0];
+        PreparedStatement result = (PreparedStatement) proceed(entry, args);
         result = proxyFactory.wrapPreparedStatement(result, sql);
         return result;
     }
 
     /**
      * Wrap Statement during {@link Connection#prepareCall(String)}
-     * @param methodInvocation Current {@link Connection#prepareCall(String)}  invocation
+     * @param entry Dispatch table entry of current {@link Connection#prepareCall(String)} method
+     * @param args Current invocation arguments
      * @return Proxified {@link CallableStatement}
      */
-    private CallableStatement prepareCall(MethodInvocation<Connection> methodInvocation) throws Throwable {
-        String sql = methodInvocation.getArgAt(0, String.class);
-        CallableStatement result = (CallableStatement) methodInvocation.proceed();
+    private CallableStatement prepareCall(MethodDispatchTable.Entry entry, Object[] args) throws Throwable {
+        String sql = (String) args[0];
+        CallableStatement result = (CallableStatement) proceed(entry, args);
         result = proxyFactory.wrapCallableStatement(result, sql);
         return result;
     }
@@ -21,33 +21,43 @@ package com.github.gquintana.metrics.sql;
  */
 
 
-import com.github.gquintana.metrics.proxy.MethodInvocation;
+import com.github.gquintana.metrics.proxy.MethodDispatchTable;
 
 import javax.sql.DataSource;
+import java.lang.reflect.Method;
 import java.sql.Connection;
 
 /**
  * JDBC Proxy handler for {@link DataSource}
  */
 public class DataSourceProxyHandler extends JdbcProxyHandler<DataSource> {
+    private static final int GET_CONNECTION = 1;
+    private static final MethodDispatchTable DISPATCH_TABLE = MethodDispatchTable.builder()
+            .withAction(GET_CONNECTION, "getConnection")
+            .build();
+
     public DataSourceProxyHandler(DataSource delegate, JdbcProxyFactory proxyFactory) {
         super(delegate, DataSource.class, proxyFactory, null);
     }
     @Override
-    protected Object invoke(MethodInvocation<DataSource> methodInvocation) throws Throwable {
-        final String methodName=methodInvocation.getMethodName();
-        Object result;
-        if (methodName.equals("getConnection")) {
-            result=getConnection(methodInvocation);
-        } else {
-            result=methodInvocation.proceed();
+    protected Object intercept(Object proxy, Method method, Object[] args) throws Throwable {
+        MethodDispatchTable.Entry entry = DISPATCH_TABLE.getEntry(method);
+        switch (entry.getAction()) {
+            case GET_CONNECTION:
+                return getConnection(entry, args);
+            default:
+                return proceed(entry, args);
         }
-        return result;
     }
 
-    private Connection getConnection(MethodInvocation<DataSource> methodInvocation) throws Throwable {
+    @Override
+    public InvocationFilter getInvocationFilter() {
+        return DISPATCH_TABLE;
+    }
+
+    private Connection getConnection(MethodDispatchTable.Entry entry, Object[] args) throws Throwable {
         TimeObservation getTimerContext = getTimerStarter().startConnectionGetTimer();
-        Connection connection=(Connection) methodInvocation.proceed();
+        Connection connection=(Connection) proceed(entry, args);
         stopTimer(getTimerContext);
         connection = proxyFactory.wrapConnection(connection);
         return connection;
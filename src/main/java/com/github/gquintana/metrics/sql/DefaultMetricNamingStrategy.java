@@ -140,6 +140,15 @@ public class DefaultMetricNamingStrategy implements MetricNamingStrategy {
         return name(ResultSet.class, databaseName, sqlId, "rows");
     }
 
+    /**
+     * {@inheritDoc}
+     * Example: java.sql.ResultSet.database.[sqlId].size
+     */
+    @Override
+    public String getResultSetRowSummary(String sql, String sqlId) {
+        return name(ResultSet.class, databaseName, sqlId, "size");
+    }
+
     /**
      * Start a builder
      *
@@ -0,0 +1,229 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.backend.MeterName;
+import com.github.gquintana.metrics.util.SqlNormalizer;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Implementation of {@link TaggedMetricNamingStrategy} for dimensional metric backends.
+ * Meter names don't depend on the SQL query, the database, statement type and SQL Id are tags:
+ * <code>jdbc.statement.execute{database=my_database,statement=prepared,sql=select * from my_table where id=?}</code>.
+ * SQL Ids are normalized SQL queries.
+ * Meters sharing a name always have the same tag keys, as dimensional registries like Prometheus require.
+ * Tags not depending on SQL query are built once.
+ *
+ * @see SqlNormalizer
+ */
+public class DimensionalMetricNamingStrategy implements TaggedMetricNamingStrategy {
+    /**
+     * SQL Id tag of meters not depending on SQL query
+     */
+    public static final String NO_SQL_ID = "";
+    private final SqlNormalizer normalizer;
+    private final MeterName connectionGetTimer;
+    private final MeterName connectionLifeTimer;
+    private final MeterName statementLifeTimer;
+    private final Tags statementTags;
+    private final Tags preparedStatementTags;
+    private final Tags callableStatementTags;
+    private final Tags resultSetTags;
+
+    public DimensionalMetricNamingStrategy() {
+        this(null);
+    }
+
+    /**
+     * @param databaseName Database name
+     */
+    public DimensionalMetricNamingStrategy(String databaseName) {
+        this(databaseName, new SqlNormalizer());
+    }
+
+    /**
+     * Main constructor
+     *
+     * @param databaseName Database name, used as <code>database</code> tag
+     * @param normalizer SQL normalizer, used to generate SQL Ids
+     */
+    public DimensionalMetricNamingStrategy(String databaseName, SqlNormalizer normalizer) {
+        this.normalizer = normalizer;
+        Tags databaseTags = databaseName == null || databaseName.isEmpty() ? Tags.empty() : Tags.of("database", databaseName);
+        this.statementTags = databaseTags.and("statement", "statement");
+        this.preparedStatementTags = databaseTags.and("statement", "prepared");
+        this.callableStatementTags = databaseTags.and("statement", "callable");
+        this.resultSetTags = databaseTags;
+        this.connectionGetTimer = MeterName.of("jdbc.connection.get", databaseTags);
+        this.connectionLifeTimer = MeterName.of("jdbc.connection.life", databaseTags);
+        this.statementLifeTimer = MeterName.of("jdbc.statement.life", statementTags.and("sql", NO_SQL_ID));
+    }
+
+    /**
+     * Generate SQL Id from SQL query.
+     *
+     * @param sql Input SQL
+     * @return Normalized SQL
+     */
+    @Override
+    public String getSqlId(String sql) {
+        return normalizer.normalize(sql);
+    }
+
+    private MeterName name(String name, Tags tags, String sql, String sqlId) {
+        return MeterName.of(name, tags.and("sql", sqlId == null ? getSqlId(sql) : sqlId));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Example: jdbc.connection.get{database=my_database}
+     */
+    @Override
+    public MeterName getTaggedConnectionGetTimer() {
+        return connectionGetTimer;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Example: jdbc.connection.life{database=my_database}
+     */
+    @Override
+    public MeterName getTaggedConnectionLifeTimer() {
+        return connectionLifeTimer;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Example: jdbc.statement.life{database=my_database,statement=statement,sql=}.
+     * A statement may execute several SQL queries, the <code>sql</code> tag is empty
+     * so that tag keys are the same as prepared and callable statement life timers.
+     */
+    @Override
+    public MeterName getTaggedStatementLifeTimer() {
+        return statementLifeTimer;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Example: jdbc.statement.execute{database=my_database,statement=statement,sql=select * from my_table}
+     */
+    @Override
+    public MeterName getTaggedStatementExecuteTimer(String sql, String sqlId) {
+        return name("jdbc.statement.execute", statementTags, sql, sqlId);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Example: jdbc.statement.life{database=my_database,statement=prepared,sql=select * from my_table}
+     */
+    @Override
+    public MeterName getTaggedPreparedStatementLifeTimer(String sql, String sqlId) {
+        return name("jdbc.statement.life", preparedStatementTags, sql, sqlId);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Example: jdbc.statement.execute{database=my_database,statement=prepared,sql=select * from my_table}
+     */
+    @Override
+    public MeterName getTaggedPreparedStatementExecuteTimer(String sql, String sqlId) {
+        return name("jdbc.statement.execute", preparedStatementTags, sql, sqlId);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Example: jdbc.statement.life{database=my_database,statement=callable,sql=call something()}
+     */
+    @Override
+    public MeterName getTaggedCallableStatementLifeTimer(String sql, String sqlId) {
+        return name("jdbc.statement.life", callableStatementTags, sql, sqlId);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Example: jdbc.statement.execute{database=my_database,statement=callable,sql=call something()}
+     */
+    @Override
+    public MeterName getTaggedCallableStatementExecuteTimer(String sql, String sqlId) {
+        return name("jdbc.statement.execute", callableStatementTags, sql, sqlId);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Example: jdbc.resultset.life{database=my_database,sql=select * from my_table}
+     */
+    @Override
+    public MeterName getTaggedResultSetLifeTimer(String sql, String sqlId) {
+        return name("jdbc.resultset.life", resultSetTags, sql, sqlId);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Example: jdbc.resultset.rows{database=my_database,sql=select * from my_table}
+     */
+    @Override
+    public MeterName getTaggedResultSetRowMeter(String sql, String sqlId) {
+        return name("jdbc.resultset.rows", resultSetTags, sql, sqlId);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Example: jdbc.resultset.size{database=my_database,sql=select * from my_table}
+     */
+    @Override
+    public MeterName getTaggedResultSetRowSummary(String sql, String sqlId) {
+        return name("jdbc.resultset.size", resultSetTags, sql, sqlId);
+    }
+
+    /**
+     * Start a builder
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder of {@link DimensionalMetricNamingStrategy}
+     */
+    public static class Builder {
+        private String databaseName;
+        private int maxLength = SqlNormalizer.DEFAULT_MAX_LENGTH;
+
+        public Builder withDatabaseName(String databaseName) {
+            this.databaseName = databaseName;
+            return this;
+        }
+
+        /**
+         * @param maxLength Maximum length of normalized SQL queries
+         * @return Current builder
+         */
+        public Builder withMaxLength(int maxLength) {
+            this.maxLength = maxLength;
+            return this;
+        }
+
+        public DimensionalMetricNamingStrategy build() {
+            return new DimensionalMetricNamingStrategy(databaseName, new SqlNormalizer(maxLength));
+        }
+    }
+}
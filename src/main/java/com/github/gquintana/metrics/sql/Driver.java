@@ -20,23 +20,57 @@ package com.github.gquintana.metrics.sql;
  * #L%
  */
 
+import com.github.gquintana.metrics.proxy.MethodInvoker;
 import com.github.gquintana.metrics.proxy.ProxyFactory;
+import com.github.gquintana.metrics.util.LruCache;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 
 import java.lang.reflect.Constructor;
 import java.sql.*;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
- * Metrics SQL JDBC Driver
+ * Metrics SQL JDBC Driver.
+ * Meters are recorded in the registry named by the <code>metrics_registry</code> URL property,
+ * or in the default registry when there is none.
+ * When no registry is bound to this name, meters are recorded in the default registry and a warning is logged.
+ * The parsed URL and the proxy factory stack are built once per URL and meter registry,
+ * so that meters and proxy classes are reused by connections sharing the same URL.
  */
 public class Driver implements java.sql.Driver {
     private static final Driver INSTANCE = new Driver();
     private static MeterRegistry REGISTRY = new CompositeMeterRegistry();
+    private static final ConcurrentHashMap<String, MeterRegistry> NAMED_REGISTRIES = new ConcurrentHashMap<>();
     private static boolean registered = false;
+    /**
+     * Maximum number of distinct URLs whose factories are cached
+     */
+    private static final int FACTORY_CACHE_SIZE = 64;
     private final Logger parentLogger = Logger.getLogger("com.github.gquintana.metrics");
+    private final LruCache<String, UrlFactory> factoryCache = new LruCache<>(FACTORY_CACHE_SIZE, 1);
+    /**
+     * Slow query logs by threshold, shared by factories so that rebuilt or evicted factories don't leave drain threads behind
+     */
+    private final ConcurrentHashMap<Long, SlowQueryLog> slowQueryLogs = new ConcurrentHashMap<>();
+
+    /**
+     * Parsed URL and proxy factory stack built for a meter registry
+     */
+    private static final class UrlFactory {
+        private final MeterRegistry registry;
+        private final DriverUrl driverUrl;
+        private final JdbcProxyFactory proxyFactory;
+
+        private UrlFactory(MeterRegistry registry, DriverUrl driverUrl, JdbcProxyFactory proxyFactory) {
+            this.registry = registry;
+            this.driverUrl = driverUrl;
+            this.proxyFactory = proxyFactory;
+        }
+    }
 
     static {
         register();
@@ -50,6 +84,31 @@ public class Driver implements java.sql.Driver {
         return REGISTRY;
     }
 
+    /**
+     * Bind a meter registry to a name, used by URLs having the <code>metrics_registry</code> property
+     *
+     * @param name Registry name
+     * @param registry Meter registry, null to unbind
+     */
+    public static void setMeterRegistry(String name, MeterRegistry registry) {
+        if (registry == null) {
+            NAMED_REGISTRIES.remove(name);
+        } else {
+            NAMED_REGISTRIES.put(name, registry);
+        }
+    }
+
+    /**
+     * Get the meter registry bound to a name, or the default registry when there is none
+     *
+     * @param name Registry name, null for the default registry
+     * @return Meter registry
+     */
+    public static MeterRegistry getMeterRegistry(String name) {
+        MeterRegistry registry = name == null ? null : NAMED_REGISTRIES.get(name);
+        return registry == null ? getMeterRegistry() : registry;
+    }
+
     private static synchronized void register() {
         try {
             if (!registered) {
@@ -104,16 +163,11 @@ public class Driver implements java.sql.Driver {
         if (!acceptsURL(url)) {
             return null;
         }
-        DriverUrl driverUrl = DriverUrl.parse(url);
-        MeterRegistry registry = getMeterRegistry();
-        ProxyFactory factory = newInstance(driverUrl.getProxyFactoryClass());
-        MetricNamingStrategy namingStrategy = getMetricNamingStrategy(driverUrl);
-        JdbcProxyFactory proxyFactory = new JdbcProxyFactory(registry, namingStrategy, factory);
-        // Force Driver loading
-        Class<? extends Driver> driverClass = driverUrl.getDriverClass();
+        UrlFactory urlFactory = getUrlFactory(url);
+        JdbcProxyFactory proxyFactory = urlFactory.proxyFactory;
         // Open connection
         TimeObservation getTimerContext = proxyFactory.getMetricHelper().startConnectionGetTimer();
-        Connection rawConnection = DriverManager.getConnection(driverUrl.getCleanUrl(), info);
+        Connection rawConnection = DriverManager.getConnection(urlFactory.driverUrl.getCleanUrl(), info);
         if (getTimerContext != null) {
             getTimerContext.close();
         }
@@ -121,6 +175,48 @@ public class Driver implements java.sql.Driver {
         return proxyFactory.wrapConnection(rawConnection);
     }
 
+    /**
+     * Get cached factory stack for this URL, build it when missing or when the meter registry changed.
+     * Connection properties are not part of the key: they are only passed to the wrapped driver.
+     */
+    private UrlFactory getUrlFactory(String url) throws SQLException {
+        UrlFactory urlFactory = factoryCache.get(url);
+        if (urlFactory == null) {
+            DriverUrl driverUrl = DriverUrl.parse(url);
+            urlFactory = createUrlFactory(driverUrl, getMeterRegistry(driverUrl.getRegistryName()));
+            factoryCache.put(url, urlFactory);
+        } else {
+            MeterRegistry registry = getMeterRegistry(urlFactory.driverUrl.getRegistryName());
+            if (urlFactory.registry != registry) {
+                urlFactory = createUrlFactory(urlFactory.driverUrl, registry);
+                factoryCache.put(url, urlFactory);
+            }
+        }
+        return urlFactory;
+    }
+
+    private UrlFactory createUrlFactory(DriverUrl driverUrl, MeterRegistry registry) throws SQLException {
+        String registryName = driverUrl.getRegistryName();
+        if (registryName != null && !NAMED_REGISTRIES.containsKey(registryName)) {
+            parentLogger.warning("No meter registry bound to name " + registryName + ", using default registry");
+        }
+        ProxyFactory factory = newInstance(driverUrl.getProxyFactoryClass());
+        MethodInvoker methodInvoker = newInstance(driverUrl.getMethodInvokerClass());
+        MetricNamingStrategy namingStrategy = getMetricNamingStrategy(driverUrl);
+        JdbcProxyFactory proxyFactory = new JdbcProxyFactory(registry, namingStrategy, factory, methodInvoker,
+                driverUrl.getMaximumSqlIds(), driverUrl.getSamplingRates(), driverUrl.getOverheadBudget());
+        long slowQueryThreshold = driverUrl.getSlowQueryThreshold();
+        if (slowQueryThreshold >= 0L) {
+            proxyFactory.setSlowQueryLog(slowQueryLogs.computeIfAbsent(slowQueryThreshold,
+                    threshold -> new SlowQueryLog(threshold, TimeUnit.MILLISECONDS)
+                            .addListener(new LoggingSlowQueryListener())
+                            .start()));
+        }
+        // Force Driver loading
+        driverUrl.getDriverClass();
+        return new UrlFactory(registry, driverUrl, proxyFactory);
+    }
+
     private MetricNamingStrategy getMetricNamingStrategy(DriverUrl driverUrl) throws SQLException {
         Class<? extends MetricNamingStrategy> namingStrategyClass = driverUrl.getNamingStrategyClass();
         String databaseName = driverUrl.getDatabaseName();
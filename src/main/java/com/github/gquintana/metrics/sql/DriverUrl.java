@@ -20,10 +20,15 @@ package com.github.gquintana.metrics.sql;
  * #L%
  */
 
+import com.github.gquintana.metrics.proxy.ByteBuddyProxyFactory;
 import com.github.gquintana.metrics.proxy.CGLibProxyFactory;
 import com.github.gquintana.metrics.proxy.CachingProxyFactory;
+import com.github.gquintana.metrics.proxy.MethodHandleMethodInvoker;
+import com.github.gquintana.metrics.proxy.MethodInvoker;
 import com.github.gquintana.metrics.proxy.ProxyFactory;
+import com.github.gquintana.metrics.proxy.ReflectMethodInvoker;
 import com.github.gquintana.metrics.proxy.ReflectProxyFactory;
+import com.github.gquintana.metrics.sql.wrapper.JdbcWrapperProxyFactory;
 
 import java.util.Properties;
 import java.util.regex.Matcher;
@@ -167,12 +172,37 @@ class DriverUrl {
             case "caching":
                 factoryClass = CachingProxyFactory.class;
                 break;
+            case "bytebuddy":
+                factoryClass = ByteBuddyProxyFactory.class;
+                break;
+            case "wrapper":
+                factoryClass = JdbcWrapperProxyFactory.class;
+                break;
             default:
                 factoryClass = toClass(proxyFactoryName);
         }
         return factoryClass;
     }
 
+    /**
+     * @return Class implementing {@link MethodInvoker}
+     */
+    public Class<? extends MethodInvoker> getMethodInvokerClass() {
+        Class<? extends MethodInvoker> invokerClass;
+        String methodInvokerName = getProperty("metrics_method_invoker", "reflect");
+        switch (methodInvokerName) {
+            case "reflect":
+                invokerClass = ReflectMethodInvoker.class;
+                break;
+            case "method_handle":
+                invokerClass = MethodHandleMethodInvoker.class;
+                break;
+            default:
+                invokerClass = toClass(methodInvokerName);
+        }
+        return invokerClass;
+    }
+
     /**
      * @return Class extending {@link MetricNamingStrategy}
      */
@@ -186,6 +216,15 @@ class DriverUrl {
             case "strict":
                 namingStrategy = StrictMetricNamingStrategy.class;
                 break;
+            case "normalizing":
+                namingStrategy = NormalizingMetricNamingStrategy.class;
+                break;
+            case "fingerprint":
+                namingStrategy = FingerprintMetricNamingStrategy.class;
+                break;
+            case "dimensional":
+                namingStrategy = DimensionalMetricNamingStrategy.class;
+                break;
             default:
                 namingStrategy = toClass(namingStrategyName);
         }
@@ -205,4 +244,37 @@ class DriverUrl {
     public String getDatabaseName() {
         return getProperty("metrics_database");
     }
+
+    /**
+     * @return Maximum number of distinct SQL Ids for each statement type, 0 for no limit
+     */
+    public int getMaximumSqlIds() {
+        String maximumSqlIds = getProperty("metrics_max_sql_ids");
+        return maximumSqlIds == null ? 0 : Integer.parseInt(maximumSqlIds);
+    }
+
+    /**
+     * @return Fraction of timed statement executions, every execution by default
+     * @see SamplingRates#parse(String)
+     */
+    public SamplingRates getSamplingRates() {
+        String samplingRates = getProperty("metrics_sampling");
+        return samplingRates == null ? SamplingRates.NONE : SamplingRates.parse(samplingRates);
+    }
+
+    /**
+     * @return Slow query threshold in milliseconds, -1 when slow queries are not logged
+     */
+    public long getSlowQueryThreshold() {
+        String slowQueryThreshold = getProperty("metrics_slow_query_threshold");
+        return slowQueryThreshold == null ? -1L : Long.parseLong(slowQueryThreshold);
+    }
+
+    /**
+     * @return Maximum overhead of execution timers as a fraction of execution time, 0 when sampling is not adaptive
+     */
+    public double getOverheadBudget() {
+        String overheadBudget = getProperty("metrics_overhead_budget");
+        return overheadBudget == null ? 0.0D : Double.parseDouble(overheadBudget);
+    }
 }
@@ -0,0 +1,97 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Locale;
+
+/**
+ * Outcome of a statement execution, failures are derived from the {@link SQLException} subclass or SQLState class.
+ * Internal helper class.
+ */
+enum ExecutionOutcome {
+    /**
+     * Statement executed without exception
+     */
+    SUCCESS,
+    /**
+     * Query timeout or cancellation: {@link SQLTimeoutException}, SQLState <code>HYT00</code>, <code>HYT01</code> or <code>57014</code>
+     */
+    TIMEOUT,
+    /**
+     * Transaction rolled back, often because of a deadlock: {@link SQLTransactionRollbackException} or SQLState class <code>40</code>
+     */
+    ROLLBACK,
+    /**
+     * Connection failure: {@link SQLTransientConnectionException}, {@link SQLNonTransientConnectionException} or SQLState class <code>08</code>
+     */
+    CONNECTION,
+    /**
+     * Any other failure
+     */
+    ERROR;
+
+    private final String tag = name().toLowerCase(Locale.ROOT);
+
+    /**
+     * @return Value of the <code>outcome</code> tag
+     */
+    String getTag() {
+        return tag;
+    }
+
+    /**
+     * @param throwable Exception raised by statement execution
+     * @return Failure outcome
+     */
+    static ExecutionOutcome of(Throwable throwable) {
+        if (!(throwable instanceof SQLException)) {
+            return ERROR;
+        }
+        if (throwable instanceof SQLTimeoutException) {
+            return TIMEOUT;
+        }
+        if (throwable instanceof SQLTransactionRollbackException) {
+            return ROLLBACK;
+        }
+        if (throwable instanceof SQLTransientConnectionException || throwable instanceof SQLNonTransientConnectionException) {
+            return CONNECTION;
+        }
+        String sqlState = ((SQLException) throwable).getSQLState();
+        if (sqlState == null || sqlState.length() < 2) {
+            return ERROR;
+        }
+        if (sqlState.equals("HYT00") || sqlState.equals("HYT01") || sqlState.equals("57014")) {
+            return TIMEOUT;
+        }
+        if (sqlState.startsWith("40")) {
+            return ROLLBACK;
+        }
+        if (sqlState.startsWith("08")) {
+            return CONNECTION;
+        }
+        return ERROR;
+    }
+}
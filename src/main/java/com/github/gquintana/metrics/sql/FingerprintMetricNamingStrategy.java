@@ -0,0 +1,145 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.util.LruCache;
+import com.github.gquintana.metrics.util.MurmurHash;
+import com.github.gquintana.metrics.util.SqlNormalizer;
+
+import java.util.Map;
+
+/**
+ * Implementation of {@link MetricNamingStrategy} which uses a 64-bit fingerprint of the normalized SQL query as query Id:
+ * <code>java.sql.Statement.[4e9b6e56e96a2444].exec</code>.
+ * Metric names stay short whatever the SQL query length.
+ * The fingerprint is computed on the whole normalized SQL query, so that long queries sharing a prefix are distinguished.
+ * The normalized SQL query of the most recently used fingerprints are kept in a bounded table, truncated to the normalizer maximum length,
+ * it can be queried with {@link #getSql(String)} or through JMX by registering this strategy in an MBean server.
+ *
+ * @see SqlNormalizer
+ * @see MurmurHash
+ */
+public class FingerprintMetricNamingStrategy extends DefaultMetricNamingStrategy implements FingerprintMetricNamingStrategyMXBean {
+    /**
+     * Default maximum number of fingerprints kept in SQL table
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+    private final SqlNormalizer normalizer;
+    /**
+     * Fingerprint to normalized and truncated SQL
+     */
+    private final LruCache<String, String> sqlTexts;
+
+    public FingerprintMetricNamingStrategy() {
+        this(null);
+    }
+
+    public FingerprintMetricNamingStrategy(String databaseName) {
+        this(databaseName, new SqlNormalizer(), DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Main constructor
+     *
+     * @param databaseName Database name
+     * @param normalizer SQL normalizer, applied before computing fingerprint, its maximum length only applies to the SQL table
+     * @param maximumSize Maximum number of fingerprints kept in SQL table
+     */
+    public FingerprintMetricNamingStrategy(String databaseName, SqlNormalizer normalizer, int maximumSize) {
+        super(databaseName);
+        this.normalizer = normalizer;
+        this.sqlTexts = new LruCache<>(maximumSize);
+    }
+
+    /**
+     * Generate SQL Id from normalized SQL query fingerprint.
+     *
+     * @param sql Input SQL
+     * @return [fingerprint]
+     */
+    @Override
+    public String getSqlId(String sql) {
+        String normalizedSql = normalizer.normalize(sql, Integer.MAX_VALUE);
+        String fingerprint = MurmurHash.toHex(MurmurHash.hash64(normalizedSql));
+        if (sqlTexts.get(fingerprint) == null) {
+            int maxLength = normalizer.getMaxLength();
+            sqlTexts.put(fingerprint, normalizedSql.length() > maxLength ? normalizedSql.substring(0, maxLength) : normalizedSql);
+        }
+        return "[" + fingerprint + "]";
+    }
+
+    @Override
+    public String getSql(String fingerprint) {
+        if (fingerprint.startsWith("[") && fingerprint.endsWith("]")) {
+            fingerprint = fingerprint.substring(1, fingerprint.length() - 1);
+        }
+        return sqlTexts.get(fingerprint);
+    }
+
+    @Override
+    public Map<String, String> getSqlTexts() {
+        return sqlTexts.toMap();
+    }
+
+    @Override
+    public long getSqlTextCount() {
+        return sqlTexts.size();
+    }
+
+    /**
+     * Start a builder
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder of {@link FingerprintMetricNamingStrategy}
+     */
+    public static class Builder extends DefaultMetricNamingStrategy.Builder<FingerprintMetricNamingStrategy.Builder> {
+        private int maxLength = SqlNormalizer.DEFAULT_MAX_LENGTH;
+        private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+        /**
+         * @param maxLength Maximum length of normalized SQL queries kept in SQL table
+         * @return Current builder
+         */
+        public Builder withMaxLength(int maxLength) {
+            this.maxLength = maxLength;
+            return this;
+        }
+
+        /**
+         * @param maximumSize Maximum number of fingerprints kept in SQL table
+         * @return Current builder
+         */
+        public Builder withMaximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        @Override
+        public FingerprintMetricNamingStrategy build() {
+            return new FingerprintMetricNamingStrategy(databaseName, new SqlNormalizer(maxLength), maximumSize);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Map;
+
+/**
+ * JMX interface of {@link FingerprintMetricNamingStrategy}, to find SQL queries behind fingerprints
+ */
+public interface FingerprintMetricNamingStrategyMXBean {
+    /**
+     * @param fingerprint SQL query fingerprint, with or without brackets
+     * @return Normalized SQL query or null if unknown
+     */
+    String getSql(String fingerprint);
+
+    /**
+     * @return Known fingerprints and their normalized SQL query
+     */
+    Map<String, String> getSqlTexts();
+
+    /**
+     * @return Number of known fingerprints
+     */
+    long getSqlTextCount();
+}
@@ -0,0 +1,106 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.backend.MeterName;
+
+/**
+ * Adapts a flat {@link MetricNamingStrategy} to {@link TaggedMetricNamingStrategy}, meters have no tags.
+ * Internal helper class.
+ */
+class FlatMetricNamingStrategyAdapter implements TaggedMetricNamingStrategy {
+    private final MetricNamingStrategy namingStrategy;
+
+    private FlatMetricNamingStrategyAdapter(MetricNamingStrategy namingStrategy) {
+        this.namingStrategy = namingStrategy;
+    }
+
+    /**
+     * @param namingStrategy Flat or tagged naming strategy
+     * @return Tagged naming strategy
+     */
+    static TaggedMetricNamingStrategy adapt(MetricNamingStrategy namingStrategy) {
+        if (namingStrategy instanceof TaggedMetricNamingStrategy) {
+            return (TaggedMetricNamingStrategy) namingStrategy;
+        }
+        return new FlatMetricNamingStrategyAdapter(namingStrategy);
+    }
+
+    @Override
+    public MeterName getTaggedConnectionGetTimer() {
+        return MeterName.of(namingStrategy.getConnectionGetTimer());
+    }
+
+    @Override
+    public MeterName getTaggedConnectionLifeTimer() {
+        return MeterName.of(namingStrategy.getConnectionLifeTimer());
+    }
+
+    @Override
+    public MeterName getTaggedStatementLifeTimer() {
+        return MeterName.of(namingStrategy.getStatementLifeTimer());
+    }
+
+    @Override
+    public MeterName getTaggedStatementExecuteTimer(String sql, String sqlId) {
+        return MeterName.of(namingStrategy.getStatementExecuteTimer(sql, sqlId));
+    }
+
+    @Override
+    public MeterName getTaggedPreparedStatementLifeTimer(String sql, String sqlId) {
+        return MeterName.of(namingStrategy.getPreparedStatementLifeTimer(sql, sqlId));
+    }
+
+    @Override
+    public MeterName getTaggedPreparedStatementExecuteTimer(String sql, String sqlId) {
+        return MeterName.of(namingStrategy.getPreparedStatementExecuteTimer(sql, sqlId));
+    }
+
+    @Override
+    public MeterName getTaggedCallableStatementLifeTimer(String sql, String sqlId) {
+        return MeterName.of(namingStrategy.getCallableStatementLifeTimer(sql, sqlId));
+    }
+
+    @Override
+    public MeterName getTaggedCallableStatementExecuteTimer(String sql, String sqlId) {
+        return MeterName.of(namingStrategy.getCallableStatementExecuteTimer(sql, sqlId));
+    }
+
+    @Override
+    public MeterName getTaggedResultSetLifeTimer(String sql, String sqlId) {
+        return MeterName.of(namingStrategy.getResultSetLifeTimer(sql, sqlId));
+    }
+
+    @Override
+    public MeterName getTaggedResultSetRowMeter(String sql, String sqlId) {
+        return MeterName.of(namingStrategy.getResultSetRowMeter(sql, sqlId));
+    }
+
+    @Override
+    public MeterName getTaggedResultSetRowSummary(String sql, String sqlId) {
+        return MeterName.of(namingStrategy.getResultSetRowSummary(sql, sqlId));
+    }
+
+    @Override
+    public String getSqlId(String sql) {
+        return namingStrategy.getSqlId(sql);
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of a query tracked by {@link HeavyHitters}. Immutable.
+ * Total time of queries which replaced another one is overestimated by at most {@link #getErrorNanos()}.
+ */
+public final class HeavyHitter {
+    private final String sqlId;
+    private final String sql;
+    private final long totalNanos;
+    private final long count;
+    private final long maxNanos;
+    private final long errorNanos;
+
+    /**
+     * @param sqlId SQL Id
+     * @param sql SQL query
+     * @param totalNanos Total execution time in nanoseconds
+     * @param count Number of executions since the query is tracked
+     * @param maxNanos Maximum execution time in nanoseconds since the query is tracked
+     * @param errorNanos Maximum overestimation of total execution time
+     */
+    @ConstructorProperties({"sqlId", "sql", "totalNanos", "count", "maxNanos", "errorNanos"})
+    public HeavyHitter(String sqlId, String sql, long totalNanos, long count, long maxNanos, long errorNanos) {
+        this.sqlId = sqlId;
+        this.sql = sql;
+        this.totalNanos = totalNanos;
+        this.count = count;
+        this.maxNanos = maxNanos;
+        this.errorNanos = errorNanos;
+    }
+
+    public String getSqlId() {
+        return sqlId;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getErrorNanos() {
+        return errorNanos;
+    }
+
+    @Override
+    public String toString() {
+        return sqlId + " total=" + totalNanos / 1000000L + "ms count=" + count + " max=" + maxNanos / 1000000L + "ms";
+    }
+}
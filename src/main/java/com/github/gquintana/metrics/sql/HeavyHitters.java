@@ -0,0 +1,277 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Tracks the queries with the highest total execution time, using the Space-Saving algorithm.
+ * A fixed number of queries are tracked, whatever the number of distinct SQL Ids.
+ * When a new query is executed and the table is full, it replaces the query with the lowest total time,
+ * and inherits its total time as error.
+ * Queries are identified by SQL Id, so a normalizing or fingerprint naming strategy groups queries differing only by literals.
+ * <p>
+ * To avoid contention between threads executing different queries, the table is split into stripes
+ * selected by SQL Id hash, each one guarded by its own lock.
+ * A new query replaces the query with the lowest total time of its stripe, not of the whole table,
+ * so small tables use a single stripe.
+ */
+public class HeavyHitters implements HeavyHittersMXBean {
+    public static final int DEFAULT_CAPACITY = 100;
+    /**
+     * Maximum number of stripes chosen by default
+     */
+    public static final int DEFAULT_MAXIMUM_STRIPES = 16;
+    /**
+     * Minimum number of tracked queries per stripe chosen by default
+     */
+    private static final int MINIMUM_STRIPE_CAPACITY = 16;
+    private static final Comparator<HeavyHitter> TOTAL_DESCENDING = (h1, h2) -> Long.compare(h2.getTotalNanos(), h1.getTotalNanos());
+    private final int capacity;
+    private final Stripe[] stripes;
+
+    private static final class Entry {
+        private String sqlId;
+        private String sql;
+        private long totalNanos;
+        private long count;
+        private long maxNanos;
+        private long errorNanos;
+        private int index;
+
+        private HeavyHitter toHeavyHitter() {
+            return new HeavyHitter(sqlId, sql, totalNanos, count, maxNanos, errorNanos);
+        }
+    }
+
+    /**
+     * Space-Saving table of queries whose SQL Id hash falls in this stripe
+     */
+    private static final class Stripe {
+        private final int capacity;
+        private final HashMap<String, Entry> entries;
+        /**
+         * Min heap of entries on total time, guarded by this
+         */
+        private final Entry[] heap;
+        private int size;
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+            this.entries = new HashMap<>(capacity * 2);
+            this.heap = new Entry[capacity];
+        }
+
+        private synchronized void record(Query query, long elapsedNanos) {
+            String sqlId = query.getSqlId();
+            Entry entry = entries.get(sqlId);
+            if (entry == null) {
+                if (size < capacity) {
+                    entry = new Entry();
+                    entry.index = size;
+                    heap[size++] = entry;
+                } else {
+                    // Replace query with lowest total time, keep its total time
+                    entry = heap[0];
+                    entries.remove(entry.sqlId);
+                    entry.errorNanos = entry.totalNanos;
+                    entry.count = 0L;
+                    entry.maxNanos = 0L;
+                }
+                entry.sqlId = sqlId;
+                entry.sql = query.getSql();
+                entries.put(sqlId, entry);
+            }
+            entry.totalNanos += elapsedNanos;
+            entry.count++;
+            if (elapsedNanos > entry.maxNanos) {
+                entry.maxNanos = elapsedNanos;
+            }
+            // Total time only grows, an appended entry may move up, other entries may move down
+            siftUp(entry.index);
+            siftDown(entry.index);
+        }
+
+        private void siftUp(int index) {
+            Entry entry = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (heap[parent].totalNanos <= entry.totalNanos) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                heap[index].index = index;
+                index = parent;
+            }
+            heap[index] = entry;
+            entry.index = index;
+        }
+
+        private void siftDown(int index) {
+            Entry entry = heap[index];
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heap[child + 1].totalNanos < heap[child].totalNanos) {
+                    child++;
+                }
+                if (entry.totalNanos <= heap[child].totalNanos) {
+                    break;
+                }
+                heap[index] = heap[child];
+                heap[index].index = index;
+                index = child;
+            }
+            heap[index] = entry;
+            entry.index = index;
+        }
+
+        /**
+         * Offer entries of this stripe to the bounded heap of top queries
+         *
+         * @param top Min heap of top queries, snapshots are taken when entries are kept
+         * @param n Bound of top heap
+         */
+        private synchronized void selectTop(PriorityQueue<HeavyHitter> top, int n) {
+            for (int i = 0; i < size; i++) {
+                Entry entry = heap[i];
+                if (top.size() < n) {
+                    top.add(entry.toHeavyHitter());
+                } else if (entry.totalNanos > top.peek().getTotalNanos()) {
+                    top.poll();
+                    top.add(entry.toHeavyHitter());
+                }
+            }
+        }
+
+        private synchronized void clear() {
+            entries.clear();
+            Arrays.fill(heap, 0, size, null);
+            size = 0;
+        }
+    }
+
+    public HeavyHitters() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor with default number of stripes: at most {@link #DEFAULT_MAXIMUM_STRIPES},
+     * each one tracking at least 16 queries.
+     *
+     * @param capacity Maximum number of tracked queries, the top queries are accurate when it is a few times the wanted top size
+     */
+    public HeavyHitters(int capacity) {
+        this(capacity, Math.max(1, Math.min(DEFAULT_MAXIMUM_STRIPES, capacity / MINIMUM_STRIPE_CAPACITY)));
+    }
+
+    /**
+     * Main constructor
+     *
+     * @param capacity Maximum number of tracked queries, the top queries are accurate when it is a few times the wanted top size
+     * @param stripes Number of independently locked stripes, capacity is split among them
+     */
+    public HeavyHitters(int capacity, int stripes) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        if (stripes <= 0 || stripes > capacity) {
+            throw new IllegalArgumentException("Invalid stripes " + stripes);
+        }
+        this.capacity = capacity;
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(capacity / stripes + (i < capacity % stripes ? 1 : 0));
+        }
+    }
+
+    private Stripe stripe(String sqlId) {
+        if (stripes.length == 1) {
+            return stripes[0];
+        }
+        int hash = sqlId.hashCode();
+        // Spread high bits, like HashMap
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    /**
+     * Record query execution
+     *
+     * @param query Executed query
+     * @param elapsedNanos Execution duration
+     */
+    void record(Query query, long elapsedNanos) {
+        stripe(query.getSqlId()).record(query, elapsedNanos);
+    }
+
+    /**
+     * Select top queries with a min heap bounded to n, instead of sorting all tracked queries
+     *
+     * @param n Number of queries
+     * @return Top n queries by decreasing total execution time
+     */
+    public List<HeavyHitter> getTopQueries(int n) {
+        if (n <= 0) {
+            return Collections.emptyList();
+        }
+        PriorityQueue<HeavyHitter> top = new PriorityQueue<>(Math.min(n, capacity), TOTAL_DESCENDING.reversed());
+        for (Stripe stripe : stripes) {
+            stripe.selectTop(top, n);
+        }
+        HeavyHitter[] heavyHitters = top.toArray(new HeavyHitter[0]);
+        Arrays.sort(heavyHitters, TOTAL_DESCENDING);
+        return Collections.unmodifiableList(new ArrayList<>(Arrays.asList(heavyHitters)));
+    }
+
+    @Override
+    public List<HeavyHitter> getTopQueries() {
+        return getTopQueries(capacity);
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Number of independently locked stripes
+     */
+    public int getStripes() {
+        return stripes.length;
+    }
+
+    /**
+     * Forget tracked queries
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+}
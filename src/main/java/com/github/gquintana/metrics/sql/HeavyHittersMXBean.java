@@ -0,0 +1,38 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.List;
+
+/**
+ * JMX interface of {@link HeavyHitters}
+ */
+public interface HeavyHittersMXBean {
+    /**
+     * @return Tracked queries, by decreasing total execution time
+     */
+    List<HeavyHitter> getTopQueries();
+
+    /**
+     * @return Maximum number of tracked queries
+     */
+    int getCapacity();
+}
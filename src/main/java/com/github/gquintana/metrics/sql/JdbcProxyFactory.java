@@ -21,20 +21,30 @@ package com.github.gquintana.metrics.sql;
  */
 
 
+import com.github.gquintana.metrics.backend.MetricsBackend;
+import com.github.gquintana.metrics.backend.MicrometerMetricsBackend;
+import com.github.gquintana.metrics.proxy.MethodInvoker;
 import com.github.gquintana.metrics.proxy.ProxyFactory;
+import com.github.gquintana.metrics.proxy.ReflectMethodInvoker;
 import com.github.gquintana.metrics.proxy.ReflectProxyFactory;
 import io.micrometer.core.instrument.MeterRegistry;
 
 import javax.sql.*;
 import javax.sql.rowset.*;
+import java.io.Closeable;
 import java.sql.*;
 
 /**
  * Factory of {@code JdbcProxyHandler} sub classes, central class of Metrics SQL.
  * It can be used to wrap any JDBC component (connection, statement,
  * result set...). 
+ * Closing it closes the metrics backend, which stops its background threads, if any.
  */
-public class JdbcProxyFactory {
+public class JdbcProxyFactory implements Closeable {
+    /**
+     * Backend recording metrics
+     */
+    private final MetricsBackend backend;
     /**
      * Timer manager
      */
@@ -43,6 +53,10 @@ public class JdbcProxyFactory {
      * Proxy factory
      */
     private final ProxyFactory proxyFactory;
+    /**
+     * Strategy to call wrapped JDBC objects
+     */
+    private final MethodInvoker methodInvoker;
 
     /**
      * Constructor using default {@link ReflectProxyFactory} and default {@link DefaultMetricNamingStrategy}
@@ -70,8 +84,80 @@ public class JdbcProxyFactory {
      * @param proxyFactory AbstractProxyFactory to use for proxy creation
      */
     public JdbcProxyFactory(MeterRegistry registry, MetricNamingStrategy namingStrategy, ProxyFactory proxyFactory) {
-        this.metricHelper = new MetricHelper(registry, namingStrategy);
+        this(registry, namingStrategy, proxyFactory, ReflectMethodInvoker.INSTANCE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param registry Registry storing metrics
+     * @param namingStrategy Naming strategy used to get metrics from SQL
+     * @param proxyFactory AbstractProxyFactory to use for proxy creation
+     * @param methodInvoker Strategy to call wrapped JDBC objects
+     */
+    public JdbcProxyFactory(MeterRegistry registry, MetricNamingStrategy namingStrategy, ProxyFactory proxyFactory, MethodInvoker methodInvoker) {
+        this(registry, namingStrategy, proxyFactory, methodInvoker, 0);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param registry Registry storing metrics
+     * @param namingStrategy Naming strategy used to get metrics from SQL
+     * @param proxyFactory AbstractProxyFactory to use for proxy creation
+     * @param methodInvoker Strategy to call wrapped JDBC objects
+     * @param maximumSqlIds Maximum number of distinct SQL Ids metered for each statement type, 0 for no limit.
+     *                      Other SQL queries are metered with a shared <code>[other]</code> SQL Id.
+     */
+    public JdbcProxyFactory(MeterRegistry registry, MetricNamingStrategy namingStrategy, ProxyFactory proxyFactory, MethodInvoker methodInvoker, int maximumSqlIds) {
+        this(registry, namingStrategy, proxyFactory, methodInvoker, maximumSqlIds, SamplingRates.NONE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param registry Registry storing metrics
+     * @param namingStrategy Naming strategy used to get metrics from SQL
+     * @param proxyFactory AbstractProxyFactory to use for proxy creation
+     * @param methodInvoker Strategy to call wrapped JDBC objects
+     * @param maximumSqlIds Maximum number of distinct SQL Ids metered for each statement type, 0 for no limit.
+     * @param samplingRates Fraction of statement executions which are timed
+     */
+    public JdbcProxyFactory(MeterRegistry registry, MetricNamingStrategy namingStrategy, ProxyFactory proxyFactory, MethodInvoker methodInvoker, int maximumSqlIds, SamplingRates samplingRates) {
+        this(registry, namingStrategy, proxyFactory, methodInvoker, maximumSqlIds, samplingRates, 0.0D);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param registry Registry storing metrics
+     * @param namingStrategy Naming strategy used to get metrics from SQL
+     * @param proxyFactory AbstractProxyFactory to use for proxy creation
+     * @param methodInvoker Strategy to call wrapped JDBC objects
+     * @param maximumSqlIds Maximum number of distinct SQL Ids metered for each statement type, 0 for no limit.
+     * @param samplingRates Fraction of statement executions which are timed
+     * @param overheadBudget Maximum overhead of execution timers, as a fraction of execution time, 0 to disable adaptive sampling.
+     */
+    public JdbcProxyFactory(MeterRegistry registry, MetricNamingStrategy namingStrategy, ProxyFactory proxyFactory, MethodInvoker methodInvoker, int maximumSqlIds, SamplingRates samplingRates, double overheadBudget) {
+        this(new MicrometerMetricsBackend(registry), namingStrategy, proxyFactory, methodInvoker, maximumSqlIds, samplingRates, overheadBudget);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param backend Backend recording metrics
+     * @param namingStrategy Naming strategy used to get metrics from SQL
+     * @param proxyFactory AbstractProxyFactory to use for proxy creation
+     * @param methodInvoker Strategy to call wrapped JDBC objects
+     * @param maximumSqlIds Maximum number of distinct SQL Ids metered for each statement type, 0 for no limit.
+     * @param samplingRates Fraction of statement executions which are timed
+     * @param overheadBudget Maximum overhead of execution timers, as a fraction of execution time, 0 to disable adaptive sampling.
+     */
+    public JdbcProxyFactory(MetricsBackend backend, MetricNamingStrategy namingStrategy, ProxyFactory proxyFactory, MethodInvoker methodInvoker, int maximumSqlIds, SamplingRates samplingRates, double overheadBudget) {
+        this.backend = backend;
+        this.metricHelper = new MetricHelper(backend, namingStrategy, maximumSqlIds, samplingRates, overheadBudget);
         this.proxyFactory = proxyFactory;
+        this.methodInvoker = methodInvoker;
     }
 
     /**
@@ -200,4 +286,45 @@ public class JdbcProxyFactory {
     public MetricHelper getMetricHelper() {
         return metricHelper;
     }
+
+    /**
+     * Capture statement executions exceeding the slow query log threshold
+     *
+     * @param slowQueryLog Slow query log, null to disable
+     */
+    public void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+        metricHelper.setSlowQueryLog(slowQueryLog);
+    }
+
+    /**
+     * Track queries with the highest total execution time
+     *
+     * @param heavyHitters Heavy hitters, null to disable
+     */
+    public void setHeavyHitters(HeavyHitters heavyHitters) {
+        metricHelper.setHeavyHitters(heavyHitters);
+    }
+
+    public MethodInvoker getMethodInvoker() {
+        return methodInvoker;
+    }
+
+    public MetricsBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Publish metrics buffered by the backend, for instance before they are scraped
+     */
+    public void flush() {
+        backend.flush();
+    }
+
+    /**
+     * Stop backend background threads and publish buffered metrics
+     */
+    @Override
+    public void close() {
+        backend.close();
+    }
 }
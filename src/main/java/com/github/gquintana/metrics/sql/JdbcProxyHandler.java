@@ -21,7 +21,7 @@ package com.github.gquintana.metrics.sql;
  */
 
 
-import com.github.gquintana.metrics.proxy.MethodInvocation;
+import com.github.gquintana.metrics.proxy.MethodDispatchTable;
 import com.github.gquintana.metrics.proxy.ProxyClass;
 import com.github.gquintana.metrics.proxy.ProxyHandler;
 
@@ -34,6 +34,18 @@ import java.sql.Wrapper;
  * @param <T> Proxied type
  */
 public abstract class JdbcProxyHandler<T> extends ProxyHandler<T> {
+    /**
+     * Action code for {@link Wrapper#isWrapperFor(Class)}
+     */
+    protected static final int IS_WRAPPER_FOR = 1;
+    /**
+     * Action code for {@link Wrapper#unwrap(Class)}
+     */
+    protected static final int UNWRAP = 2;
+    /**
+     * Action code for {@link AutoCloseable#close()}
+     */
+    protected static final int CLOSE = 3;
 
     /**
      * JDBC Interface class
@@ -57,28 +69,40 @@ public abstract class JdbcProxyHandler<T> extends ProxyHandler<T> {
      * @param lifeTimerContext Proxy life timer context
      */
     protected JdbcProxyHandler(T delegate, Class<T> delegateType, JdbcProxyFactory proxyFactory, TimeObservation lifeTimerContext) {
-        super(delegate);
+        super(delegate, proxyFactory.getMethodInvoker());
         this.delegateType = delegateType;
         this.proxyFactory = proxyFactory;
         this.lifeTimerContext = lifeTimerContext;
     }
 
+    /**
+     * Create a dispatch table builder containing {@link #IS_WRAPPER_FOR}, {@link #UNWRAP} and {@link #CLOSE} actions
+     *
+     * @return Dispatch table builder
+     */
+    protected static MethodDispatchTable.Builder wrapperDispatchTableBuilder() {
+        return MethodDispatchTable.builder()
+                .withAction(IS_WRAPPER_FOR, "isWrapperFor")
+                .withAction(UNWRAP, "unwrap")
+                .withAction(CLOSE, "close");
+    }
+
     private boolean isDelegateType(Class<?> iface) {
         return this.delegateType.equals(iface);
     }
 
-    private Class getClassArg(MethodInvocation methodInvocation) {
-        return (Class) methodInvocation.getArgAt(0, Class.class);
+    private static Class getClassArg(Object[] args) {
+        return (Class) args[0];
     }
 
-    protected Object isWrapperFor(MethodInvocation methodInvocation) throws Throwable {
-        final Class iface = getClassArg(methodInvocation);
-        return isDelegateType(iface) ? true : methodInvocation.proceed();
+    protected Object isWrapperFor(MethodDispatchTable.Entry entry, Object[] args) throws Throwable {
+        final Class iface = getClassArg(args);
+        return isDelegateType(iface) ? true : proceed(entry, args);
     }
 
-    protected Object close(MethodInvocation methodInvocation) throws Throwable {
+    protected Object close(MethodDispatchTable.Entry entry, Object[] args) throws Throwable {
         stopTimer(lifeTimerContext);
-        return methodInvocation.proceed();
+        return proceed(entry, args);
     }
 
     protected static void stopTimer(TimeObservation timerContext) {
@@ -87,8 +111,8 @@ public abstract class JdbcProxyHandler<T> extends ProxyHandler<T> {
         }
     }
 
-    protected Object unwrap(MethodInvocation<T> methodInvocation) throws SQLException {
-        final Class iface = getClassArg(methodInvocation);
+    protected Object unwrap(Object[] args) throws SQLException {
+        final Class iface = getClassArg(args);
         final Wrapper delegateWrapper = (Wrapper) delegate;
         Object result;
         if (isDelegateType(iface)) {
@@ -99,6 +123,20 @@ public abstract class JdbcProxyHandler<T> extends ProxyHandler<T> {
         return result;
     }
 
+    /**
+     * @return Parent factory
+     */
+    public JdbcProxyFactory getProxyFactory() {
+        return proxyFactory;
+    }
+
+    /**
+     * @return Timer measuring this proxy lifetime, may be null
+     */
+    public TimeObservation getLifeTimerContext() {
+        return lifeTimerContext;
+    }
+
     public ProxyClass getProxyClass() {
         return new ProxyClass(delegate.getClass().getClassLoader(), delegateType);
     }
@@ -0,0 +1,46 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Logs slow queries with java.util.logging, at warning level
+ */
+public class LoggingSlowQueryListener implements SlowQueryListener {
+    private final Logger logger;
+
+    public LoggingSlowQueryListener() {
+        this(Logger.getLogger("com.github.gquintana.metrics.sql.SlowQuery"));
+    }
+
+    public LoggingSlowQueryListener(Logger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public void onSlowQuery(SlowQuery slowQuery) {
+        if (logger.isLoggable(Level.WARNING)) {
+            logger.warning(slowQuery.toString());
+        }
+    }
+}
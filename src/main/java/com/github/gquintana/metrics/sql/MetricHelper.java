@@ -20,21 +20,61 @@ package com.github.gquintana.metrics.sql;
  * #L%
  */
 
-import io.micrometer.core.instrument.Counter;
+import com.github.gquintana.metrics.backend.Counter;
+import com.github.gquintana.metrics.backend.Histogram;
+import com.github.gquintana.metrics.backend.Meter;
+import com.github.gquintana.metrics.backend.MeterName;
+import com.github.gquintana.metrics.backend.MetricsBackend;
+import com.github.gquintana.metrics.backend.MicrometerMetricsBackend;
+import com.github.gquintana.metrics.backend.Timer;
 import io.micrometer.core.instrument.MeterRegistry;
-import io.micrometer.core.instrument.Timer;
 
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Start <code>Timer</code>s and increments <code>Counter</code>s
- * Internal helper class.
+ * Start <code>Timer</code>s and increments <code>Counter</code>s of a {@link MetricsBackend}
+ * Internal helper class, public for the JDBC wrappers of the {@code wrapper} package.
+ * Meters are resolved once: on the helper for connection and statement meters,
+ * on the {@link Query} for query meters.
+ * Later calls record directly without calling the naming strategy.
+ * The number of distinct query meters of each type can be limited, see {@link CardinalityLimiter}.
+ * Statement executions can be sampled, see {@link SamplingRates}, and sampling can adapt to overhead, see {@link OverheadController}.
  */
-class MetricHelper {
-    private final MeterRegistry meterRegistry;
-    private final MetricNamingStrategy metricNamingStrategy;
-    private final ConcurrentHashMap<String, Timer> timerMap = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<String, Counter> counterMap = new ConcurrentHashMap<>();
+public class MetricHelper {
+    /**
+     * Marker for a meter disabled by the naming strategy
+     */
+    private static final Object NO_METER = new Object();
+    /**
+     * Query used to name overflow meters, when the number of distinct query meters is limited
+     */
+    private static final Query OVERFLOW_QUERY = new Query(null, "[other]");
+    private final MetricsBackend backend;
+    private final TaggedMetricNamingStrategy metricNamingStrategy;
+    private final ConcurrentHashMap<MeterName, Timer> timerMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<MeterName, Counter> counterMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<MeterName, Histogram> summaryMap = new ConcurrentHashMap<>();
+    private volatile Object connectionLifeTimer;
+    private volatile Object connectionGetTimer;
+    private volatile Object statementLifeTimer;
+    /**
+     * Cardinality limiters indexed by {@link QueryMeter}, null when unlimited
+     */
+    private final CardinalityLimiter[] limiters;
+    private final SamplingRates samplingRates;
+    /**
+     * Overhead controller, null when sampling is not adaptive
+     */
+    private final OverheadController overheadController;
+    /**
+     * Slow query log, null when disabled
+     */
+    private volatile SlowQueryLog slowQueryLog;
+    /**
+     * Heavy hitters, null when disabled
+     */
+    private volatile HeavyHitters heavyHitters;
 
     /**
      * Constructor
@@ -42,32 +82,293 @@ class MetricHelper {
      * @param metricNamingStrategy Strategy to name metrics
      */
     MetricHelper(MeterRegistry meterRegistry, MetricNamingStrategy metricNamingStrategy) {
-        this.meterRegistry = meterRegistry;
-        this.metricNamingStrategy = metricNamingStrategy;
+        this(meterRegistry, metricNamingStrategy, 0);
+    }
+
+    /**
+     * Constructor
+     * @param meterRegistry Registry storing metrics
+     * @param metricNamingStrategy Strategy to name metrics, flat or {@link TaggedMetricNamingStrategy tagged}
+     * @param maximumSqlIds Maximum number of distinct meters of each query meter type, 0 for no limit
+     */
+    MetricHelper(MeterRegistry meterRegistry, MetricNamingStrategy metricNamingStrategy, int maximumSqlIds) {
+        this(meterRegistry, metricNamingStrategy, maximumSqlIds, SamplingRates.NONE);
     }
 
-    private TimeObservation startTimer(String name) {
+    /**
+     * Constructor
+     * @param meterRegistry Registry storing metrics
+     * @param metricNamingStrategy Strategy to name metrics, flat or {@link TaggedMetricNamingStrategy tagged}
+     * @param maximumSqlIds Maximum number of distinct meters of each query meter type, 0 for no limit
+     * @param samplingRates Fraction of statement executions which are timed
+     */
+    MetricHelper(MeterRegistry meterRegistry, MetricNamingStrategy metricNamingStrategy, int maximumSqlIds, SamplingRates samplingRates) {
+        this(meterRegistry, metricNamingStrategy, maximumSqlIds, samplingRates, 0.0D);
+    }
+
+    /**
+     * Constructor
+     * @param meterRegistry Registry storing metrics
+     * @param metricNamingStrategy Strategy to name metrics, flat or {@link TaggedMetricNamingStrategy tagged}
+     * @param maximumSqlIds Maximum number of distinct meters of each query meter type, 0 for no limit
+     * @param samplingRates Fraction of statement executions which are timed
+     * @param overheadBudget Maximum overhead of execution timers, as a fraction of execution time, 0 to disable adaptive sampling
+     */
+    MetricHelper(MeterRegistry meterRegistry, MetricNamingStrategy metricNamingStrategy, int maximumSqlIds, SamplingRates samplingRates, double overheadBudget) {
+        this(new MicrometerMetricsBackend(meterRegistry), metricNamingStrategy, maximumSqlIds, samplingRates, overheadBudget);
+    }
+
+    /**
+     * Constructor
+     * @param backend Backend recording metrics
+     * @param metricNamingStrategy Strategy to name metrics, flat or {@link TaggedMetricNamingStrategy tagged}
+     * @param maximumSqlIds Maximum number of distinct meters of each query meter type, 0 for no limit
+     * @param samplingRates Fraction of statement executions which are timed
+     * @param overheadBudget Maximum overhead of execution timers, as a fraction of execution time, 0 to disable adaptive sampling
+     */
+    MetricHelper(MetricsBackend backend, MetricNamingStrategy metricNamingStrategy, int maximumSqlIds, SamplingRates samplingRates, double overheadBudget) {
+        this.backend = backend;
+        this.samplingRates = samplingRates;
+        this.overheadController = overheadBudget > 0.0D
+                ? new OverheadController(overheadBudget, OverheadController.DEFAULT_WINDOW_SIZE, backend) : null;
+        this.metricNamingStrategy = FlatMetricNamingStrategyAdapter.adapt(metricNamingStrategy);
+        if (maximumSqlIds > 0) {
+            limiters = new CardinalityLimiter[QueryMeter.COUNT];
+            for (QueryMeter queryMeter : QueryMeter.values()) {
+                limiters[queryMeter.ordinal()] = new CardinalityLimiter(maximumSqlIds, backend,
+                        name -> registerMeter(queryMeter, name), queryMeter.getName(this.metricNamingStrategy, OVERFLOW_QUERY));
+            }
+        } else {
+            limiters = null;
+        }
+    }
+
+    private static Object orNoMeter(Meter meter) {
+        return meter == null ? NO_METER : meter;
+    }
+
+    private Object getTimer(MeterName name) {
         if (name == null) {
-            return null;
+            return NO_METER;
+        }
+        return orNoMeter(timerMap.computeIfAbsent(name, backend::timer));
+    }
+
+    private Object getCounter(MeterName name) {
+        if (name == null) {
+            return NO_METER;
         }
-        Timer timer = timerMap.computeIfAbsent(name, n -> Timer.builder(n).register(meterRegistry));
-        return new TimeObservation(timer, System.nanoTime());
+        return orNoMeter(counterMap.computeIfAbsent(name, backend::counter));
     }
 
-    private void incCounter(String name) {
+    private Object getSummary(MeterName name) {
         if (name == null) {
-            return;
+            return NO_METER;
+        }
+        return orNoMeter(summaryMap.computeIfAbsent(name, this::registerSummary));
+    }
+
+    private Histogram registerSummary(MeterName name) {
+        return backend.histogram(name, "rows");
+    }
+
+    private Meter registerMeter(QueryMeter queryMeter, MeterName name) {
+        if (queryMeter.isCounter()) {
+            return backend.counter(name);
+        }
+        if (queryMeter == QueryMeter.RESULT_SET_ROW_SUMMARY) {
+            return registerSummary(name);
+        }
+        return backend.timer(name);
+    }
+
+    /**
+     * Get query meter, resolve it and cache it on first use.
+     * The meter is resolved again when it was evicted by the cardinality limiter.
+     */
+    private Object getMeter(Query query, QueryMeter queryMeter) {
+        Object meter = query.getMeter(queryMeter);
+        if (meter instanceof CardinalityLimiter.Handle) {
+            CardinalityLimiter.Handle handle = (CardinalityLimiter.Handle) meter;
+            if (!handle.isRemoved()) {
+                return handle.getMeter();
+            }
+            meter = null;
+        }
+        if (meter == null) {
+            meter = resolveMeter(query, queryMeter);
+            query.setMeter(queryMeter, meter);
+            if (meter instanceof CardinalityLimiter.Handle) {
+                meter = ((CardinalityLimiter.Handle) meter).getMeter();
+            }
+        }
+        return meter;
+    }
+
+    /**
+     * @return Meter, cardinality limiter handle or {@link #NO_METER}
+     */
+    private Object resolveMeter(Query query, QueryMeter queryMeter) {
+        ensureSqlId(query);
+        MeterName name = queryMeter.getName(metricNamingStrategy, query);
+        if (limiters != null && name != null) {
+            CardinalityLimiter.Handle handle = limiters[queryMeter.ordinal()].getHandle(name);
+            return handle == null || handle.getMeter() == null ? NO_METER : handle;
+        }
+        if (queryMeter.isCounter()) {
+            return getCounter(name);
+        }
+        if (queryMeter == QueryMeter.RESULT_SET_ROW_SUMMARY) {
+            return getSummary(name);
+        }
+        return getTimer(name);
+    }
+
+    /**
+     * @return Cardinality limiter of given query meter type, null when unlimited
+     */
+    CardinalityLimiter getLimiter(QueryMeter queryMeter) {
+        return limiters == null ? null : limiters[queryMeter.ordinal()];
+    }
+
+    private static TimeObservation startTimer(Object timer) {
+        if (timer == NO_METER) {
+            return null;
         }
-        Counter counter = counterMap.computeIfAbsent(name, n -> Counter.builder(n).register(meterRegistry));
-        counter.increment();
+        return new TimeObservation((Timer) timer, System.nanoTime());
+    }
+
+    private TimeObservation startTimer(Query query, QueryMeter queryMeter) {
+        return startTimer(getMeter(query, queryMeter));
+    }
+
+    /**
+     * Start observing an execution: time it for a fraction of calls, count every call when sampling.
+     * When an overhead budget is configured, every call is counted whatever the current mode,
+     * so that the execution counters don't reset when the mode changes.
+     * Timer and counter are resolved when the execution ends, depending on its outcome.
+     *
+     * @param execution Statement execution
+     * @param samplingRate Fraction of timed executions
+     * @return Started observation or null when the execution is neither timed, counted nor logged
+     */
+    private TimeObservation startExecution(Query query, QueryMeter.Execution execution, double samplingRate) {
+        long entryTime = System.nanoTime();
+        boolean counted = overheadController != null || samplingRate < 1.0D;
+        if (overheadController != null) {
+            samplingRate = overheadController.getSamplingRate(samplingRate);
+        }
+        boolean timed = samplingRate >= 1.0D || isSampled(samplingRate);
+        if (!timed && overheadController != null) {
+            overheadController.skip();
+        }
+        SlowQueryLog log = slowQueryLog;
+        HeavyHitters hitters = heavyHitters;
+        if (!timed && !counted && log == null && hitters == null) {
+            return null;
+        }
+        if (log != null || hitters != null) {
+            ensureSqlId(query);
+        }
+        return new ExecutionObservation(query, execution, timed, counted, entryTime, log, hitters);
+    }
+
+    /**
+     * Decide whether execution should be timed
+     */
+    private static boolean isSampled(double samplingRate) {
+        return samplingRate > 0.0D && ThreadLocalRandom.current().nextDouble() < samplingRate;
+    }
+
+    /**
+     * @param slowQueryLog Slow query log capturing long executions, null to disable
+     */
+    void setSlowQueryLog(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * @param heavyHitters Heavy hitters tracking queries with highest total time, null to disable
+     */
+    void setHeavyHitters(HeavyHitters heavyHitters) {
+        this.heavyHitters = heavyHitters;
+    }
+
+    /**
+     * Execution observation, recording the timer and the counter of its outcome when stopped,
+     * then offering the execution to the slow query log and heavy hitters
+     */
+    private final class ExecutionObservation extends TimeObservation {
+        private final Query query;
+        private final QueryMeter.Execution execution;
+        private final boolean timed;
+        private final boolean counted;
+        private final long entryTime;
+        private final SlowQueryLog slowQueryLog;
+        private final HeavyHitters heavyHitters;
+        private ExecutionOutcome outcome = ExecutionOutcome.SUCCESS;
+
+        private ExecutionObservation(Query query, QueryMeter.Execution execution, boolean timed, boolean counted, long entryTime,
+                                     SlowQueryLog slowQueryLog, HeavyHitters heavyHitters) {
+            super((Timer) null, System.nanoTime());
+            this.query = query;
+            this.execution = execution;
+            this.timed = timed;
+            this.counted = counted;
+            this.entryTime = entryTime;
+            this.slowQueryLog = slowQueryLog;
+            this.heavyHitters = heavyHitters;
+        }
+
+        @Override
+        public void close() {
+            long endTime = System.nanoTime();
+            long elapsedNanos = endTime - getStartTime();
+            if (timed) {
+                Object timer = getMeter(query, QueryMeter.executeTimer(execution, outcome));
+                if (timer != NO_METER) {
+                    ((Timer) timer).record(elapsedNanos);
+                }
+            }
+            if (counted) {
+                Object counter = getMeter(query, QueryMeter.executeCounter(execution, outcome));
+                if (counter != NO_METER) {
+                    ((Counter) counter).increment(1L);
+                }
+            }
+            if (timed && overheadController != null) {
+                overheadController.recordObservation(entryTime, getStartTime(), endTime);
+            }
+            if (slowQueryLog != null) {
+                slowQueryLog.offer(query, elapsedNanos);
+            }
+            if (heavyHitters != null) {
+                heavyHitters.record(query, elapsedNanos);
+            }
+        }
+    }
+
+    /**
+     * @return Overhead controller, null when sampling is not adaptive
+     */
+    OverheadController getOverheadController() {
+        return overheadController;
     }
 
     public TimeObservation startConnectionLifeTimer() {
-        return startTimer(metricNamingStrategy.getConnectionLifeTimer());
+        Object timer = connectionLifeTimer;
+        if (timer == null) {
+            connectionLifeTimer = timer = getTimer(metricNamingStrategy.getTaggedConnectionLifeTimer());
+        }
+        return startTimer(timer);
     }
 
     public TimeObservation startConnectionGetTimer() {
-        return startTimer(metricNamingStrategy.getConnectionGetTimer());
+        Object timer = connectionGetTimer;
+        if (timer == null) {
+            connectionGetTimer = timer = getTimer(metricNamingStrategy.getTaggedConnectionGetTimer());
+        }
+        return startTimer(timer);
     }
 
     /**
@@ -76,7 +377,11 @@ class MetricHelper {
      * @return Started timer context or null
      */
     public TimeObservation startStatementLifeTimer() {
-        return startTimer(metricNamingStrategy.getStatementLifeTimer());
+        Object timer = statementLifeTimer;
+        if (timer == null) {
+            statementLifeTimer = timer = getTimer(metricNamingStrategy.getTaggedStatementLifeTimer());
+        }
+        return startTimer(timer);
     }
     /**
      * Start Timer when statement is executed
@@ -85,9 +390,7 @@ class MetricHelper {
      * @return Started timer context or null
      */
     public TimeObservation startStatementExecuteTimer(Query query) {
-        ensureSqlId(query);
-        String name = metricNamingStrategy.getStatementExecuteTimer(query.getSql(), query.getSqlId());
-        return startTimer(name);
+        return startExecution(query, QueryMeter.Execution.STATEMENT, samplingRates.getStatementRate());
     }
 
     private void ensureSqlId(Query query) {
@@ -100,9 +403,7 @@ class MetricHelper {
      * @return Started timer context or null
      */
     public TimeObservation startPreparedStatementLifeTimer(Query query) {
-        ensureSqlId(query);
-        String name = metricNamingStrategy.getPreparedStatementLifeTimer(query.getSql(), query.getSqlId());
-        return startTimer(name);
+        return startTimer(query, QueryMeter.PREPARED_STATEMENT_LIFE_TIMER);
     }
 
     /**
@@ -111,16 +412,7 @@ class MetricHelper {
      * @return Started timer context or null
      */
     public TimeObservation startPreparedStatementExecuteTimer(Query query) {
-        ensureSqlId(query);
-        String name = metricNamingStrategy.getPreparedStatementExecuteTimer(query.getSql(), query.getSqlId());
-        return startTimer(name);
-    }
-
-    private String getSqlId(String sqlId, String sql) {
-        if (sqlId == null) {
-            sqlId = metricNamingStrategy.getSqlId(sql);
-        }
-        return sqlId;
+        return startExecution(query, QueryMeter.Execution.PREPARED_STATEMENT, samplingRates.getPreparedStatementRate());
     }
 
     /**
@@ -129,9 +421,7 @@ class MetricHelper {
      * @return Started timer context or null
      */
     public TimeObservation startCallableStatementLifeTimer(Query query) {
-        ensureSqlId(query);
-        String name = metricNamingStrategy.getCallableStatementLifeTimer(query.getSql(), query.getSqlId());
-        return startTimer(name);
+        return startTimer(query, QueryMeter.CALLABLE_STATEMENT_LIFE_TIMER);
     }
 
     /**
@@ -140,9 +430,19 @@ class MetricHelper {
      * @return Started timer context or null
      */
     public TimeObservation startCallableStatementExecuteTimer(Query query) {
-        ensureSqlId(query);
-        String name = metricNamingStrategy.getCallableStatementExecuteTimer(query.getSql(), query.getSqlId());
-        return startTimer(name);
+        return startExecution(query, QueryMeter.Execution.CALLABLE_STATEMENT, samplingRates.getCallableStatementRate());
+    }
+
+    /**
+     * Mark statement execution as failed, its timer and counter get the failure <code>outcome</code> tag
+     *
+     * @param observation Execution observation, may be null
+     * @param throwable Raised exception
+     */
+    public void markExecuteFailure(TimeObservation observation, Throwable throwable) {
+        if (observation instanceof ExecutionObservation) {
+            ((ExecutionObservation) observation).outcome = ExecutionOutcome.of(throwable);
+        }
     }
 
     /**
@@ -151,16 +451,29 @@ class MetricHelper {
      * @return Started timer context or null
      */
     public TimeObservation startResultSetLifeTimer(Query query) {
-        ensureSqlId(query);
-        String name = metricNamingStrategy.getResultSetLifeTimer(query.getSql(), query.getSqlId());
-        return startTimer(name);
+        return startTimer(query, QueryMeter.RESULT_SET_LIFE_TIMER);
+    }
+    /**
+     * Increment when result set rows are read
+     *
+     * @param rowCount Number of rows read since last call
+     */
+    public void markResultSetRowMeter(Query query, long rowCount) {
+        Object counter = getMeter(query, QueryMeter.RESULT_SET_ROW_METER);
+        if (counter != NO_METER) {
+            ((Counter) counter).increment(rowCount);
+        }
     }
+
     /**
-     * Increment when result set row is read
+     * Record the number of rows read from a result set, when it is closed
+     *
+     * @param rowCount Total number of rows read
      */
-    public void markResultSetRowMeter(Query query) {
-        ensureSqlId(query);
-        String name = metricNamingStrategy.getResultSetRowMeter(query.getSql(), query.getSqlId());
-        incCounter(name);
+    public void recordResultSetRowSummary(Query query, long rowCount) {
+        Object summary = getMeter(query, QueryMeter.RESULT_SET_ROW_SUMMARY);
+        if (summary != NO_METER) {
+            ((Histogram) summary).record(rowCount);
+        }
     }
 }
@@ -107,4 +107,14 @@ public interface MetricNamingStrategy {
      * @return Timer name or null
      */
     String getResultSetRowMeter(String sql, String sqlId);
+
+    /**
+     * Get distribution summary name for the number of rows read from each {@link ResultSet}
+     * @param sql SQL Query
+     * @param sqlId SQL Id generated from query or null
+     * @return Distribution summary name or null
+     */
+    default String getResultSetRowSummary(String sql, String sqlId) {
+        return null;
+    }
 }
@@ -20,12 +20,21 @@ package com.github.gquintana.metrics.sql;
  * #L%
  */
 
+import com.github.gquintana.metrics.backend.AsyncMetricsBackend;
+import com.github.gquintana.metrics.backend.HdrHistogramMetricsBackend;
+import com.github.gquintana.metrics.backend.MetricsBackend;
+import com.github.gquintana.metrics.backend.MicrometerMetricsBackend;
+import com.github.gquintana.metrics.backend.ThreadLocalMetricsBackend;
+import com.github.gquintana.metrics.proxy.MethodInvoker;
 import com.github.gquintana.metrics.proxy.ProxyFactory;
+import com.github.gquintana.metrics.proxy.ReflectMethodInvoker;
 import com.github.gquintana.metrics.proxy.ReflectProxyFactory;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 
 import javax.sql.DataSource;
 import java.sql.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Metrics SQL initializing class
@@ -35,13 +44,32 @@ public class MetricsSql {
      * Builder of {@link JdbcProxyFactory}
      */
     public static class Builder {
+        /**
+         * Micrometer registry where naming strategy meters are bound, null when not recording in Micrometer
+         */
         private final MeterRegistry registry;
+        private MetricsBackend backend;
         private MetricNamingStrategy namingStrategy = new DefaultMetricNamingStrategy();
         private ProxyFactory proxyFactory = new ReflectProxyFactory();
+        private MethodInvoker methodInvoker = ReflectMethodInvoker.INSTANCE;
+        private int maximumSqlIds;
+        private SamplingRates samplingRates = SamplingRates.NONE;
+        private double overheadBudget;
+        private SlowQueryLog slowQueryLog;
+        private HeavyHitters heavyHitters;
+        private long threadLocalMergeInterval;
+        private int asyncCapacity;
+        private AsyncMetricsBackend.OverflowPolicy asyncOverflowPolicy;
         private JdbcProxyFactory jdbcProxyFactory;
 
         public Builder(MeterRegistry registry) {
             this.registry = registry;
+            this.backend = new MicrometerMetricsBackend(registry);
+        }
+
+        public Builder(MetricsBackend backend) {
+            this.registry = backend instanceof MicrometerMetricsBackend ? ((MicrometerMetricsBackend) backend).getRegistry() : null;
+            this.backend = backend;
         }
 
         /**
@@ -75,6 +103,196 @@ public class MetricsSql {
             return withNamingStrategy(new StrictMetricNamingStrategy.Builder().withDatabaseName(databaseName).build());
         }
 
+        /**
+         * Select normalizing naming strategy
+         *
+         * @param databaseName Database name for metric naming
+         * @return Current builder
+         * @see NormalizingMetricNamingStrategy
+         */
+        public Builder withNormalizingNamingStrategy(String databaseName) {
+            return withNamingStrategy(new NormalizingMetricNamingStrategy.Builder().withDatabaseName(databaseName).build());
+        }
+
+        /**
+         * Select fingerprint naming strategy
+         *
+         * @param databaseName Database name for metric naming
+         * @return Current builder
+         * @see FingerprintMetricNamingStrategy
+         */
+        public Builder withFingerprintNamingStrategy(String databaseName) {
+            return withNamingStrategy(new FingerprintMetricNamingStrategy.Builder().withDatabaseName(databaseName).build());
+        }
+
+        /**
+         * Select dimensional naming strategy, using tags instead of long names
+         *
+         * @param databaseName Database name for metric tags
+         * @return Current builder
+         * @see DimensionalMetricNamingStrategy
+         */
+        public Builder withDimensionalNamingStrategy(String databaseName) {
+            return withNamingStrategy(new DimensionalMetricNamingStrategy.Builder().withDatabaseName(databaseName).build());
+        }
+
+        /**
+         * Cache SQL Ids and metric names generated by the currently selected naming strategy,
+         * cache meters are registered when the {@link JdbcProxyFactory} is built.
+         *
+         * @param maximumSize Maximum number of cached SQL queries for each metric type
+         * @return Current builder
+         * @see CachingMetricNamingStrategy
+         */
+        public Builder withCachingNamingStrategy(int maximumSize) {
+            return withNamingStrategy(new CachingMetricNamingStrategy(namingStrategy, maximumSize));
+        }
+
+        /**
+         * Limit the number of distinct SQL Ids metered for each statement type.
+         * Past this limit, least recently used idle meters are removed from the registry,
+         * or SQL queries are metered with a shared <code>[other]</code> SQL Id.
+         *
+         * @param maximumSqlIds Maximum number of SQL Ids, 0 for no limit
+         * @return Current builder
+         */
+        public Builder withMaximumSqlIds(int maximumSqlIds) {
+            this.maximumSqlIds = maximumSqlIds;
+            return this;
+        }
+
+        /**
+         * Time only a fraction of statement executions, executions are still counted
+         *
+         * @param samplingRate Fraction of timed executions, between 0 and 1, for all statement types
+         * @return Current builder
+         */
+        public Builder withSampling(double samplingRate) {
+            return withSampling(SamplingRates.of(samplingRate));
+        }
+
+        /**
+         * Time only a fraction of statement executions, executions are still counted
+         *
+         * @param samplingRates Fraction of timed executions for each statement type
+         * @return Current builder
+         */
+        public Builder withSampling(SamplingRates samplingRates) {
+            this.samplingRates = samplingRates;
+            return this;
+        }
+
+        /**
+         * Degrade execution timers when their overhead exceeds a budget:
+         * from all executions timed, to sampled executions, to executions only counted.
+         * The current mode and transitions are published as <code>metrics-sql.overhead.*</code> meters.
+         *
+         * @param overheadBudget Maximum overhead as a fraction of statement execution time, like 0.02, 0 to disable
+         * @return Current builder
+         */
+        public Builder withAdaptiveSampling(double overheadBudget) {
+            this.overheadBudget = overheadBudget;
+            return this;
+        }
+
+        /**
+         * Capture statement executions exceeding a threshold
+         *
+         * @param slowQueryLog Slow query log, it should be started to drain captured queries to listeners
+         * @return Current builder
+         */
+        public Builder withSlowQueryLog(SlowQueryLog slowQueryLog) {
+            this.slowQueryLog = slowQueryLog;
+            return this;
+        }
+
+        /**
+         * Track queries with the highest total execution time
+         *
+         * @param heavyHitters Heavy hitters
+         * @return Current builder
+         */
+        public Builder withHeavyHitters(HeavyHitters heavyHitters) {
+            this.heavyHitters = heavyHitters;
+            return this;
+        }
+
+        /**
+         * Record timers in HdrHistogram recorders, with default value range and precision
+         *
+         * @return Current builder
+         * @see HdrHistogramMetricsBackend
+         */
+        public Builder withHdrHistogramTimers() {
+            return withHdrHistogramTimers(HdrHistogramMetricsBackend.DEFAULT_HIGHEST_TRACKABLE_VALUE, TimeUnit.NANOSECONDS,
+                    HdrHistogramMetricsBackend.DEFAULT_SIGNIFICANT_DIGITS);
+        }
+
+        /**
+         * Record timers in HdrHistogram recorders, to get accurate percentiles for each query
+         *
+         * @param highestTrackableValue Highest recorded duration, longer durations are recorded as this value
+         * @param unit Unit of highest recorded duration
+         * @param significantDigits Number of significant decimal digits kept, between 0 and 5
+         * @return Current builder
+         * @see HdrHistogramMetricsBackend
+         */
+        public Builder withHdrHistogramTimers(long highestTrackableValue, TimeUnit unit, int significantDigits) {
+            this.backend = new HdrHistogramMetricsBackend(backend, unit.toNanos(highestTrackableValue), significantDigits);
+            return this;
+        }
+
+        /**
+         * Accumulate meters in buffers confined to each thread, merged every second
+         *
+         * @return Current builder
+         * @see ThreadLocalMetricsBackend
+         */
+        public Builder withThreadLocalRecording() {
+            return withThreadLocalRecording(ThreadLocalMetricsBackend.DEFAULT_MERGE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Accumulate meters in buffers confined to each thread, so that threads executing the same query don't contend.
+         * Buffers are merged into the backend by a background thread, stopped by {@link JdbcProxyFactory#close()}.
+         *
+         * @param mergeInterval Delay between merges, meters are published with this delay
+         * @param unit Merge interval unit
+         * @return Current builder
+         * @see ThreadLocalMetricsBackend
+         */
+        public Builder withThreadLocalRecording(long mergeInterval, TimeUnit unit) {
+            this.threadLocalMergeInterval = unit.toMillis(mergeInterval);
+            return this;
+        }
+
+        /**
+         * Record meters from a background thread, with default ring buffer size, events are dropped when it is full
+         *
+         * @return Current builder
+         * @see AsyncMetricsBackend
+         */
+        public Builder withAsyncRecording() {
+            return withAsyncRecording(AsyncMetricsBackend.DEFAULT_CAPACITY, AsyncMetricsBackend.OverflowPolicy.DROP);
+        }
+
+        /**
+         * Record meters from a background thread: JDBC calling threads only write events into a ring buffer,
+         * meters are registered and updated by the background thread.
+         * The ring buffer wraps the backend once all other backend options are applied.
+         * The background thread is stopped by {@link JdbcProxyFactory#close()}.
+         *
+         * @param capacity Ring buffer size, rounded up to a power of two
+         * @param overflowPolicy What to do with events when the ring buffer is full
+         * @return Current builder
+         * @see AsyncMetricsBackend
+         */
+        public Builder withAsyncRecording(int capacity, AsyncMetricsBackend.OverflowPolicy overflowPolicy) {
+            this.asyncCapacity = capacity;
+            this.asyncOverflowPolicy = overflowPolicy;
+            return this;
+        }
+
         /**
          * Select factory of proxies
          *
@@ -86,6 +304,17 @@ public class MetricsSql {
             return this;
         }
 
+        /**
+         * Select how wrapped JDBC objects are called
+         *
+         * @param methodInvoker Strategy to call wrapped JDBC objects
+         * @return Current builder
+         */
+        public Builder withMethodInvoker(MethodInvoker methodInvoker) {
+            this.methodInvoker = methodInvoker;
+            return this;
+        }
+
         /**
          * Build {@link JdbcProxyFactory}
          *
@@ -94,7 +323,18 @@ public class MetricsSql {
 
         public JdbcProxyFactory build() {
             if (jdbcProxyFactory == null) {
-                jdbcProxyFactory = new JdbcProxyFactory(registry, namingStrategy, proxyFactory);
+                if (namingStrategy instanceof MeterBinder && registry != null) {
+                    ((MeterBinder) namingStrategy).bindTo(registry);
+                }
+                if (threadLocalMergeInterval > 0L) {
+                    backend = new ThreadLocalMetricsBackend(backend, threadLocalMergeInterval, TimeUnit.MILLISECONDS).start();
+                }
+                if (asyncCapacity > 0) {
+                    backend = new AsyncMetricsBackend(backend, asyncCapacity, asyncOverflowPolicy).start();
+                }
+                jdbcProxyFactory = new JdbcProxyFactory(backend, namingStrategy, proxyFactory, methodInvoker, maximumSqlIds, samplingRates, overheadBudget);
+                jdbcProxyFactory.setSlowQueryLog(slowQueryLog);
+                jdbcProxyFactory.setHeavyHitters(heavyHitters);
             }
             return jdbcProxyFactory;
         }
@@ -168,4 +408,14 @@ public class MetricsSql {
     public static Builder forRegistry(MeterRegistry registry) {
         return new Builder(registry);
     }
+
+    /**
+     * Select Default naming strategy and metrics backend
+     *
+     * @param backend Metrics backend, like {@link com.github.gquintana.metrics.backend.DropwizardMetricsBackend}
+     * @return Builder of {@link JdbcProxyFactory}
+     */
+    public static Builder forBackend(MetricsBackend backend) {
+        return new Builder(backend);
+    }
 }
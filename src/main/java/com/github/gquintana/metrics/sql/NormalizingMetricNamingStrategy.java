@@ -0,0 +1,89 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.util.SqlNormalizer;
+
+/**
+ * Implementation of {@link MetricNamingStrategy} which normalizes SQL queries when generating query Id:
+ * literals are replaced by <code>?</code>, IN lists are collapsed, comments are removed...
+ * The purpose of this strategy is to share metrics between queries differing only by literals.
+ *
+ * @see SqlNormalizer
+ */
+public class NormalizingMetricNamingStrategy extends DefaultMetricNamingStrategy {
+    private final SqlNormalizer normalizer;
+
+    public NormalizingMetricNamingStrategy() {
+        super();
+        this.normalizer = new SqlNormalizer();
+    }
+
+    public NormalizingMetricNamingStrategy(String databaseName) {
+        super(databaseName);
+        this.normalizer = new SqlNormalizer();
+    }
+
+    public NormalizingMetricNamingStrategy(String databaseName, SqlNormalizer normalizer) {
+        super(databaseName);
+        this.normalizer = normalizer;
+    }
+
+    /**
+     * Generate SQL Id from normalized SQL query.
+     *
+     * @param sql Input SQL
+     * @return [normalized sql]
+     */
+    @Override
+    public String getSqlId(String sql) {
+        return "[" + normalizer.normalize(sql) + "]";
+    }
+
+    /**
+     * Start a builder
+     * @return Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder of {@link NormalizingMetricNamingStrategy}
+     */
+    public static class Builder extends DefaultMetricNamingStrategy.Builder<NormalizingMetricNamingStrategy.Builder> {
+        private int maxLength = SqlNormalizer.DEFAULT_MAX_LENGTH;
+
+        /**
+         * @param maxLength Maximum length of normalized SQL queries
+         * @return Current builder
+         */
+        public Builder withMaxLength(int maxLength) {
+            this.maxLength = maxLength;
+            return this;
+        }
+
+        @Override
+        public NormalizingMetricNamingStrategy build() {
+            return new NormalizingMetricNamingStrategy(databaseName, new SqlNormalizer(maxLength));
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.backend.Counter;
+import com.github.gquintana.metrics.backend.MeterName;
+import com.github.gquintana.metrics.backend.MetricsBackend;
+import com.github.gquintana.metrics.backend.Timer;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Watch the cost of statement execution timers and degrade them when it exceeds a budget.
+ * Internal helper class.
+ * The overhead is the time spent starting and stopping timers, compared to the time spent executing statements.
+ * It is measured on timed executions and evaluated every {@link #DEFAULT_WINDOW_SIZE} of them:
+ * <ul>
+ *     <li>{@link Mode#FULL}: configured sampling rates are used, goes to {@link Mode#SAMPLED} when over budget</li>
+ *     <li>{@link Mode#SAMPLED}: at most {@link #DEFAULT_SAMPLING_RATE} of executions are timed,
+ *     goes to {@link Mode#COUNTED} when still over budget, back to {@link Mode#FULL} below half the budget</li>
+ *     <li>{@link Mode#COUNTED}: executions are only counted, goes to {@link Mode#SAMPLED} after a while to measure again</li>
+ * </ul>
+ * The mode, last overhead ratio and transitions are published as <code>metrics-sql.overhead.*</code> meters.
+ */
+class OverheadController {
+    /**
+     * Execution timing mode, from most to least costly
+     */
+    enum Mode {
+        FULL, SAMPLED, COUNTED
+    }
+
+    static final int DEFAULT_WINDOW_SIZE = 1000;
+    static final double DEFAULT_SAMPLING_RATE = 0.1D;
+    /**
+     * Number of windows of counted executions before measuring again
+     */
+    private static final int PROBE_WINDOWS = 10;
+    private final double budget;
+    private final int windowSize;
+    private final LongAdder overheadNanos = new LongAdder();
+    private final LongAdder statementNanos = new LongAdder();
+    private final AtomicLong observationCount = new AtomicLong();
+    private final AtomicLong skipCount = new AtomicLong();
+    private final Counter[] transitionCounters = new Counter[Mode.values().length];
+    private volatile Mode mode = Mode.FULL;
+    private volatile double overheadRatio;
+
+    /**
+     * Constructor
+     *
+     * @param budget Maximum overhead, as a fraction of statement execution time, like 0.02
+     * @param windowSize Number of timed executions between evaluations
+     * @param backend Backend where mode and transitions are published
+     */
+    OverheadController(double budget, int windowSize, MetricsBackend backend) {
+        if (!(budget > 0.0D)) {
+            throw new IllegalArgumentException("Invalid overhead budget " + budget);
+        }
+        this.budget = budget;
+        this.windowSize = windowSize;
+        Tags tags = Tags.of("budget", Double.toString(budget));
+        backend.gauge(MeterName.of("metrics-sql.overhead.mode", tags), this, c -> c.mode.ordinal());
+        backend.gauge(MeterName.of("metrics-sql.overhead.ratio", tags), this, c -> c.overheadRatio);
+        for (Mode target : Mode.values()) {
+            transitionCounters[target.ordinal()] = backend.counter(MeterName.of("metrics-sql.overhead.transitions",
+                    tags.and("mode", target.name().toLowerCase(Locale.ROOT))));
+        }
+    }
+
+    Mode getMode() {
+        return mode;
+    }
+
+    double getOverheadRatio() {
+        return overheadRatio;
+    }
+
+    /**
+     * @param samplingRate Configured sampling rate
+     * @return Sampling rate in current mode
+     */
+    double getSamplingRate(double samplingRate) {
+        switch (mode) {
+            case FULL:
+                return samplingRate;
+            case SAMPLED:
+                return Math.min(samplingRate, DEFAULT_SAMPLING_RATE);
+            default:
+                return 0.0D;
+        }
+    }
+
+    /**
+     * Start measuring a timed execution
+     *
+     * @param timer Execution timer
+     * @param entryTime Time when the instrumentation started, before resolving the timer
+     */
+    TimeObservation startObservation(Timer timer, long entryTime) {
+        return new Observation(timer, entryTime, System.nanoTime());
+    }
+
+    /**
+     * Count an execution which was not timed, measure again after a while in {@link Mode#COUNTED} mode
+     */
+    void skip() {
+        if (mode == Mode.COUNTED && skipCount.incrementAndGet() % ((long) windowSize * PROBE_WINDOWS) == 0) {
+            transition(Mode.COUNTED, Mode.SAMPLED);
+        }
+    }
+
+    /**
+     * Measure a timed execution
+     *
+     * @param entryTime Time when the instrumentation started, before resolving the timer
+     * @param startTime Time when the statement execution started
+     * @param endTime Time when the statement execution ended, before recording the timer
+     */
+    void recordObservation(long entryTime, long startTime, long endTime) {
+        recordObservation(startTime - entryTime + System.nanoTime() - endTime, endTime - startTime);
+    }
+
+    private void recordObservation(long overhead, long duration) {
+        overheadNanos.add(overhead);
+        statementNanos.add(duration);
+        if (observationCount.incrementAndGet() % windowSize == 0) {
+            evaluate();
+        }
+    }
+
+    private synchronized void evaluate() {
+        long overhead = overheadNanos.sumThenReset();
+        long duration = statementNanos.sumThenReset();
+        if (duration <= 0L) {
+            return;
+        }
+        double ratio = (double) overhead / duration;
+        overheadRatio = ratio;
+        switch (mode) {
+            case FULL:
+                if (ratio > budget) {
+                    transition(Mode.FULL, Mode.SAMPLED);
+                }
+                break;
+            case SAMPLED:
+                if (ratio * DEFAULT_SAMPLING_RATE > budget) {
+                    transition(Mode.SAMPLED, Mode.COUNTED);
+                } else if (ratio < budget / 2.0D) {
+                    transition(Mode.SAMPLED, Mode.FULL);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private synchronized void transition(Mode from, Mode to) {
+        if (mode != from) {
+            return;
+        }
+        mode = to;
+        overheadNanos.reset();
+        statementNanos.reset();
+        Counter transitionCounter = transitionCounters[to.ordinal()];
+        if (transitionCounter != null) {
+            transitionCounter.increment(1L);
+        }
+    }
+
+    /**
+     * Timer observation measuring its own overhead
+     */
+    private class Observation extends TimeObservation {
+        private final long entryTime;
+
+        private Observation(Timer timer, long entryTime, long startTime) {
+            super(timer, startTime);
+            this.entryTime = entryTime;
+        }
+
+        @Override
+        public void close() {
+            long endTime = System.nanoTime();
+            record(endTime);
+            recordObservation(entryTime, getStartTime(), endTime);
+        }
+    }
+}
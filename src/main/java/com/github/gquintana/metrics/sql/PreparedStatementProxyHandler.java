@@ -21,7 +21,7 @@ package com.github.gquintana.metrics.sql;
  */
 
 
-import com.github.gquintana.metrics.proxy.MethodInvocation;
+import com.github.gquintana.metrics.proxy.MethodDispatchTable;
 
 import java.sql.PreparedStatement;
 
@@ -37,17 +37,27 @@ public class PreparedStatementProxyHandler extends AbstractStatementProxyHandler
         this.query = query;
     }
 
-    protected final Object execute(MethodInvocation<PreparedStatement> methodInvocation) throws Throwable {
+    protected final Object execute(MethodDispatchTable.Entry entry, Object[] args) throws Throwable {
         Query currentQuery;
-        if (methodInvocation.getArgCount() > 0) {
-            currentQuery = new Query(methodInvocation.getArgAt(0, String.class));
+        if (args != null && args.length > 0) {
+            currentQuery = new Query((String) args[0]);
         } else {
             currentQuery = this.query;
         }
         TimeObservation timerContext = getTimerStarter().startPreparedStatementExecuteTimer(currentQuery);
-        Object result = methodInvocation.proceed();
-        stopTimer(timerContext);
+        Object result;
+        try {
+            result = proceed(entry, args);
+        } catch (Throwable throwable) {
+            getTimerStarter().markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
         return wrapResultSet(currentQuery, result);
     }
 
+    public Query getQuery() {
+        return query;
+    }
 }
@@ -22,10 +22,15 @@ package com.github.gquintana.metrics.sql;
 
 /**
  * SQL Query and SQL Id couple.
+ * Meters are resolved once per query and cached, like statements, queries are not thread-safe.
  */
 public class Query {
     private final String sql;
     private String sqlId;
+    /**
+     * Resolved meters indexed by {@link QueryMeter}, lazily created
+     */
+    private Object[] meters;
 
     public Query(String sql) {
         this.sql = sql;
@@ -49,4 +54,18 @@ public class Query {
             this.sqlId = metricNamingStrategy.getSqlId(sql);
         }
     }
+
+    /**
+     * @return Resolved meter, or null when not resolved yet
+     */
+    Object getMeter(QueryMeter queryMeter) {
+        return meters == null ? null : meters[queryMeter.ordinal()];
+    }
+
+    void setMeter(QueryMeter queryMeter, Object meter) {
+        if (meters == null) {
+            meters = new Object[QueryMeter.COUNT];
+        }
+        meters[queryMeter.ordinal()] = meter;
+    }
 }
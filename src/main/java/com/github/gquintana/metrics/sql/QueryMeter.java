@@ -0,0 +1,212 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.backend.MeterName;
+
+/**
+ * Query related meters, resolved once per {@link Query} and then cached on it.
+ * Internal helper enum.
+ */
+enum QueryMeter {
+    STATEMENT_EXECUTE_SUCCESS_TIMER(Execution.STATEMENT, ExecutionOutcome.SUCCESS, false),
+    STATEMENT_EXECUTE_TIMEOUT_TIMER(Execution.STATEMENT, ExecutionOutcome.TIMEOUT, false),
+    STATEMENT_EXECUTE_ROLLBACK_TIMER(Execution.STATEMENT, ExecutionOutcome.ROLLBACK, false),
+    STATEMENT_EXECUTE_CONNECTION_TIMER(Execution.STATEMENT, ExecutionOutcome.CONNECTION, false),
+    STATEMENT_EXECUTE_ERROR_TIMER(Execution.STATEMENT, ExecutionOutcome.ERROR, false),
+    PREPARED_STATEMENT_LIFE_TIMER {
+        @Override
+        MeterName getName(TaggedMetricNamingStrategy namingStrategy, Query query) {
+            return namingStrategy.getTaggedPreparedStatementLifeTimer(query.getSql(), query.getSqlId());
+        }
+    },
+    PREPARED_STATEMENT_EXECUTE_SUCCESS_TIMER(Execution.PREPARED_STATEMENT, ExecutionOutcome.SUCCESS, false),
+    PREPARED_STATEMENT_EXECUTE_TIMEOUT_TIMER(Execution.PREPARED_STATEMENT, ExecutionOutcome.TIMEOUT, false),
+    PREPARED_STATEMENT_EXECUTE_ROLLBACK_TIMER(Execution.PREPARED_STATEMENT, ExecutionOutcome.ROLLBACK, false),
+    PREPARED_STATEMENT_EXECUTE_CONNECTION_TIMER(Execution.PREPARED_STATEMENT, ExecutionOutcome.CONNECTION, false),
+    PREPARED_STATEMENT_EXECUTE_ERROR_TIMER(Execution.PREPARED_STATEMENT, ExecutionOutcome.ERROR, false),
+    CALLABLE_STATEMENT_LIFE_TIMER {
+        @Override
+        MeterName getName(TaggedMetricNamingStrategy namingStrategy, Query query) {
+            return namingStrategy.getTaggedCallableStatementLifeTimer(query.getSql(), query.getSqlId());
+        }
+    },
+    CALLABLE_STATEMENT_EXECUTE_SUCCESS_TIMER(Execution.CALLABLE_STATEMENT, ExecutionOutcome.SUCCESS, false),
+    CALLABLE_STATEMENT_EXECUTE_TIMEOUT_TIMER(Execution.CALLABLE_STATEMENT, ExecutionOutcome.TIMEOUT, false),
+    CALLABLE_STATEMENT_EXECUTE_ROLLBACK_TIMER(Execution.CALLABLE_STATEMENT, ExecutionOutcome.ROLLBACK, false),
+    CALLABLE_STATEMENT_EXECUTE_CONNECTION_TIMER(Execution.CALLABLE_STATEMENT, ExecutionOutcome.CONNECTION, false),
+    CALLABLE_STATEMENT_EXECUTE_ERROR_TIMER(Execution.CALLABLE_STATEMENT, ExecutionOutcome.ERROR, false),
+    RESULT_SET_LIFE_TIMER {
+        @Override
+        MeterName getName(TaggedMetricNamingStrategy namingStrategy, Query query) {
+            return namingStrategy.getTaggedResultSetLifeTimer(query.getSql(), query.getSqlId());
+        }
+    },
+    RESULT_SET_ROW_METER {
+        @Override
+        MeterName getName(TaggedMetricNamingStrategy namingStrategy, Query query) {
+            return namingStrategy.getTaggedResultSetRowMeter(query.getSql(), query.getSqlId());
+        }
+
+        @Override
+        boolean isCounter() {
+            return true;
+        }
+    },
+    RESULT_SET_ROW_SUMMARY {
+        @Override
+        MeterName getName(TaggedMetricNamingStrategy namingStrategy, Query query) {
+            return namingStrategy.getTaggedResultSetRowSummary(query.getSql(), query.getSqlId());
+        }
+    },
+    STATEMENT_EXECUTE_SUCCESS_COUNTER(Execution.STATEMENT, ExecutionOutcome.SUCCESS, true),
+    STATEMENT_EXECUTE_TIMEOUT_COUNTER(Execution.STATEMENT, ExecutionOutcome.TIMEOUT, true),
+    STATEMENT_EXECUTE_ROLLBACK_COUNTER(Execution.STATEMENT, ExecutionOutcome.ROLLBACK, true),
+    STATEMENT_EXECUTE_CONNECTION_COUNTER(Execution.STATEMENT, ExecutionOutcome.CONNECTION, true),
+    STATEMENT_EXECUTE_ERROR_COUNTER(Execution.STATEMENT, ExecutionOutcome.ERROR, true),
+    PREPARED_STATEMENT_EXECUTE_SUCCESS_COUNTER(Execution.PREPARED_STATEMENT, ExecutionOutcome.SUCCESS, true),
+    PREPARED_STATEMENT_EXECUTE_TIMEOUT_COUNTER(Execution.PREPARED_STATEMENT, ExecutionOutcome.TIMEOUT, true),
+    PREPARED_STATEMENT_EXECUTE_ROLLBACK_COUNTER(Execution.PREPARED_STATEMENT, ExecutionOutcome.ROLLBACK, true),
+    PREPARED_STATEMENT_EXECUTE_CONNECTION_COUNTER(Execution.PREPARED_STATEMENT, ExecutionOutcome.CONNECTION, true),
+    PREPARED_STATEMENT_EXECUTE_ERROR_COUNTER(Execution.PREPARED_STATEMENT, ExecutionOutcome.ERROR, true),
+    CALLABLE_STATEMENT_EXECUTE_SUCCESS_COUNTER(Execution.CALLABLE_STATEMENT, ExecutionOutcome.SUCCESS, true),
+    CALLABLE_STATEMENT_EXECUTE_TIMEOUT_COUNTER(Execution.CALLABLE_STATEMENT, ExecutionOutcome.TIMEOUT, true),
+    CALLABLE_STATEMENT_EXECUTE_ROLLBACK_COUNTER(Execution.CALLABLE_STATEMENT, ExecutionOutcome.ROLLBACK, true),
+    CALLABLE_STATEMENT_EXECUTE_CONNECTION_COUNTER(Execution.CALLABLE_STATEMENT, ExecutionOutcome.CONNECTION, true),
+    CALLABLE_STATEMENT_EXECUTE_ERROR_COUNTER(Execution.CALLABLE_STATEMENT, ExecutionOutcome.ERROR, true);
+
+    /**
+     * Kind of statement execution, each one has a timer and a counter per {@link ExecutionOutcome}
+     */
+    enum Execution {
+        STATEMENT {
+            @Override
+            MeterName getTimerName(TaggedMetricNamingStrategy namingStrategy, Query query) {
+                return namingStrategy.getTaggedStatementExecuteTimer(query.getSql(), query.getSqlId());
+            }
+        },
+        PREPARED_STATEMENT {
+            @Override
+            MeterName getTimerName(TaggedMetricNamingStrategy namingStrategy, Query query) {
+                return namingStrategy.getTaggedPreparedStatementExecuteTimer(query.getSql(), query.getSqlId());
+            }
+        },
+        CALLABLE_STATEMENT {
+            @Override
+            MeterName getTimerName(TaggedMetricNamingStrategy namingStrategy, Query query) {
+                return namingStrategy.getTaggedCallableStatementExecuteTimer(query.getSql(), query.getSqlId());
+            }
+        };
+
+        /**
+         * @return Execution timer name given by the naming strategy, without <code>outcome</code> tag, or null when disabled
+         */
+        abstract MeterName getTimerName(TaggedMetricNamingStrategy namingStrategy, Query query);
+    }
+
+    /**
+     * Number of query meters, size of the {@link Query} meter cache
+     */
+    static final int COUNT = values().length;
+    /**
+     * Execution timers indexed by execution and outcome
+     */
+    private static final QueryMeter[][] EXECUTE_TIMERS = new QueryMeter[Execution.values().length][ExecutionOutcome.values().length];
+    /**
+     * Execution counters indexed by execution and outcome
+     */
+    private static final QueryMeter[][] EXECUTE_COUNTERS = new QueryMeter[Execution.values().length][ExecutionOutcome.values().length];
+
+    static {
+        for (QueryMeter queryMeter : values()) {
+            if (queryMeter.execution != null) {
+                QueryMeter[][] table = queryMeter.counter ? EXECUTE_COUNTERS : EXECUTE_TIMERS;
+                table[queryMeter.execution.ordinal()][queryMeter.outcome.ordinal()] = queryMeter;
+            }
+        }
+    }
+
+    /**
+     * Execution of an execution meter, null otherwise
+     */
+    private final Execution execution;
+    /**
+     * Outcome of an execution meter, null otherwise
+     */
+    private final ExecutionOutcome outcome;
+    /**
+     * Whether an execution meter is a counter or a timer
+     */
+    private final boolean counter;
+
+    QueryMeter() {
+        this(null, null, false);
+    }
+
+    /**
+     * Execution meter constructor
+     */
+    QueryMeter(Execution execution, ExecutionOutcome outcome, boolean counter) {
+        this.execution = execution;
+        this.outcome = outcome;
+        this.counter = counter;
+    }
+
+    /**
+     * Compute meter name and tags
+     * @param namingStrategy Strategy to name metrics
+     * @param query SQL query with its SQL Id
+     * @return Meter name or null when the meter is disabled
+     */
+    MeterName getName(TaggedMetricNamingStrategy namingStrategy, Query query) {
+        MeterName timerName = execution.getTimerName(namingStrategy, query);
+        if (timerName == null) {
+            return null;
+        }
+        return MeterName.of(counter ? timerName.getName() + ".count" : timerName.getName(),
+                timerName.getTags().and("outcome", outcome.getTag()));
+    }
+
+    /**
+     * @return true when this meter is a counter, false for timers and summaries
+     */
+    boolean isCounter() {
+        return counter;
+    }
+
+    /**
+     * @param execution Statement execution
+     * @param outcome Execution outcome
+     * @return Timer of executions with this outcome, named after the naming strategy timer with an <code>outcome</code> tag
+     */
+    static QueryMeter executeTimer(Execution execution, ExecutionOutcome outcome) {
+        return EXECUTE_TIMERS[execution.ordinal()][outcome.ordinal()];
+    }
+
+    /**
+     * @param execution Statement execution
+     * @param outcome Execution outcome
+     * @return Counter of executions with this outcome, named after the execution timer with a <code>.count</code> suffix
+     */
+    static QueryMeter executeCounter(Execution execution, ExecutionOutcome outcome) {
+        return EXECUTE_COUNTERS[execution.ordinal()][outcome.ordinal()];
+    }
+}
@@ -20,17 +20,36 @@ package com.github.gquintana.metrics.sql;
  * #L%
  */
 
-import com.github.gquintana.metrics.proxy.MethodInvocation;
+import com.github.gquintana.metrics.proxy.MethodDispatchTable;
 
+import java.lang.reflect.Method;
 import java.sql.ResultSet;
 
 /**
  * JDBC proxy handler for {@link ResultSet} and its subclasses.
+ * Rows are counted locally and added to the row meter by batches:
+ * when {@link #ROW_FLUSH_THRESHOLD} rows are pending, at the end of the result set and on close.
  * 
  * @param <T> Proxied ResultSet type
  */
 public class ResultSetProxyHandler<T extends ResultSet> extends JdbcProxyHandler<T> {
+    /**
+     * Maximum number of rows read before row meter is incremented, for long-lived cursors
+     */
+    public static final int ROW_FLUSH_THRESHOLD = 1024;
     private final Query query;
+    /**
+     * Rows read and not yet added to row meter
+     */
+    private int pendingRowCount;
+    /**
+     * Rows read since result set creation
+     */
+    private long rowCount;
+    /**
+     * Whether row count was recorded in row summary
+     */
+    private boolean rowCountRecorded;
 
     public ResultSetProxyHandler(T delegate, Class<T> delegateType, JdbcProxyFactory proxyFactory, Query query, TimeObservation lifeTimerContext) {
         super(delegate, delegateType, proxyFactory, lifeTimerContext);
@@ -38,33 +57,68 @@ public class ResultSetProxyHandler<T extends ResultSet> extends JdbcProxyHandler
         this.query = query;
     }
 
-    private static final InvocationFilter THIS_INVOCATION_FILTER = new MethodNamesInvocationFilter("isWrapperFor", "unwrap", "close");
+    private static final int NEXT = 4;
+    private static final MethodDispatchTable DISPATCH_TABLE = wrapperDispatchTableBuilder()
+            .withAction(NEXT, "next")
+            .build();
 
     @Override
-    protected Object invoke(MethodInvocation<T> delegatingMethodInvocation) throws Throwable {
-        final String methodName = delegatingMethodInvocation.getMethodName();
-        Object result;
-        if (methodName.equals("isWrapperFor")) {
-            result = isWrapperFor(delegatingMethodInvocation);
-        } else if (methodName.equals("unwrap")) {
-            result = unwrap(delegatingMethodInvocation);
-        } else if (methodName.equals("close")) {
-            result = close(delegatingMethodInvocation);
-        } else if (methodName.equals("next")) {
-            result = next(delegatingMethodInvocation);
+    protected Object intercept(Object proxy, Method method, Object[] args) throws Throwable {
+        MethodDispatchTable.Entry entry = DISPATCH_TABLE.getEntry(method);
+        switch (entry.getAction()) {
+            case IS_WRAPPER_FOR:
+                return isWrapperFor(entry, args);
+            case UNWRAP:
+                return unwrap(args);
+            case CLOSE:
+                return close(entry, args);
+            case NEXT:
+                return next(entry, args);
+            default:
+                return proceed(entry, args);
+        }
+    }
+
+    private Object next(MethodDispatchTable.Entry entry, Object[] args) throws Throwable {
+        Object result = proceed(entry, args);
+        if (Boolean.TRUE.equals(result)) {
+            rowCount++;
+            if (++pendingRowCount >= ROW_FLUSH_THRESHOLD) {
+                flushRowCount();
+            }
         } else {
-            result = delegatingMethodInvocation.proceed();
+            recordRowCount();
         }
         return result;
     }
 
-    private Object next(MethodInvocation<T> delegatingMethodInvocation) throws Throwable {
-        getTimerStarter().markResultSetRowMeter(query);
-        return delegatingMethodInvocation.proceed();
+    @Override
+    protected Object close(MethodDispatchTable.Entry entry, Object[] args) throws Throwable {
+        recordRowCount();
+        return super.close(entry, args);
+    }
+
+    private void flushRowCount() {
+        if (pendingRowCount > 0) {
+            getTimerStarter().markResultSetRowMeter(query, pendingRowCount);
+            pendingRowCount = 0;
+        }
+    }
+
+    private void recordRowCount() {
+        flushRowCount();
+        if (!rowCountRecorded) {
+            getTimerStarter().recordResultSetRowSummary(query, rowCount);
+            rowCountRecorded = true;
+        }
+    }
+
+    public Query getQuery() {
+        return query;
     }
 
     @Override
     public InvocationFilter getInvocationFilter() {
-        return THIS_INVOCATION_FILTER;
+        return DISPATCH_TABLE;
     }
 }
@@ -0,0 +1,131 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Locale;
+
+/**
+ * Fraction of statement executions which are timed, for each statement type.
+ * Executions are still counted exactly: when a rate is below 1, an execution counter
+ * named after the execution timer with a <code>.count</code> suffix is maintained.
+ * Immutable.
+ */
+public final class SamplingRates {
+    /**
+     * Every execution is timed
+     */
+    public static final SamplingRates NONE = new SamplingRates(1.0D, 1.0D, 1.0D);
+    private final double statementRate;
+    private final double preparedStatementRate;
+    private final double callableStatementRate;
+
+    private SamplingRates(double statementRate, double preparedStatementRate, double callableStatementRate) {
+        this.statementRate = checkRate(statementRate);
+        this.preparedStatementRate = checkRate(preparedStatementRate);
+        this.callableStatementRate = checkRate(callableStatementRate);
+    }
+
+    private static double checkRate(double rate) {
+        if (!(rate >= 0.0D && rate <= 1.0D)) {
+            throw new IllegalArgumentException("Invalid sampling rate " + rate);
+        }
+        return rate;
+    }
+
+    /**
+     * @param rate Sampling rate for all statement types, between 0 and 1
+     * @return Sampling rates
+     */
+    public static SamplingRates of(double rate) {
+        return new SamplingRates(rate, rate, rate);
+    }
+
+    /**
+     * Parse sampling rates: comma separated list of <code>[type:]rate</code>.
+     * A rate without type applies to all statement types,
+     * types are <code>statement</code>, <code>prepared_statement</code> and <code>callable_statement</code>.
+     * Example: <code>0.1,callable_statement:1</code>
+     *
+     * @param value Sampling rates
+     * @return Sampling rates
+     */
+    public static SamplingRates parse(String value) {
+        SamplingRates samplingRates = NONE;
+        for (String part : value.split(",")) {
+            part = part.trim();
+            if (part.isEmpty()) {
+                continue;
+            }
+            int separator = part.indexOf(':');
+            double rate = Double.parseDouble(part.substring(separator + 1).trim());
+            if (separator < 0) {
+                samplingRates = of(rate);
+                continue;
+            }
+            String type = part.substring(0, separator).trim().toLowerCase(Locale.ROOT);
+            switch (type) {
+                case "statement":
+                    samplingRates = samplingRates.withStatementRate(rate);
+                    break;
+                case "prepared_statement":
+                    samplingRates = samplingRates.withPreparedStatementRate(rate);
+                    break;
+                case "callable_statement":
+                    samplingRates = samplingRates.withCallableStatementRate(rate);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Invalid statement type " + type);
+            }
+        }
+        return samplingRates;
+    }
+
+    public SamplingRates withStatementRate(double rate) {
+        return new SamplingRates(rate, preparedStatementRate, callableStatementRate);
+    }
+
+    public SamplingRates withPreparedStatementRate(double rate) {
+        return new SamplingRates(statementRate, rate, callableStatementRate);
+    }
+
+    public SamplingRates withCallableStatementRate(double rate) {
+        return new SamplingRates(statementRate, preparedStatementRate, rate);
+    }
+
+    public double getStatementRate() {
+        return statementRate;
+    }
+
+    public double getPreparedStatementRate() {
+        return preparedStatementRate;
+    }
+
+    public double getCallableStatementRate() {
+        return callableStatementRate;
+    }
+
+    @Override
+    public String toString() {
+        return "statement:" + statementRate
+                + ",prepared_statement:" + preparedStatementRate
+                + ",callable_statement:" + callableStatementRate;
+    }
+}
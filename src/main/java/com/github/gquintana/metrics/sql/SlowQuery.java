@@ -0,0 +1,75 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Statement execution which exceeded the slow query threshold. Immutable.
+ */
+public final class SlowQuery {
+    private final String sql;
+    private final String sqlId;
+    private final long elapsedNanos;
+    private final String threadName;
+    private final long timestamp;
+
+    /**
+     * @param sql SQL query
+     * @param sqlId SQL Id
+     * @param elapsedNanos Execution duration in nanoseconds
+     * @param threadName Name of the executing thread
+     * @param timestamp Execution end, in milliseconds since epoch
+     */
+    @ConstructorProperties({"sql", "sqlId", "elapsedNanos", "threadName", "timestamp"})
+    public SlowQuery(String sql, String sqlId, long elapsedNanos, String threadName, long timestamp) {
+        this.sql = sql;
+        this.sqlId = sqlId;
+        this.elapsedNanos = elapsedNanos;
+        this.threadName = threadName;
+        this.timestamp = timestamp;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public String getSqlId() {
+        return sqlId;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "Slow query " + sqlId + " took " + elapsedNanos / 1000000L + " ms on thread " + threadName + ": " + sql;
+    }
+}
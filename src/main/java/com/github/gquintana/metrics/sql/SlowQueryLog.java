@@ -0,0 +1,239 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Captures statement executions exceeding a threshold.
+ * Executing threads never block: captures are written into a bounded lock-free ring buffer,
+ * the oldest ones are overwritten when it is full.
+ * A background thread drains the ring buffer to {@link SlowQueryListener}s.
+ */
+public class SlowQueryLog implements SlowQueryLogMXBean, Closeable {
+    public static final int DEFAULT_CAPACITY = 256;
+    private static final long DRAIN_INTERVAL_MILLIS = 1000L;
+    private static final Logger LOGGER = Logger.getLogger(SlowQueryLog.class.getName());
+    private volatile long thresholdNanos;
+    private final int mask;
+    private final AtomicReferenceArray<Entry> ring;
+    /**
+     * Sequence of the next capture
+     */
+    private final AtomicLong head = new AtomicLong();
+    /**
+     * Sequence of the next capture to drain, guarded by this
+     */
+    private long tail;
+    private final AtomicLong dropCount = new AtomicLong();
+    private final List<SlowQueryListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Thread drainThread;
+
+    /**
+     * Ring buffer slot
+     */
+    private static final class Entry {
+        private final long sequence;
+        private final SlowQuery slowQuery;
+
+        private Entry(long sequence, SlowQuery slowQuery) {
+            this.sequence = sequence;
+            this.slowQuery = slowQuery;
+        }
+    }
+
+    /**
+     * Constructor with default capacity
+     *
+     * @param threshold Minimum duration of captured executions
+     * @param unit Threshold unit
+     */
+    public SlowQueryLog(long threshold, TimeUnit unit) {
+        this(threshold, unit, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Main constructor
+     *
+     * @param threshold Minimum duration of captured executions
+     * @param unit Threshold unit
+     * @param capacity Ring buffer size, rounded up to a power of two
+     */
+    public SlowQueryLog(long threshold, TimeUnit unit, int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.thresholdNanos = unit.toNanos(threshold);
+        this.mask = size - 1;
+        this.ring = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * @param listener Listener receiving drained slow queries
+     * @return Current slow query log
+     */
+    public SlowQueryLog addListener(SlowQueryListener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Start background thread draining slow queries to listeners
+     *
+     * @return Current slow query log
+     */
+    public synchronized SlowQueryLog start() {
+        if (drainThread == null) {
+            Thread thread = new Thread(this::drainLoop, "metrics-sql-slow-query-log");
+            thread.setDaemon(true);
+            drainThread = thread;
+            thread.start();
+        }
+        return this;
+    }
+
+    private void drainLoop() {
+        while (drainThread == Thread.currentThread()) {
+            drain();
+            try {
+                Thread.sleep(DRAIN_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stop background thread and drain remaining slow queries
+     */
+    @Override
+    public void close() {
+        Thread thread;
+        synchronized (this) {
+            thread = drainThread;
+            drainThread = null;
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+        drain();
+    }
+
+    /**
+     * Capture execution when it exceeds threshold
+     *
+     * @param query Executed query
+     * @param elapsedNanos Execution duration
+     */
+    void offer(Query query, long elapsedNanos) {
+        if (elapsedNanos < thresholdNanos) {
+            return;
+        }
+        SlowQuery slowQuery = new SlowQuery(query.getSql(), query.getSqlId(), elapsedNanos,
+                Thread.currentThread().getName(), System.currentTimeMillis());
+        long sequence = head.getAndIncrement();
+        ring.set((int) sequence & mask, new Entry(sequence, slowQuery));
+    }
+
+    /**
+     * Send captured slow queries to listeners
+     *
+     * @return Number of drained slow queries
+     */
+    public synchronized int drain() {
+        long headSequence = head.get();
+        long sequence = Math.max(tail, headSequence - ring.length());
+        dropCount.addAndGet(sequence - tail);
+        int drained = 0;
+        for (; sequence < headSequence; sequence++) {
+            Entry entry = ring.get((int) sequence & mask);
+            if (entry == null || entry.sequence < sequence) {
+                // Claimed but not written yet
+                break;
+            }
+            if (entry.sequence == sequence) {
+                notifyListeners(entry.slowQuery);
+                drained++;
+            } else {
+                dropCount.incrementAndGet();
+            }
+        }
+        tail = sequence;
+        return drained;
+    }
+
+    private void notifyListeners(SlowQuery slowQuery) {
+        for (SlowQueryListener listener : listeners) {
+            try {
+                listener.onSlowQuery(slowQuery);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Slow query listener failed", e);
+            }
+        }
+    }
+
+    @Override
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    @Override
+    public void setThresholdMillis(long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    @Override
+    public List<SlowQuery> getSlowQueries() {
+        long headSequence = head.get();
+        List<SlowQuery> slowQueries = new ArrayList<>();
+        for (long sequence = Math.max(0L, headSequence - ring.length()); sequence < headSequence; sequence++) {
+            Entry entry = ring.get((int) sequence & mask);
+            if (entry != null && entry.sequence == sequence) {
+                slowQueries.add(entry.slowQuery);
+            }
+        }
+        return Collections.unmodifiableList(slowQueries);
+    }
+
+    @Override
+    public long getCaptureCount() {
+        return head.get();
+    }
+
+    @Override
+    public long getDropCount() {
+        return dropCount.get();
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.List;
+
+/**
+ * JMX interface of {@link SlowQueryLog}
+ */
+public interface SlowQueryLogMXBean {
+    /**
+     * @return Slow query threshold in milliseconds
+     */
+    long getThresholdMillis();
+
+    /**
+     * @param thresholdMillis Slow query threshold in milliseconds
+     */
+    void setThresholdMillis(long thresholdMillis);
+
+    /**
+     * @return Slow queries still in the ring buffer, oldest first
+     */
+    List<SlowQuery> getSlowQueries();
+
+    /**
+     * @return Number of captured slow queries
+     */
+    long getCaptureCount();
+
+    /**
+     * @return Number of slow queries overwritten before being drained
+     */
+    long getDropCount();
+}
@@ -21,7 +21,7 @@ package com.github.gquintana.metrics.sql;
  */
 
 
-import com.github.gquintana.metrics.proxy.MethodInvocation;
+import com.github.gquintana.metrics.proxy.MethodDispatchTable;
 
 import java.sql.Statement;
 
@@ -35,16 +35,22 @@ public class StatementProxyHandler extends AbstractStatementProxyHandler<Stateme
     }
 
     @Override
-    protected Object execute(MethodInvocation<Statement> methodInvocation) throws Throwable {
+    protected Object execute(MethodDispatchTable.Entry entry, Object[] args) throws Throwable {
         Object result;
-        if (methodInvocation.getArgCount() > 0) {
-            Query query = new Query(methodInvocation.getArgAt(0, String.class));
+        if (args != null && args.length > 0) {
+            Query query = new Query((String) args[0]);
             TimeObservation timerContext = getTimerStarter().startStatementExecuteTimer(query);
-            result = methodInvocation.proceed();
-            stopTimer(timerContext);
+            try {
+                result = proceed(entry, args);
+            } catch (Throwable throwable) {
+                getTimerStarter().markExecuteFailure(timerContext, throwable);
+                throw throwable;
+            } finally {
+                stopTimer(timerContext);
+            }
             result = wrapResultSet(query, result);
         } else {
-            result = methodInvocation.proceed();
+            result = proceed(entry, args);
         }
         return result;
     }
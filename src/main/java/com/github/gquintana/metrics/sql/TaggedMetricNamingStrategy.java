@@ -0,0 +1,170 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.backend.MeterName;
+
+import java.sql.*;
+
+/**
+ * Strategy used to tell what should be timed and what should be the name and tags of the meter.
+ * Dimensional metric backends can aggregate meters sharing the same name, whatever the SQL query.
+ * Flat names from {@link MetricNamingStrategy} are the meter names without tags.
+ * Meter names and tags are resolved once per SQL query, and then reused.
+ */
+public interface TaggedMetricNamingStrategy extends MetricNamingStrategy {
+    /**
+     * Get timer name and tags for {@link Connection} retrieval
+     * @return Timer name or null
+     */
+    MeterName getTaggedConnectionGetTimer();
+
+    /**
+     * Get timer name and tags for {@link Connection} life
+     * @return Timer name or null
+     */
+    MeterName getTaggedConnectionLifeTimer();
+
+    /**
+     * Get timer name and tags for {@link Statement} life
+     * @return Timer name or null
+     */
+    MeterName getTaggedStatementLifeTimer();
+
+    /**
+     * Get timer name and tags for {@link Statement} execution
+     * @param sql SQL Query
+     * @param sqlId SQL Id generated from query or null
+     * @return Timer name or null
+     */
+    MeterName getTaggedStatementExecuteTimer(String sql, String sqlId);
+
+    /**
+     * Get timer name and tags for {@link PreparedStatement} life
+     * @param sql SQL Query
+     * @param sqlId SQL Id generated from query or null
+     * @return Timer name or null
+     */
+    MeterName getTaggedPreparedStatementLifeTimer(String sql, String sqlId);
+
+    /**
+     * Get timer name and tags for {@link PreparedStatement} execution
+     * @param sql SQL Query
+     * @param sqlId SQL Id generated from query or null
+     * @return Timer name or null
+     */
+    MeterName getTaggedPreparedStatementExecuteTimer(String sql, String sqlId);
+
+    /**
+     * Get timer name and tags for {@link CallableStatement} life
+     * @param sql SQL Query
+     * @param sqlId SQL Id generated from query or null
+     * @return Timer name or null
+     */
+    MeterName getTaggedCallableStatementLifeTimer(String sql, String sqlId);
+
+    /**
+     * Get timer name and tags for {@link CallableStatement} execution
+     * @param sql SQL Query
+     * @param sqlId SQL Id generated from query or null
+     * @return Timer name or null
+     */
+    MeterName getTaggedCallableStatementExecuteTimer(String sql, String sqlId);
+
+    /**
+     * Get timer name and tags for {@link ResultSet} life
+     * @param sql SQL Query
+     * @param sqlId SQL Id generated from query or null
+     * @return Timer name or null
+     */
+    MeterName getTaggedResultSetLifeTimer(String sql, String sqlId);
+
+    /**
+     * Get counter name and tags for {@link ResultSet} iteration
+     * @param sql SQL Query
+     * @param sqlId SQL Id generated from query or null
+     * @return Counter name or null
+     */
+    MeterName getTaggedResultSetRowMeter(String sql, String sqlId);
+
+    /**
+     * Get distribution summary name and tags for the number of rows read from each {@link ResultSet}
+     * @param sql SQL Query
+     * @param sqlId SQL Id generated from query or null
+     * @return Distribution summary name or null
+     */
+    MeterName getTaggedResultSetRowSummary(String sql, String sqlId);
+
+    @Override
+    default String getConnectionGetTimer() {
+        return MeterName.nameOf(getTaggedConnectionGetTimer());
+    }
+
+    @Override
+    default String getConnectionLifeTimer() {
+        return MeterName.nameOf(getTaggedConnectionLifeTimer());
+    }
+
+    @Override
+    default String getStatementLifeTimer() {
+        return MeterName.nameOf(getTaggedStatementLifeTimer());
+    }
+
+    @Override
+    default String getStatementExecuteTimer(String sql, String sqlId) {
+        return MeterName.nameOf(getTaggedStatementExecuteTimer(sql, sqlId));
+    }
+
+    @Override
+    default String getPreparedStatementLifeTimer(String sql, String sqlId) {
+        return MeterName.nameOf(getTaggedPreparedStatementLifeTimer(sql, sqlId));
+    }
+
+    @Override
+    default String getPreparedStatementExecuteTimer(String sql, String sqlId) {
+        return MeterName.nameOf(getTaggedPreparedStatementExecuteTimer(sql, sqlId));
+    }
+
+    @Override
+    default String getCallableStatementLifeTimer(String sql, String sqlId) {
+        return MeterName.nameOf(getTaggedCallableStatementLifeTimer(sql, sqlId));
+    }
+
+    @Override
+    default String getCallableStatementExecuteTimer(String sql, String sqlId) {
+        return MeterName.nameOf(getTaggedCallableStatementExecuteTimer(sql, sqlId));
+    }
+
+    @Override
+    default String getResultSetLifeTimer(String sql, String sqlId) {
+        return MeterName.nameOf(getTaggedResultSetLifeTimer(sql, sqlId));
+    }
+
+    @Override
+    default String getResultSetRowMeter(String sql, String sqlId) {
+        return MeterName.nameOf(getTaggedResultSetRowMeter(sql, sqlId));
+    }
+
+    @Override
+    default String getResultSetRowSummary(String sql, String sqlId) {
+        return MeterName.nameOf(getTaggedResultSetRowSummary(sql, sqlId));
+    }
+}
@@ -1,9 +1,9 @@
 package com.github.gquintana.metrics.sql;
 
-import io.micrometer.core.instrument.Timer;
+import com.github.gquintana.metrics.backend.MicrometerMetricsBackend;
+import com.github.gquintana.metrics.backend.Timer;
 
 import java.io.Closeable;
-import java.util.concurrent.TimeUnit;
 
 public class TimeObservation implements Closeable {
 
@@ -15,8 +15,23 @@ public class TimeObservation implements Closeable {
         this.startTime = startTime;
     }
 
+    public TimeObservation(io.micrometer.core.instrument.Timer timer, long startTime) {
+        this(MicrometerMetricsBackend.wrap(timer), startTime);
+    }
+
     @Override
     public void close() {
-        timer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        record(System.nanoTime());
+    }
+
+    long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @param endTime Time when observation ended
+     */
+    void record(long endTime) {
+        timer.record(endTime - startTime);
     }
 }
@@ -0,0 +1,98 @@
+package com.github.gquintana.metrics.sql.wrapper;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.sql.JdbcProxyFactory;
+import com.github.gquintana.metrics.sql.JdbcProxyHandler;
+import com.github.gquintana.metrics.sql.MetricHelper;
+import com.github.gquintana.metrics.sql.Query;
+import com.github.gquintana.metrics.sql.TimeObservation;
+
+import java.sql.ResultSet;
+
+/**
+ * Base class of generated JDBC wrappers.
+ * Intercepted methods call the delegate and the {@link MetricHelper} directly,
+ * they mirror the behaviour of the corresponding JDBC proxy handler.
+ * Other methods directly call the delegate.
+ *
+ * @param <T> Wrapped JDBC interface
+ */
+public abstract class JdbcWrapper<T> {
+    /**
+     * Wrapped JDBC object
+     */
+    protected final T delegate;
+    /**
+     * Parent factory, used to wrap created JDBC objects
+     */
+    protected final JdbcProxyFactory proxyFactory;
+    /**
+     * Helper used to start timers and increment counters
+     */
+    protected final MetricHelper metricHelper;
+    /**
+     * Timer measuring this wrapper lifetime, may be null
+     */
+    protected final TimeObservation lifeTimerContext;
+
+    protected JdbcWrapper(JdbcProxyHandler<T> handler) {
+        this.delegate = handler.getDelegate();
+        this.proxyFactory = handler.getProxyFactory();
+        this.metricHelper = proxyFactory.getMetricHelper();
+        this.lifeTimerContext = handler.getLifeTimerContext();
+    }
+
+    protected static void stopTimer(TimeObservation timerContext) {
+        if (timerContext != null) {
+            timerContext.close();
+        }
+    }
+
+    /**
+     * Wrap the result set returned by a statement execution
+     *
+     * @param query Executed query
+     * @param resultSet Result set, may be null
+     * @return Wrapped result set
+     */
+    protected final ResultSet wrapResultSet(Query query, ResultSet resultSet) {
+        if (resultSet == null) {
+            return null;
+        }
+        return proxyFactory.wrapResultSet(resultSet, query, metricHelper.startResultSetLifeTimer(query));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return delegate.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
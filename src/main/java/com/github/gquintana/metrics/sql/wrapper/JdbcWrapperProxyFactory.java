@@ -0,0 +1,112 @@
+package com.github.gquintana.metrics.sql.wrapper;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.proxy.CachingProxyFactory;
+import com.github.gquintana.metrics.proxy.ProxyClass;
+import com.github.gquintana.metrics.proxy.ProxyFactory;
+import com.github.gquintana.metrics.proxy.ProxyHandler;
+import com.github.gquintana.metrics.sql.CallableStatementProxyHandler;
+import com.github.gquintana.metrics.sql.ConnectionProxyHandler;
+import com.github.gquintana.metrics.sql.DataSourceProxyHandler;
+import com.github.gquintana.metrics.sql.PreparedStatementProxyHandler;
+import com.github.gquintana.metrics.sql.ResultSetProxyHandler;
+import com.github.gquintana.metrics.sql.StatementProxyHandler;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * {@link ProxyFactory} using JDBC wrappers generated at build time: no proxy class is generated at runtime,
+ * all methods directly call the wrapped JDBC object, intercepted methods also record metrics
+ * without going through the proxy handler nor the method invoker.
+ * Wrappers are only available for the JDBC proxy handlers of this library,
+ * other proxies (row sets, custom proxy handlers...) are created by a fallback proxy factory.
+ */
+public class JdbcWrapperProxyFactory implements ProxyFactory {
+    private final ProxyFactory fallbackProxyFactory;
+
+    /**
+     * Constructor using a {@link CachingProxyFactory} as fallback
+     */
+    public JdbcWrapperProxyFactory() {
+        this(new CachingProxyFactory());
+    }
+
+    /**
+     * Main constructor
+     *
+     * @param fallbackProxyFactory Proxy factory used when no wrapper is available
+     */
+    public JdbcWrapperProxyFactory(ProxyFactory fallbackProxyFactory) {
+        this.fallbackProxyFactory = fallbackProxyFactory;
+    }
+
+    @Override
+    public <T> T newProxy(ProxyHandler<T> proxyHandler, ProxyClass proxyClass) {
+        Object wrapper = newWrapper(proxyHandler, proxyClass);
+        if (wrapper == null) {
+            return fallbackProxyFactory.newProxy(proxyHandler, proxyClass);
+        }
+        // Wrapper implements the single proxied interface
+        @SuppressWarnings("unchecked")
+        T proxy = (T) wrapper;
+        return proxy;
+    }
+
+    /**
+     * Create wrapper when proxy handler and proxied interface match a generated wrapper
+     *
+     * @return Wrapper or null
+     */
+    private static Object newWrapper(ProxyHandler<?> proxyHandler, ProxyClass proxyClass) {
+        final Class<?>[] interfaces = proxyClass.getInterfaces();
+        if (interfaces.length != 1) {
+            return null;
+        }
+        final Class<?> proxyHandlerClass = proxyHandler.getClass();
+        final Class<?> iface = interfaces[0];
+        Object wrapper;
+        if (proxyHandlerClass == ResultSetProxyHandler.class && iface == ResultSet.class) {
+            // Proxied interface is ResultSet
+            @SuppressWarnings("unchecked")
+            ResultSetProxyHandler<ResultSet> resultSetProxyHandler = (ResultSetProxyHandler<ResultSet>) proxyHandler;
+            wrapper = new MetricsResultSet(resultSetProxyHandler);
+        } else if (proxyHandlerClass == PreparedStatementProxyHandler.class && iface == PreparedStatement.class) {
+            wrapper = new MetricsPreparedStatement((PreparedStatementProxyHandler) proxyHandler);
+        } else if (proxyHandlerClass == StatementProxyHandler.class && iface == Statement.class) {
+            wrapper = new MetricsStatement((StatementProxyHandler) proxyHandler);
+        } else if (proxyHandlerClass == CallableStatementProxyHandler.class && iface == CallableStatement.class) {
+            wrapper = new MetricsCallableStatement((CallableStatementProxyHandler) proxyHandler);
+        } else if (proxyHandlerClass == ConnectionProxyHandler.class && iface == Connection.class) {
+            wrapper = new MetricsConnection((ConnectionProxyHandler) proxyHandler);
+        } else if (proxyHandlerClass == DataSourceProxyHandler.class && iface == DataSource.class) {
+            wrapper = new MetricsDataSource((DataSourceProxyHandler) proxyHandler);
+        } else {
+            wrapper = null;
+        }
+        return wrapper;
+    }
+}
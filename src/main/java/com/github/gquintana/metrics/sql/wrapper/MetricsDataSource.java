@@ -0,0 +1,90 @@
+package com.github.gquintana.metrics.sql.wrapper;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.sql.DataSourceProxyHandler;
+import com.github.gquintana.metrics.sql.TimeObservation;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * {@link DataSource} wrapper generated by {@code JdbcWrapperGenerator}, do not edit.
+ */
+public class MetricsDataSource extends JdbcWrapper<DataSource> implements DataSource {
+    public MetricsDataSource(DataSourceProxyHandler handler) {
+        super(handler);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        TimeObservation getTimerContext = metricHelper.startConnectionGetTimer();
+        Connection connection = delegate.getConnection();
+        stopTimer(getTimerContext);
+        return proxyFactory.wrapConnection(connection);
+    }
+
+    @Override
+    public Connection getConnection(String arg0, String arg1) throws SQLException {
+        TimeObservation getTimerContext = metricHelper.startConnectionGetTimer();
+        Connection connection = delegate.getConnection(arg0, arg1);
+        stopTimer(getTimerContext);
+        return proxyFactory.wrapConnection(connection);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> arg0) throws SQLException {
+        return delegate.isWrapperFor(arg0);
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter arg0) throws SQLException {
+        delegate.setLogWriter(arg0);
+    }
+
+    @Override
+    public void setLoginTimeout(int arg0) throws SQLException {
+        delegate.setLoginTimeout(arg0);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> arg0) throws SQLException {
+        return delegate.unwrap(arg0);
+    }
+}
@@ -0,0 +1,744 @@
+package com.github.gquintana.metrics.sql.wrapper;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.sql.PreparedStatementProxyHandler;
+import com.github.gquintana.metrics.sql.Query;
+import com.github.gquintana.metrics.sql.TimeObservation;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLType;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+
+/**
+ * {@link PreparedStatement} wrapper generated by {@code JdbcWrapperGenerator}, do not edit.
+ */
+public class MetricsPreparedStatement extends JdbcWrapper<PreparedStatement> implements PreparedStatement {
+    private final Query query;
+
+    public MetricsPreparedStatement(PreparedStatementProxyHandler handler) {
+        super(handler);
+        this.query = handler.getQuery();
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        delegate.addBatch();
+    }
+
+    @Override
+    public void addBatch(String arg0) throws SQLException {
+        delegate.addBatch(arg0);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        delegate.cancel();
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        delegate.clearBatch();
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        delegate.clearParameters();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        delegate.clearWarnings();
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        delegate.closeOnCompletion();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        stopTimer(lifeTimerContext);
+        delegate.close();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        return delegate.executeBatch();
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        return delegate.executeLargeBatch();
+    }
+
+    @Override
+    public long executeLargeUpdate() throws SQLException {
+        return delegate.executeLargeUpdate();
+    }
+
+    @Override
+    public long executeLargeUpdate(String arg0, int[] arg1) throws SQLException {
+        return delegate.executeLargeUpdate(arg0, arg1);
+    }
+
+    @Override
+    public long executeLargeUpdate(String arg0, String[] arg1) throws SQLException {
+        return delegate.executeLargeUpdate(arg0, arg1);
+    }
+
+    @Override
+    public long executeLargeUpdate(String arg0, int arg1) throws SQLException {
+        return delegate.executeLargeUpdate(arg0, arg1);
+    }
+
+    @Override
+    public long executeLargeUpdate(String arg0) throws SQLException {
+        return delegate.executeLargeUpdate(arg0);
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        TimeObservation timerContext = metricHelper.startPreparedStatementExecuteTimer(query);
+        ResultSet result;
+        try {
+            result = delegate.executeQuery();
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return wrapResultSet(query, result);
+    }
+
+    @Override
+    public ResultSet executeQuery(String arg0) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startPreparedStatementExecuteTimer(currentQuery);
+        ResultSet result;
+        try {
+            result = delegate.executeQuery(arg0);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return wrapResultSet(currentQuery, result);
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        TimeObservation timerContext = metricHelper.startPreparedStatementExecuteTimer(query);
+        int result;
+        try {
+            result = delegate.executeUpdate();
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public int executeUpdate(String arg0, int[] arg1) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startPreparedStatementExecuteTimer(currentQuery);
+        int result;
+        try {
+            result = delegate.executeUpdate(arg0, arg1);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public int executeUpdate(String arg0, String[] arg1) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startPreparedStatementExecuteTimer(currentQuery);
+        int result;
+        try {
+            result = delegate.executeUpdate(arg0, arg1);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public int executeUpdate(String arg0, int arg1) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startPreparedStatementExecuteTimer(currentQuery);
+        int result;
+        try {
+            result = delegate.executeUpdate(arg0, arg1);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public int executeUpdate(String arg0) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startPreparedStatementExecuteTimer(currentQuery);
+        int result;
+        try {
+            result = delegate.executeUpdate(arg0);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        TimeObservation timerContext = metricHelper.startPreparedStatementExecuteTimer(query);
+        boolean result;
+        try {
+            result = delegate.execute();
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean execute(String arg0, int[] arg1) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startPreparedStatementExecuteTimer(currentQuery);
+        boolean result;
+        try {
+            result = delegate.execute(arg0, arg1);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean execute(String arg0, String[] arg1) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startPreparedStatementExecuteTimer(currentQuery);
+        boolean result;
+        try {
+            result = delegate.execute(arg0, arg1);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean execute(String arg0, int arg1) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startPreparedStatementExecuteTimer(currentQuery);
+        boolean result;
+        try {
+            result = delegate.execute(arg0, arg1);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean execute(String arg0) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startPreparedStatementExecuteTimer(currentQuery);
+        boolean result;
+        try {
+            result = delegate.execute(arg0);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return delegate.getConnection();
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return delegate.getFetchDirection();
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return delegate.getFetchSize();
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return delegate.getGeneratedKeys();
+    }
+
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        return delegate.getLargeMaxRows();
+    }
+
+    @Override
+    public long getLargeUpdateCount() throws SQLException {
+        return delegate.getLargeUpdateCount();
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return delegate.getMaxFieldSize();
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return delegate.getMaxRows();
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return delegate.getMetaData();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return delegate.getMoreResults();
+    }
+
+    @Override
+    public boolean getMoreResults(int arg0) throws SQLException {
+        return delegate.getMoreResults(arg0);
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        return delegate.getParameterMetaData();
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return delegate.getQueryTimeout();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return delegate.getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return delegate.getResultSetHoldability();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return delegate.getResultSetType();
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return delegate.getResultSet();
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return delegate.getUpdateCount();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return delegate.getWarnings();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        return delegate.isCloseOnCompletion();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return delegate.isClosed();
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return delegate.isPoolable();
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> arg0) throws SQLException {
+        return PreparedStatement.class.equals(arg0) || delegate.isWrapperFor(arg0);
+    }
+
+    @Override
+    public void setArray(int arg0, Array arg1) throws SQLException {
+        delegate.setArray(arg0, arg1);
+    }
+
+    @Override
+    public void setAsciiStream(int arg0, InputStream arg1, int arg2) throws SQLException {
+        delegate.setAsciiStream(arg0, arg1, arg2);
+    }
+
+    @Override
+    public void setAsciiStream(int arg0, InputStream arg1, long arg2) throws SQLException {
+        delegate.setAsciiStream(arg0, arg1, arg2);
+    }
+
+    @Override
+    public void setAsciiStream(int arg0, InputStream arg1) throws SQLException {
+        delegate.setAsciiStream(arg0, arg1);
+    }
+
+    @Override
+    public void setBigDecimal(int arg0, BigDecimal arg1) throws SQLException {
+        delegate.setBigDecimal(arg0, arg1);
+    }
+
+    @Override
+    public void setBinaryStream(int arg0, InputStream arg1, int arg2) throws SQLException {
+        delegate.setBinaryStream(arg0, arg1, arg2);
+    }
+
+    @Override
+    public void setBinaryStream(int arg0, InputStream arg1, long arg2) throws SQLException {
+        delegate.setBinaryStream(arg0, arg1, arg2);
+    }
+
+    @Override
+    public void setBinaryStream(int arg0, InputStream arg1) throws SQLException {
+        delegate.setBinaryStream(arg0, arg1);
+    }
+
+    @Override
+    public void setBlob(int arg0, InputStream arg1, long arg2) throws SQLException {
+        delegate.setBlob(arg0, arg1, arg2);
+    }
+
+    @Override
+    public void setBlob(int arg0, InputStream arg1) throws SQLException {
+        delegate.setBlob(arg0, arg1);
+    }
+
+    @Override
+    public void setBlob(int arg0, Blob arg1) throws SQLException {
+        delegate.setBlob(arg0, arg1);
+    }
+
+    @Override
+    public void setBoolean(int arg0, boolean arg1) throws SQLException {
+        delegate.setBoolean(arg0, arg1);
+    }
+
+    @Override
+    public void setByte(int arg0, byte arg1) throws SQLException {
+        delegate.setByte(arg0, arg1);
+    }
+
+    @Override
+    public void setBytes(int arg0, byte[] arg1) throws SQLException {
+        delegate.setBytes(arg0, arg1);
+    }
+
+    @Override
+    public void setCharacterStream(int arg0, Reader arg1, int arg2) throws SQLException {
+        delegate.setCharacterStream(arg0, arg1, arg2);
+    }
+
+    @Override
+    public void setCharacterStream(int arg0, Reader arg1, long arg2) throws SQLException {
+        delegate.setCharacterStream(arg0, arg1, arg2);
+    }
+
+    @Override
+    public void setCharacterStream(int arg0, Reader arg1) throws SQLException {
+        delegate.setCharacterStream(arg0, arg1);
+    }
+
+    @Override
+    public void setClob(int arg0, Reader arg1, long arg2) throws SQLException {
+        delegate.setClob(arg0, arg1, arg2);
+    }
+
+    @Override
+    public void setClob(int arg0, Reader arg1) throws SQLException {
+        delegate.setClob(arg0, arg1);
+    }
+
+    @Override
+    public void setClob(int arg0, Clob arg1) throws SQLException {
+        delegate.setClob(arg0, arg1);
+    }
+
+    @Override
+    public void setCursorName(String arg0) throws SQLException {
+        delegate.setCursorName(arg0);
+    }
+
+    @Override
+    public void setDate(int arg0, Date arg1, Calendar arg2) throws SQLException {
+        delegate.setDate(arg0, arg1, arg2);
+    }
+
+    @Override
+    public void setDate(int arg0, Date arg1) throws SQLException {
+        delegate.setDate(arg0, arg1);
+    }
+
+    @Override
+    public void setDouble(int arg0, double arg1) throws SQLException {
+        delegate.setDouble(arg0, arg1);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean arg0) throws SQLException {
+        delegate.setEscapeProcessing(arg0);
+    }
+
+    @Override
+    public void setFetchDirection(int arg0) throws SQLException {
+        delegate.setFetchDirection(arg0);
+    }
+
+    @Override
+    public void setFetchSize(int arg0) throws SQLException {
+        delegate.setFetchSize(arg0);
+    }
+
+    @Override
+    public void setFloat(int arg0, float arg1) throws SQLException {
+        delegate.setFloat(arg0, arg1);
+    }
+
+    @Override
+    public void setInt(int arg0, int arg1) throws SQLException {
+        delegate.setInt(arg0, arg1);
+    }
+
+    @Override
+    public void setLargeMaxRows(long arg0) throws SQLException {
+        delegate.setLargeMaxRows(arg0);
+    }
+
+    @Override
+    public void setLong(int arg0, long arg1) throws SQLException {
+        delegate.setLong(arg0, arg1);
+    }
+
+    @Override
+    public void setMaxFieldSize(int arg0) throws SQLException {
+        delegate.setMaxFieldSize(arg0);
+    }
+
+    @Override
+    public void setMaxRows(int arg0) throws SQLException {
+        delegate.setMaxRows(arg0);
+    }
+
+    @Override
+    public void setNCharacterStream(int arg0, Reader arg1, long arg2) throws SQLException {
+        delegate.setNCharacterStream(arg0, arg1, arg2);
+    }
+
+    @Override
+    public void setNCharacterStream(int arg0, Reader arg1) throws SQLException {
+        delegate.setNCharacterStream(arg0, arg1);
+    }
+
+    @Override
+    public void setNClob(int arg0, Reader arg1, long arg2) throws SQLException {
+        delegate.setNClob(arg0, arg1, arg2);
+    }
+
+    @Override
+    public void setNClob(int arg0, Reader arg1) throws SQLException {
+        delegate.setNClob(arg0, arg1);
+    }
+
+    @Override
+    public void setNClob(int arg0, NClob arg1) throws SQLException {
+        delegate.setNClob(arg0, arg1);
+    }
+
+    @Override
+    public void setNString(int arg0, String arg1) throws SQLException {
+        delegate.setNString(arg0, arg1);
+    }
+
+    @Override
+    public void setNull(int arg0, int arg1, String arg2) throws SQLException {
+        delegate.setNull(arg0, arg1, arg2);
+    }
+
+    @Override
+    public void setNull(int arg0, int arg1) throws SQLException {
+        delegate.setNull(arg0, arg1);
+    }
+
+    @Override
+    public void setObject(int arg0, Object arg1, int arg2, int arg3) throws SQLException {
+        delegate.setObject(arg0, arg1, arg2, arg3);
+    }
+
+    @Override
+    public void setObject(int arg0, Object arg1, int arg2) throws SQLException {
+        delegate.setObject(arg0, arg1, arg2);
+    }
+
+    @Override
+    public void setObject(int arg0, Object arg1, SQLType arg2, int arg3) throws SQLException {
+        delegate.setObject(arg0, arg1, arg2, arg3);
+    }
+
+    @Override
+    public void setObject(int arg0, Object arg1, SQLType arg2) throws SQLException {
+        delegate.setObject(arg0, arg1, arg2);
+    }
+
+    @Override
+    public void setObject(int arg0, Object arg1) throws SQLException {
+        delegate.setObject(arg0, arg1);
+    }
+
+    @Override
+    public void setPoolable(boolean arg0) throws SQLException {
+        delegate.setPoolable(arg0);
+    }
+
+    @Override
+    public void setQueryTimeout(int arg0) throws SQLException {
+        delegate.setQueryTimeout(arg0);
+    }
+
+    @Override
+    public void setRef(int arg0, Ref arg1) throws SQLException {
+        delegate.setRef(arg0, arg1);
+    }
+
+    @Override
+    public void setRowId(int arg0, RowId arg1) throws SQLException {
+        delegate.setRowId(arg0, arg1);
+    }
+
+    @Override
+    public void setSQLXML(int arg0, SQLXML arg1) throws SQLException {
+        delegate.setSQLXML(arg0, arg1);
+    }
+
+    @Override
+    public void setShort(int arg0, short arg1) throws SQLException {
+        delegate.setShort(arg0, arg1);
+    }
+
+    @Override
+    public void setString(int arg0, String arg1) throws SQLException {
+        delegate.setString(arg0, arg1);
+    }
+
+    @Override
+    public void setTime(int arg0, Time arg1, Calendar arg2) throws SQLException {
+        delegate.setTime(arg0, arg1, arg2);
+    }
+
+    @Override
+    public void setTime(int arg0, Time arg1) throws SQLException {
+        delegate.setTime(arg0, arg1);
+    }
+
+    @Override
+    public void setTimestamp(int arg0, Timestamp arg1, Calendar arg2) throws SQLException {
+        delegate.setTimestamp(arg0, arg1, arg2);
+    }
+
+    @Override
+    public void setTimestamp(int arg0, Timestamp arg1) throws SQLException {
+        delegate.setTimestamp(arg0, arg1);
+    }
+
+    @Override
+    public void setURL(int arg0, URL arg1) throws SQLException {
+        delegate.setURL(arg0, arg1);
+    }
+
+    @Deprecated
+    @Override
+    public void setUnicodeStream(int arg0, InputStream arg1, int arg2) throws SQLException {
+        delegate.setUnicodeStream(arg0, arg1, arg2);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> arg0) throws SQLException {
+        if (PreparedStatement.class.equals(arg0) && !delegate.isWrapperFor(arg0)) {
+            return arg0.cast(delegate);
+        }
+        return delegate.unwrap(arg0);
+    }
+}
@@ -0,0 +1,402 @@
+package com.github.gquintana.metrics.sql.wrapper;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.sql.Query;
+import com.github.gquintana.metrics.sql.StatementProxyHandler;
+import com.github.gquintana.metrics.sql.TimeObservation;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+/**
+ * {@link Statement} wrapper generated by {@code JdbcWrapperGenerator}, do not edit.
+ */
+public class MetricsStatement extends JdbcWrapper<Statement> implements Statement {
+    public MetricsStatement(StatementProxyHandler handler) {
+        super(handler);
+    }
+
+    @Override
+    public void addBatch(String arg0) throws SQLException {
+        delegate.addBatch(arg0);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        delegate.cancel();
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        delegate.clearBatch();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        delegate.clearWarnings();
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        delegate.closeOnCompletion();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        stopTimer(lifeTimerContext);
+        delegate.close();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        return delegate.executeBatch();
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        return delegate.executeLargeBatch();
+    }
+
+    @Override
+    public long executeLargeUpdate(String arg0, int[] arg1) throws SQLException {
+        return delegate.executeLargeUpdate(arg0, arg1);
+    }
+
+    @Override
+    public long executeLargeUpdate(String arg0, String[] arg1) throws SQLException {
+        return delegate.executeLargeUpdate(arg0, arg1);
+    }
+
+    @Override
+    public long executeLargeUpdate(String arg0, int arg1) throws SQLException {
+        return delegate.executeLargeUpdate(arg0, arg1);
+    }
+
+    @Override
+    public long executeLargeUpdate(String arg0) throws SQLException {
+        return delegate.executeLargeUpdate(arg0);
+    }
+
+    @Override
+    public ResultSet executeQuery(String arg0) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startStatementExecuteTimer(currentQuery);
+        ResultSet result;
+        try {
+            result = delegate.executeQuery(arg0);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return wrapResultSet(currentQuery, result);
+    }
+
+    @Override
+    public int executeUpdate(String arg0, int[] arg1) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startStatementExecuteTimer(currentQuery);
+        int result;
+        try {
+            result = delegate.executeUpdate(arg0, arg1);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public int executeUpdate(String arg0, String[] arg1) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startStatementExecuteTimer(currentQuery);
+        int result;
+        try {
+            result = delegate.executeUpdate(arg0, arg1);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public int executeUpdate(String arg0, int arg1) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startStatementExecuteTimer(currentQuery);
+        int result;
+        try {
+            result = delegate.executeUpdate(arg0, arg1);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public int executeUpdate(String arg0) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startStatementExecuteTimer(currentQuery);
+        int result;
+        try {
+            result = delegate.executeUpdate(arg0);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean execute(String arg0, int[] arg1) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startStatementExecuteTimer(currentQuery);
+        boolean result;
+        try {
+            result = delegate.execute(arg0, arg1);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean execute(String arg0, String[] arg1) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startStatementExecuteTimer(currentQuery);
+        boolean result;
+        try {
+            result = delegate.execute(arg0, arg1);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean execute(String arg0, int arg1) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startStatementExecuteTimer(currentQuery);
+        boolean result;
+        try {
+            result = delegate.execute(arg0, arg1);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean execute(String arg0) throws SQLException {
+        Query currentQuery = new Query(arg0);
+        TimeObservation timerContext = metricHelper.startStatementExecuteTimer(currentQuery);
+        boolean result;
+        try {
+            result = delegate.execute(arg0);
+        } catch (SQLException | RuntimeException | Error throwable) {
+            metricHelper.markExecuteFailure(timerContext, throwable);
+            throw throwable;
+        } finally {
+            stopTimer(timerContext);
+        }
+        return result;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return delegate.getConnection();
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return delegate.getFetchDirection();
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return delegate.getFetchSize();
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return delegate.getGeneratedKeys();
+    }
+
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        return delegate.getLargeMaxRows();
+    }
+
+    @Override
+    public long getLargeUpdateCount() throws SQLException {
+        return delegate.getLargeUpdateCount();
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return delegate.getMaxFieldSize();
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return delegate.getMaxRows();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return delegate.getMoreResults();
+    }
+
+    @Override
+    public boolean getMoreResults(int arg0) throws SQLException {
+        return delegate.getMoreResults(arg0);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return delegate.getQueryTimeout();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return delegate.getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return delegate.getResultSetHoldability();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return delegate.getResultSetType();
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return delegate.getResultSet();
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return delegate.getUpdateCount();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return delegate.getWarnings();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        return delegate.isCloseOnCompletion();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return delegate.isClosed();
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return delegate.isPoolable();
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> arg0) throws SQLException {
+        return Statement.class.equals(arg0) || delegate.isWrapperFor(arg0);
+    }
+
+    @Override
+    public void setCursorName(String arg0) throws SQLException {
+        delegate.setCursorName(arg0);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean arg0) throws SQLException {
+        delegate.setEscapeProcessing(arg0);
+    }
+
+    @Override
+    public void setFetchDirection(int arg0) throws SQLException {
+        delegate.setFetchDirection(arg0);
+    }
+
+    @Override
+    public void setFetchSize(int arg0) throws SQLException {
+        delegate.setFetchSize(arg0);
+    }
+
+    @Override
+    public void setLargeMaxRows(long arg0) throws SQLException {
+        delegate.setLargeMaxRows(arg0);
+    }
+
+    @Override
+    public void setMaxFieldSize(int arg0) throws SQLException {
+        delegate.setMaxFieldSize(arg0);
+    }
+
+    @Override
+    public void setMaxRows(int arg0) throws SQLException {
+        delegate.setMaxRows(arg0);
+    }
+
+    @Override
+    public void setPoolable(boolean arg0) throws SQLException {
+        delegate.setPoolable(arg0);
+    }
+
+    @Override
+    public void setQueryTimeout(int arg0) throws SQLException {
+        delegate.setQueryTimeout(arg0);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> arg0) throws SQLException {
+        if (Statement.class.equals(arg0) && !delegate.isWrapperFor(arg0)) {
+            return arg0.cast(delegate);
+        }
+        return delegate.unwrap(arg0);
+    }
+}
@@ -0,0 +1,201 @@
+package com.github.gquintana.metrics.util;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache evicting least recently used entries.
+ * Entries are spread over several segments, each one being a synchronized access ordered {@link LinkedHashMap},
+ * so that concurrent threads seldom contend on the same lock.
+ * Null keys and values are not supported.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class LruCache<K, V> {
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Constructor with default concurrency level
+     *
+     * @param maximumSize Maximum number of entries
+     */
+    public LruCache(int maximumSize) {
+        this(maximumSize, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Main constructor
+     *
+     * @param maximumSize Maximum number of entries
+     * @param concurrencyLevel Expected number of threads concurrently using the cache
+     */
+    public LruCache(int maximumSize, int concurrencyLevel) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Invalid maximum size " + maximumSize);
+        }
+        int segmentCount = 1;
+        while (segmentCount < concurrencyLevel && segmentCount * 2 <= maximumSize) {
+            segmentCount *= 2;
+        }
+        this.segments = newSegments(segmentCount);
+        this.segmentMask = segmentCount - 1;
+        // Segment sizes sum up to maximum size
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0));
+        }
+    }
+
+    private Segment<K, V> getSegment(Object key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & segmentMask];
+    }
+
+    /**
+     * Get cached value
+     *
+     * @param key Key
+     * @return Value or null if missing
+     */
+    public V get(K key) {
+        final Segment<K, V> segment = getSegment(key);
+        V value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+        if (value == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Put value in cache, the least recently used entry may be evicted
+     *
+     * @param key Key
+     * @param value Value
+     */
+    public void put(K key, V value) {
+        final Segment<K, V> segment = getSegment(key);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+    }
+
+    /**
+     * @return Number of entries
+     */
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return Number of evicted entries
+     */
+    public long getEvictionCount() {
+        long evictionCount = 0;
+        for (Segment<K, V> segment : segments) {
+            evictionCount += segment.evictionCount.sum();
+        }
+        return evictionCount;
+    }
+
+    /**
+     * @return Number of {@link #get(Object)} calls returning a value
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return Number of {@link #get(Object)} calls returning null
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Copy entries, without changing access order nor hit and miss counts
+     *
+     * @return Snapshot of cache entries
+     */
+    public Map<K, V> toMap() {
+        Map<K, V> map = new HashMap<>();
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                map.putAll(segment);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Remove all entries
+     */
+    @SuppressWarnings("unchecked")
+    private static <K, V> Segment<K, V>[] newSegments(int segmentCount) {
+        return (Segment<K, V>[]) new Segment<?, ?>[segmentCount];
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+        private final int maximumSize;
+        private final LongAdder evictionCount = new LongAdder();
+
+        private Segment(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            boolean evict = size() > maximumSize;
+            if (evict) {
+                evictionCount.increment();
+            }
+            return evict;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.gquintana.metrics.util;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 64-bit MurmurHash (MurmurHash64A variant), used to fingerprint SQL queries.
+ * Not a cryptographic hash.
+ */
+public final class MurmurHash {
+    private static final long M = 0xc6a4a7935bd1e995L;
+    private static final int R = 47;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private MurmurHash() {
+    }
+
+    /**
+     * Hash bytes
+     *
+     * @param data Bytes to hash
+     * @param seed Hash seed
+     * @return 64-bit hash
+     */
+    @SuppressWarnings("fallthrough")
+    public static long hash64(byte[] data, long seed) {
+        final int length = data.length;
+        long h = seed ^ (length * M);
+        final int blockEnd = length & ~7;
+        for (int i = 0; i < blockEnd; i += 8) {
+            long k = (data[i] & 0xffL)
+                    | (data[i + 1] & 0xffL) << 8
+                    | (data[i + 2] & 0xffL) << 16
+                    | (data[i + 3] & 0xffL) << 24
+                    | (data[i + 4] & 0xffL) << 32
+                    | (data[i + 5] & 0xffL) << 40
+                    | (data[i + 6] & 0xffL) << 48
+                    | (data[i + 7] & 0xffL) << 56;
+            k *= M;
+            k ^= k >>> R;
+            k *= M;
+            h ^= k;
+            h *= M;
+        }
+        // Murmur tail: each case falls through to mix the remaining bytes
+        switch (length - blockEnd) {
+            case 7:
+                h ^= (data[blockEnd + 6] & 0xffL) << 48;
+            case 6:
+                h ^= (data[blockEnd + 5] & 0xffL) << 40;
+            case 5:
+                h ^= (data[blockEnd + 4] & 0xffL) << 32;
+            case 4:
+                h ^= (data[blockEnd + 3] & 0xffL) << 24;
+            case 3:
+                h ^= (data[blockEnd + 2] & 0xffL) << 16;
+            case 2:
+                h ^= (data[blockEnd + 1] & 0xffL) << 8;
+            case 1:
+                h ^= data[blockEnd] & 0xffL;
+                h *= M;
+            default:
+        }
+        h ^= h >>> R;
+        h *= M;
+        h ^= h >>> R;
+        return h;
+    }
+
+    /**
+     * Hash string encoded in UTF-8, with 0 seed
+     *
+     * @param text String to hash
+     * @return 64-bit hash
+     */
+    public static long hash64(String text) {
+        return hash64(text.getBytes(StandardCharsets.UTF_8), 0L);
+    }
+
+    /**
+     * @param hash 64-bit hash
+     * @return Hash as a 16 chars hexadecimal string
+     */
+    public static String toHex(long hash) {
+        char[] chars = new char[16];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX_DIGITS[(int) (hash & 0xf)];
+            hash >>>= 4;
+        }
+        return new String(chars);
+    }
+}
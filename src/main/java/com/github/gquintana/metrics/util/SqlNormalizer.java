@@ -0,0 +1,247 @@
+package com.github.gquintana.metrics.util;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+/**
+ * Normalizes SQL queries in a single pass, so that queries differing only by literals share the same SQL Id:
+ * <ul>
+ *     <li>String, number literals and bind parameters are replaced by <code>?</code></li>
+ *     <li>IN lists of literals are collapsed: <code>in (1, 2, 3)</code> becomes <code>in (?)</code></li>
+ *     <li>Comments are removed, white spaces are collapsed</li>
+ *     <li>Keywords and identifiers are lower cased, quoted identifiers are kept as is</li>
+ *     <li>Long queries are truncated</li>
+ * </ul>
+ * Example: <code>SELECT * FROM users WHERE id = 42 AND status IN ('A','B')</code>
+ * becomes <code>select * from users where id = ? and status in (?)</code>.
+ * This class is thread-safe.
+ */
+public class SqlNormalizer {
+    /**
+     * Default maximum length of normalized queries
+     */
+    public static final int DEFAULT_MAX_LENGTH = 200;
+    private static final int PLACEHOLDER = 0;
+    private static final int COMMA = 1;
+    private static final int OPEN = 2;
+    private static final int CLOSE = 3;
+    private static final int IN = 4;
+    private static final int OTHER = 5;
+
+    private final int maxLength;
+
+    public SqlNormalizer() {
+        this(DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param maxLength Maximum length of normalized queries, longer queries are truncated
+     */
+    public SqlNormalizer(int maxLength) {
+        if (maxLength <= 0) {
+            throw new IllegalArgumentException("Invalid max length " + maxLength);
+        }
+        this.maxLength = maxLength;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Normalize SQL query
+     *
+     * @param sql SQL query
+     * @return Normalized SQL query
+     */
+    public String normalize(String sql) {
+        return normalize(sql, maxLength);
+    }
+
+    /**
+     * Normalize SQL query
+     *
+     * @param sql SQL query
+     * @param maxLength Maximum length of normalized query, overriding the one of this normalizer
+     * @return Normalized SQL query
+     */
+    public String normalize(String sql, int maxLength) {
+        final int length = sql.length();
+        final StringBuilder out = new StringBuilder(Math.min(length, maxLength) + 8);
+        boolean space = false;
+        int previousToken = OTHER;
+        // Position after the opening parenthesis of the current IN list, -1 when not in an IN list
+        int inListStart = -1;
+        int i = 0;
+        while (i < length && (out.length() < maxLength || inListStart >= 0)) {
+            final char c = sql.charAt(i);
+            final char next = i + 1 < length ? sql.charAt(i + 1) : 0;
+            if (Character.isWhitespace(c)) {
+                space = true;
+                i++;
+                continue;
+            }
+            if (c == '-' && next == '-') {
+                i = skipLineComment(sql, i + 2);
+                space = true;
+                continue;
+            }
+            if (c == '/' && next == '*') {
+                i = skipBlockComment(sql, i + 2);
+                space = true;
+                continue;
+            }
+            if (space && out.length() > 0) {
+                out.append(' ');
+            }
+            space = false;
+            int token;
+            if (c == '\'') {
+                i = skipQuoted(sql, i, '\'');
+                token = PLACEHOLDER;
+            } else if (c == '"' || c == '`') {
+                int end = skipQuoted(sql, i, c);
+                out.append(sql, i, end);
+                i = end;
+                token = OTHER;
+            } else if (isDigit(c) || (c == '.' && isDigit(next))) {
+                i = skipNumber(sql, i);
+                token = PLACEHOLDER;
+            } else if (c == '?') {
+                i++;
+                token = PLACEHOLDER;
+            } else if (c == '$' && isDigit(next)) {
+                // Positional parameter: $1
+                i = skipNumber(sql, i + 1);
+                token = PLACEHOLDER;
+            } else if (isIdentifierStart(c)) {
+                int end = skipIdentifier(sql, i);
+                if (end - i == 1 && end < length && sql.charAt(end) == '\'' && "nNeExXbB".indexOf(c) >= 0) {
+                    // Prefixed string literal: N'text', X'0F'
+                    i = skipQuoted(sql, end, '\'');
+                    token = PLACEHOLDER;
+                } else {
+                    token = end - i == 2 && sql.regionMatches(true, i, "in", 0, 2) ? IN : OTHER;
+                    for (; i < end; i++) {
+                        out.append(Character.toLowerCase(sql.charAt(i)));
+                    }
+                }
+            } else {
+                out.append(c);
+                i++;
+                token = c == ',' ? COMMA : c == '(' ? OPEN : c == ')' ? CLOSE : OTHER;
+            }
+            if (token == PLACEHOLDER) {
+                out.append('?');
+            }
+            // IN list collapsing
+            if (inListStart >= 0) {
+                if (token == CLOSE) {
+                    out.setLength(inListStart);
+                    out.append("?)");
+                    inListStart = -1;
+                } else if (token != PLACEHOLDER && token != COMMA) {
+                    inListStart = -1;
+                }
+            } else if (token == OPEN && previousToken == IN) {
+                inListStart = out.length();
+            }
+            previousToken = token;
+        }
+        if (out.length() > maxLength) {
+            out.setLength(maxLength);
+        }
+        if (out.length() > 0 && out.charAt(out.length() - 1) == ' ') {
+            out.setLength(out.length() - 1);
+        }
+        return out.toString();
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    private static int skipIdentifier(String sql, int i) {
+        final int length = sql.length();
+        while (i < length && isIdentifierPart(sql.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Skip number, including decimals, exponent and hexadecimal numbers: 12, 1.5e-3, 0x1F
+     */
+    private static int skipNumber(String sql, int i) {
+        final int length = sql.length();
+        char previous = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            boolean exponentSign = (c == '+' || c == '-') && (previous == 'e' || previous == 'E');
+            if (!Character.isLetterOrDigit(c) && c != '.' && !exponentSign) {
+                break;
+            }
+            previous = c;
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Skip quoted string or identifier, doubled quote is an escaped quote
+     *
+     * @return Position after closing quote
+     */
+    private static int skipQuoted(String sql, int i, char quote) {
+        final int length = sql.length();
+        i++;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == quote) {
+                if (i + 1 < length && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return length;
+    }
+
+    private static int skipLineComment(String sql, int i) {
+        int end = sql.indexOf('\n', i);
+        return end < 0 ? sql.length() : end + 1;
+    }
+
+    private static int skipBlockComment(String sql, int i) {
+        int end = sql.indexOf("*/", i);
+        return end < 0 ? sql.length() : end + 2;
+    }
+}
@@ -0,0 +1,172 @@
+package com.github.gquintana.metrics.backend;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.sql.JdbcProxyFactory;
+import com.github.gquintana.metrics.sql.MetricsSql;
+import com.github.gquintana.metrics.sql.stub.StubConnection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check meters are recorded from the background thread
+ */
+public class AsyncMetricsBackendTest {
+    private MeterRegistry meterRegistry;
+    private MicrometerMetricsBackend delegate;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        delegate = new MicrometerMetricsBackend(meterRegistry);
+    }
+
+    @Test
+    public void testRegisteredWhenDrained() {
+        // Given
+        AsyncMetricsBackend backend = new AsyncMetricsBackend(delegate);
+        Timer timer = backend.timer(MeterName.of("test.exec"));
+        // When
+        timer.record(1000L);
+        timer.record(2000L);
+        // Then
+        assertNull(meterRegistry.find("test.exec").timer());
+        assertEquals(2L, timer.count());
+        assertEquals(2L, backend.getPendingCount());
+        assertEquals(2, backend.drain());
+        assertEquals(2L, meterRegistry.get("test.exec").timer().count());
+        assertEquals(0.0D, meterRegistry.get("metrics-sql.async.pending").gauge().value(), 0.1D);
+        assertEquals(2.0D, meterRegistry.get("metrics-sql.async.processed").gauge().value(), 0.1D);
+    }
+
+    @Test
+    public void testOverflowDrop() {
+        // Given
+        AsyncMetricsBackend backend = new AsyncMetricsBackend(delegate, 4, AsyncMetricsBackend.OverflowPolicy.DROP);
+        Counter counter = backend.counter(MeterName.of("test.count"));
+        // When
+        for (int i = 0; i < 6; i++) {
+            counter.increment(1L);
+        }
+        backend.drain();
+        // Then
+        assertEquals(6L, counter.count());
+        assertEquals(4.0D, meterRegistry.get("test.count").counter().count(), 0.1D);
+        assertEquals(2L, backend.getDropCount());
+        assertEquals(2.0D, meterRegistry.get("metrics-sql.async.dropped").gauge().value(), 0.1D);
+    }
+
+    @Test
+    public void testOverflowRecordInline() {
+        // Given
+        AsyncMetricsBackend backend = new AsyncMetricsBackend(delegate, 4, AsyncMetricsBackend.OverflowPolicy.RECORD_INLINE);
+        Counter counter = backend.counter(MeterName.of("test.count"));
+        // When
+        for (int i = 0; i < 6; i++) {
+            counter.increment(1L);
+        }
+        // Then
+        assertEquals(6L, counter.count());
+        assertEquals(2.0D, meterRegistry.get("test.count").counter().count(), 0.1D);
+        assertEquals(2L, backend.getOverflowCount());
+        backend.drain();
+        assertEquals(6.0D, meterRegistry.get("test.count").counter().count(), 0.1D);
+        assertEquals(0L, backend.getDropCount());
+    }
+
+    @Test
+    public void testRemove() {
+        // Given
+        AsyncMetricsBackend backend = new AsyncMetricsBackend(delegate);
+        Timer timer = backend.timer(MeterName.of("test.exec"));
+        timer.record(1000L);
+        backend.drain();
+        // When
+        timer.record(1000L);
+        backend.remove(timer);
+        backend.drain();
+        // Then
+        assertNull(meterRegistry.find("test.exec").timer());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        // Given
+        AsyncMetricsBackend backend = new AsyncMetricsBackend(delegate, 1024, AsyncMetricsBackend.OverflowPolicy.RECORD_INLINE).start();
+        Counter counter = backend.counter(MeterName.of("test.count"));
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    counter.increment(1L);
+                }
+            }));
+        }
+        // When
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        backend.close();
+        // Then
+        assertEquals(40000L, counter.count());
+        assertEquals(40000.0D, meterRegistry.get("test.count").counter().count(), 0.1D);
+        assertEquals(0L, backend.getPendingCount());
+        assertEquals(40000L, backend.getProcessedCount() + backend.getOverflowCount());
+    }
+
+    @Test
+    public void testWrap() throws SQLException {
+        // Given
+        JdbcProxyFactory proxyFactory = MetricsSql.forRegistry(meterRegistry)
+                .withAsyncRecording()
+                .build();
+        Connection connection = proxyFactory.wrapConnection(new StubConnection(1));
+        // When
+        try (PreparedStatement statement = connection.prepareStatement("select * from METRICS_TEST")) {
+            statement.execute();
+        }
+        connection.close();
+        proxyFactory.close();
+        // Then
+        assertTrue(proxyFactory.getBackend() instanceof AsyncMetricsBackend);
+        assertNotNull(meterRegistry.get("metrics-sql.async.pending").gauge());
+        assertEquals(1L, meterRegistry.get("java.sql.PreparedStatement.[select * from metrics_test].exec").timer().count());
+        assertFalse(Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().equals("metrics-sql-async-backend") && thread.isAlive()));
+    }
+}
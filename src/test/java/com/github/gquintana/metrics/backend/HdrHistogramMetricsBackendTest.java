@@ -0,0 +1,162 @@
+package com.github.gquintana.metrics.backend;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.sql.MetricsSql;
+import com.github.gquintana.metrics.sql.stub.StubConnection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check HdrHistogram timers
+ */
+public class HdrHistogramMetricsBackendTest {
+    private MeterRegistry meterRegistry;
+    private HdrHistogramMetricsBackend backend;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        backend = new HdrHistogramMetricsBackend(new MicrometerMetricsBackend(meterRegistry),
+                TimeUnit.SECONDS.toNanos(10L), 3);
+    }
+
+    @Test
+    public void testPercentiles() {
+        // Given
+        Timer timer = backend.timer(MeterName.of("test.exec"));
+        // When
+        for (long i = 1; i <= 1000; i++) {
+            timer.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        // Then
+        HdrHistogramMetricsBackend.HdrTimer hdrTimer = backend.getTimers().get(MeterName.of("test.exec"));
+        assertEquals(1000L, hdrTimer.count());
+        assertEquals(990.0D, hdrTimer.getValueAtPercentile(99.0D) / 1.0E6D, 1.0D);
+        assertEquals(999.0D, hdrTimer.getValueAtPercentile(99.9D) / 1.0E6D, 2.0D);
+        assertEquals(0.999D, meterRegistry.get("test.exec.percentile").tag("percentile", "0.999").gauge().value(), 0.002D);
+        assertEquals(1.0D, meterRegistry.get("test.exec.max").gauge().value(), 0.001D);
+    }
+
+    @Test
+    public void testSamplesAndSum() {
+        // Given
+        Timer timer = backend.timer(MeterName.of("test.exec"));
+        // When
+        for (long i = 1; i <= 4; i++) {
+            timer.record(TimeUnit.MILLISECONDS.toNanos(250L * i));
+        }
+        // Then
+        assertEquals(4.0D, meterRegistry.get("test.exec.samples").gauge().value(), 0.1D);
+        assertEquals(2.5D, meterRegistry.get("test.exec.sum").gauge().value(), 0.001D);
+    }
+
+    @Test
+    public void testSlidingWindow() {
+        // Given
+        MockClock clock = new MockClock();
+        backend = new HdrHistogramMetricsBackend(new MicrometerMetricsBackend(meterRegistry),
+                TimeUnit.SECONDS.toNanos(10L), 3, TimeUnit.MINUTES.toNanos(1L), 3, clock);
+        Timer timer = backend.timer(MeterName.of("test.exec"));
+        HdrHistogramMetricsBackend.HdrTimer hdrTimer = backend.getTimers().get(MeterName.of("test.exec"));
+        timer.record(TimeUnit.SECONDS.toNanos(5L));
+        for (int i = 0; i < 9; i++) {
+            timer.record(TimeUnit.MILLISECONDS.toNanos(10L));
+        }
+        assertEquals(5.0D, hdrTimer.getValueAtPercentile(99.0D) / 1.0E9D, 0.01D);
+        // When
+        clock.add(2L, TimeUnit.MINUTES);
+        for (int i = 0; i < 10; i++) {
+            timer.record(TimeUnit.MILLISECONDS.toNanos(10L));
+        }
+        // Then
+        assertEquals(5.0D, hdrTimer.getValueAtPercentile(99.0D) / 1.0E9D, 0.01D);
+        // When
+        clock.add(1L, TimeUnit.MINUTES);
+        timer.record(TimeUnit.MILLISECONDS.toNanos(10L));
+        // Then
+        assertEquals(0.01D, hdrTimer.getValueAtPercentile(99.0D) / 1.0E9D, 0.001D);
+        assertEquals(0.01D, meterRegistry.get("test.exec.max").gauge().value(), 0.001D);
+        assertEquals(21L, hdrTimer.count());
+    }
+
+    @Test
+    public void testHighestTrackableValue() {
+        // Given
+        Timer timer = backend.timer(MeterName.of("test.exec"));
+        // When
+        timer.record(TimeUnit.MINUTES.toNanos(1L));
+        // Then
+        assertEquals(10.0D, backend.getTimers().get(MeterName.of("test.exec")).getMaxValue() / 1.0E9D, 0.01D);
+    }
+
+    @Test
+    public void testRemove() {
+        // Given
+        Timer timer = backend.timer(MeterName.of("test.exec"));
+        timer.record(1000L);
+        // When
+        backend.remove(timer);
+        // Then
+        assertNull(backend.getTimers().get(MeterName.of("test.exec")));
+        assertNull(meterRegistry.find("test.exec.percentile").gauge());
+        assertNull(meterRegistry.find("test.exec.max").gauge());
+        assertNull(meterRegistry.find("test.exec.samples").gauge());
+        assertNull(meterRegistry.find("test.exec.sum").gauge());
+    }
+
+    @Test
+    public void testWrap() throws SQLException {
+        // Given
+        Connection connection = MetricsSql.forRegistry(meterRegistry)
+                .withHdrHistogramTimers()
+                .wrap(new StubConnection(1));
+        // When
+        try (PreparedStatement statement = connection.prepareStatement("select * from METRICS_TEST")) {
+            for (int i = 0; i < 5; i++) {
+                statement.execute();
+            }
+        }
+        connection.close();
+        // Then
+        assertNull(meterRegistry.find("java.sql.PreparedStatement.[select * from metrics_test].exec").timer());
+        assertNotNull(meterRegistry.find("java.sql.PreparedStatement.[select * from metrics_test].exec.percentile").tag("percentile", "0.99").gauge());
+        assertTrue(meterRegistry.get("java.sql.PreparedStatement.[select * from metrics_test].exec.max").gauge().value() > 0.0D);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSignificantDigits() {
+        new HdrHistogramMetricsBackend(NoopMetricsBackend.INSTANCE, TimeUnit.SECONDS.toNanos(10L), 6);
+    }
+}
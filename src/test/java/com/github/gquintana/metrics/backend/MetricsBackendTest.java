@@ -0,0 +1,117 @@
+package com.github.gquintana.metrics.backend;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.gquintana.metrics.sql.MetricsSql;
+import com.github.gquintana.metrics.sql.stub.StubConnection;
+import io.micrometer.core.instrument.Tags;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check metrics are recorded through backends
+ */
+public class MetricsBackendTest {
+    private static void executeQuery(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("select * from METRICS_TEST");
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+            }
+        }
+        connection.close();
+    }
+
+    @Test
+    public void testDropwizard() throws SQLException {
+        // Given
+        MetricRegistry metricRegistry = new MetricRegistry();
+        Connection connection = MetricsSql.forBackend(new DropwizardMetricsBackend(metricRegistry))
+                .wrap(new StubConnection(3));
+        // When
+        executeQuery(connection);
+        // Then
+        assertEquals(1L, metricRegistry.getTimers().get("java.sql.PreparedStatement.[select * from metrics_test].exec.success").getCount());
+        assertEquals(3L, metricRegistry.getCounters().get("java.sql.ResultSet.[select * from metrics_test].rows").getCount());
+        assertEquals(1L, metricRegistry.getHistograms().get("java.sql.ResultSet.[select * from metrics_test].size").getCount());
+    }
+
+    @Test
+    public void testDropwizardTags() {
+        // Given
+        MetricRegistry metricRegistry = new MetricRegistry();
+        DropwizardMetricsBackend backend = new DropwizardMetricsBackend(metricRegistry);
+        // When
+        Counter counter = backend.counter(MeterName.of("jdbc.statement.execute.count", Tags.of("statement", "prepared", "outcome", "timeout")));
+        counter.increment(2L);
+        backend.remove(counter);
+        // Then
+        assertEquals(2L, counter.count());
+        assertEquals("jdbc.statement.execute.count.timeout.prepared", DropwizardMetricsBackend.flatName(counter.getName()));
+        assertTrue(metricRegistry.getCounters().isEmpty());
+    }
+
+    @Test
+    public void testDropwizardGaugeBoundTwice() {
+        // Given
+        MetricRegistry metricRegistry = new MetricRegistry();
+        DropwizardMetricsBackend backend = new DropwizardMetricsBackend(metricRegistry);
+        AtomicLong value = new AtomicLong(1L);
+        AtomicLong otherValue = new AtomicLong(2L);
+        Meter gauge = backend.gauge(MeterName.of("test.gauge"), value, AtomicLong::get);
+        // When
+        Meter sameGauge = backend.gauge(MeterName.of("test.gauge"), value, AtomicLong::get);
+        Meter otherGauge = backend.gauge(MeterName.of("test.gauge"), otherValue, AtomicLong::get);
+        // Then
+        assertNotNull(sameGauge);
+        assertNull(otherGauge);
+        assertEquals(1.0D, (Double) metricRegistry.getGauges().get("test.gauge").getValue(), 0.1D);
+        // When
+        backend.remove(gauge);
+        otherGauge = backend.gauge(MeterName.of("test.gauge"), otherValue, AtomicLong::get);
+        // Then
+        assertNotNull(otherGauge);
+        assertEquals(2.0D, (Double) metricRegistry.getGauges().get("test.gauge").getValue(), 0.1D);
+    }
+
+    @Test
+    public void testNoop() throws SQLException {
+        // Given
+        Connection connection = MetricsSql.forBackend(NoopMetricsBackend.INSTANCE)
+                .wrap(new StubConnection(3));
+        // When
+        executeQuery(connection);
+        // Then
+        assertNull(NoopMetricsBackend.INSTANCE.timer(MeterName.of("java.sql.Connection")));
+        assertFalse(connection.isWrapperFor(MetricsBackendTest.class));
+    }
+}
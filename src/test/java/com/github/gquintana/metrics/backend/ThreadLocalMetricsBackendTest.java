@@ -0,0 +1,159 @@
+package com.github.gquintana.metrics.backend;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.sql.JdbcProxyFactory;
+import com.github.gquintana.metrics.sql.MetricsSql;
+import com.github.gquintana.metrics.sql.stub.StubConnection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Check thread buffers are merged into the delegate backend
+ */
+public class ThreadLocalMetricsBackendTest {
+    private MeterRegistry meterRegistry;
+    private ThreadLocalMetricsBackend backend;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        backend = new ThreadLocalMetricsBackend(new MicrometerMetricsBackend(meterRegistry));
+    }
+
+    @Test
+    public void testMergeTimer() {
+        // Given
+        Timer timer = backend.timer(MeterName.of("test.exec"));
+        // When
+        timer.record(1000L);
+        timer.record(1500L);
+        timer.record(3000L);
+        // Then
+        assertNull(meterRegistry.find("test.exec").timer());
+        assertEquals(3L, timer.count());
+        backend.merge();
+        io.micrometer.core.instrument.Timer merged = meterRegistry.get("test.exec").timer();
+        assertEquals(3L, merged.count());
+        assertEquals(5500.0D, merged.totalTime(TimeUnit.NANOSECONDS), 0.1D);
+        assertEquals(3000.0D, merged.max(TimeUnit.NANOSECONDS), 0.1D);
+        assertEquals(3L, timer.count());
+    }
+
+    @Test
+    public void testMergeCounterOnce() {
+        // Given
+        Counter counter = backend.counter(MeterName.of("test.count"));
+        // When
+        counter.increment(2L);
+        counter.increment(3L);
+        backend.merge();
+        backend.merge();
+        // Then
+        assertEquals(5.0D, meterRegistry.get("test.count").counter().count(), 0.1D);
+    }
+
+    @Test
+    public void testConcurrentThreads() throws InterruptedException {
+        // Given
+        Timer timer = backend.timer(MeterName.of("test.exec"));
+        Counter counter = backend.counter(MeterName.of("test.count"));
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 1; i <= 10000; i++) {
+                    timer.record(i);
+                    counter.increment(1L);
+                    if (i % 1000 == 0) {
+                        backend.merge();
+                    }
+                }
+            }));
+        }
+        // When
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(80000L, timer.count());
+        backend.merge();
+        // Then
+        io.micrometer.core.instrument.Timer merged = meterRegistry.get("test.exec").timer();
+        assertEquals(80000L, merged.count());
+        assertEquals(80000L, timer.count());
+        assertEquals(80000L, counter.count());
+        assertEquals(8 * 10000L * 10001L / 2L, merged.totalTime(TimeUnit.NANOSECONDS), 0.1D);
+        assertEquals(80000.0D, meterRegistry.get("test.count").counter().count(), 0.1D);
+        assertEquals(0.0D, meterRegistry.get("metrics-sql.thread-local.buffers").gauge().value(), 0.1D);
+    }
+
+    @Test
+    public void testRemove() {
+        // Given
+        Counter counter = backend.counter(MeterName.of("test.count"));
+        counter.increment(1L);
+        backend.merge();
+        // When
+        backend.remove(counter);
+        counter.increment(1L);
+        Counter otherCounter = backend.counter(MeterName.of("test.other"));
+        otherCounter.increment(2L);
+        backend.merge();
+        // Then
+        assertNull(meterRegistry.find("test.count").counter());
+        assertEquals(2.0D, meterRegistry.get("test.other").counter().count(), 0.1D);
+    }
+
+    @Test
+    public void testWrap() throws SQLException {
+        // Given
+        JdbcProxyFactory proxyFactory = MetricsSql.forRegistry(meterRegistry)
+                .withThreadLocalRecording(1L, TimeUnit.HOURS)
+                .build();
+        Connection connection = proxyFactory.wrapConnection(new StubConnection(1));
+        // When
+        try (PreparedStatement statement = connection.prepareStatement("select * from METRICS_TEST")) {
+            statement.execute();
+        }
+        connection.close();
+        proxyFactory.flush();
+        // Then
+        assertEquals(1L, meterRegistry.get("java.sql.PreparedStatement.[select * from metrics_test].exec").timer().count());
+        proxyFactory.close();
+        assertFalse(Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().equals("metrics-sql-thread-local-backend") && thread.isAlive()));
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.gquintana.metrics.proxy;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MethodDispatchTableTest {
+	private static final int WORK = 1;
+	private final MethodDispatchTable dispatchTable = MethodDispatchTable.builder()
+			.withAction(WORK, "work")
+			.build();
+
+	@Test
+	public void testGetAction() throws Exception {
+		// Given
+		Method workMethod = Dummy.class.getMethod("work", String.class);
+		Method failMethod = Dummy.class.getMethod("fail", String.class);
+		// When Then
+		assertEquals(WORK, dispatchTable.getAction(workMethod));
+		assertEquals(WORK, dispatchTable.getAction(workMethod));
+		assertEquals(MethodDispatchTable.PROCEED, dispatchTable.getAction(failMethod));
+		assertTrue(dispatchTable.isIntercepted(workMethod));
+		assertFalse(dispatchTable.isIntercepted(failMethod));
+	}
+
+	@Test
+	public void testGetActionOtherMethodInstance() throws Exception {
+		// Given
+		Method workMethod = Dummy.class.getMethod("work", String.class);
+		Method implWorkMethod = DummyImpl.class.getMethod("work", String.class);
+		// When Then
+		assertEquals(WORK, dispatchTable.getAction(workMethod));
+		assertEquals(WORK, dispatchTable.getAction(implWorkMethod));
+	}
+
+	@Test
+	public void testEntryInvoke() throws Throwable {
+		// Given
+		Method workMethod = Dummy.class.getMethod("work", String.class);
+		Method failMethod = Dummy.class.getMethod("fail", String.class);
+		MethodDispatchTable.Entry workEntry = dispatchTable.getEntry(workMethod);
+		MethodDispatchTable.Entry failEntry = dispatchTable.getEntry(failMethod);
+		Dummy dummy = new DummyImpl();
+		MethodInvoker methodInvoker = new MethodHandleMethodInvoker();
+		// When Then
+		assertSame(workEntry, dispatchTable.getEntry(workMethod));
+		assertEquals("[a]", workEntry.invoke(methodInvoker, dummy, new Object[]{"a"}));
+		assertEquals("[b]", workEntry.invoke(new MethodHandleMethodInvoker(), dummy, new Object[]{"b"}));
+		assertEquals("[c]", workEntry.invoke(ReflectMethodInvoker.INSTANCE, dummy, new Object[]{"c"}));
+		try {
+			failEntry.invoke(methodInvoker, dummy, new Object[]{"d"});
+			fail("Exception expected");
+		} catch (RuntimeException e) {
+			assertEquals("d", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testBindMethodHandle() throws Throwable {
+		// Given
+		MethodInvoker methodInvoker = new MethodHandleMethodInvoker();
+		StringBuilder target = new StringBuilder("abc");
+		// When Then
+		assertEquals(3, methodInvoker.bind(StringBuilder.class.getMethod("length")).invoke(target, null));
+		assertEquals("bc", methodInvoker.bind(CharSequence.class.getMethod("subSequence", int.class, int.class))
+				.invoke(target, new Object[]{1, 3}));
+		methodInvoker.bind(StringBuilder.class.getMethod("setLength", int.class)).invoke(target, new Object[]{1});
+		assertEquals("a", target.toString());
+		methodInvoker.bind(StringBuilder.class.getMethod("insert", int.class, char[].class, int.class, int.class))
+				.invoke(target, new Object[]{1, new char[]{'x', 'y', 'z'}, 1, 2});
+		assertEquals("ayz", target.toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testProceedActionRejected() {
+		MethodDispatchTable.builder().withAction(MethodDispatchTable.PROCEED, "work");
+	}
+}
@@ -41,8 +41,8 @@ public class ProxyFactoryTest {
 	private static class DummyProxyHandler extends ProxyHandler<Dummy> {
 		private final List<MethodInvocation<Dummy>> methodInvocations = new ArrayList<>();
 
-		public DummyProxyHandler(Dummy delegate) {
-			super(delegate);
+		public DummyProxyHandler(Dummy delegate, MethodInvoker methodInvoker) {
+			super(delegate, methodInvoker);
 		}
 
 		public List<MethodInvocation<Dummy>> getMethodInvocations() {
@@ -56,18 +56,23 @@ public class ProxyFactoryTest {
 		}
 	}
 
-	public ProxyFactoryTest(ProxyFactory proxyFactory) {
+	public ProxyFactoryTest(ProxyFactory proxyFactory, MethodInvoker methodInvoker) {
 		this.proxyFactory = proxyFactory;
-		dummyProxyHandler = new DummyProxyHandler(new DummyImpl());
+		dummyProxyHandler = new DummyProxyHandler(new DummyImpl(), methodInvoker);
 		dummy = proxyFactory.newProxy(dummyProxyHandler, new ProxyClass(Dummy.class.getClassLoader(), Dummy.class));
 	}
 
 	@Parameterized.Parameters
 	public static Collection<Object[]> getParameters() {
 		return new ParametersBuilder()
-				.add(new ReflectProxyFactory())
-				.add(new CGLibProxyFactory())
-				.add(new CachingProxyFactory())
+				.add(new ReflectProxyFactory(), ReflectMethodInvoker.INSTANCE)
+				.add(new CGLibProxyFactory(), ReflectMethodInvoker.INSTANCE)
+				.add(new CachingProxyFactory(), ReflectMethodInvoker.INSTANCE)
+				.add(new ByteBuddyProxyFactory(), ReflectMethodInvoker.INSTANCE)
+				.add(new ReflectProxyFactory(), new MethodHandleMethodInvoker())
+				.add(new CGLibProxyFactory(), new MethodHandleMethodInvoker())
+				.add(new CachingProxyFactory(), new MethodHandleMethodInvoker())
+				.add(new ByteBuddyProxyFactory(), new MethodHandleMethodInvoker())
 				.build();
 	}
 
@@ -0,0 +1,193 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.proxy.ByteBuddyProxyFactory;
+import com.github.gquintana.metrics.proxy.CGLibProxyFactory;
+import com.github.gquintana.metrics.proxy.CachingProxyFactory;
+import com.github.gquintana.metrics.proxy.MethodHandleMethodInvoker;
+import com.github.gquintana.metrics.proxy.MethodInvoker;
+import com.github.gquintana.metrics.proxy.ProxyFactory;
+import com.github.gquintana.metrics.proxy.ReflectMethodInvoker;
+import com.github.gquintana.metrics.proxy.ReflectProxyFactory;
+import com.github.gquintana.metrics.sql.wrapper.JdbcWrapperProxyFactory;
+import com.github.gquintana.metrics.sql.stub.StubConnection;
+import com.github.gquintana.metrics.util.ParametersBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Check that proxies don't allocate memory on each call, for pass-through, intercepted and argument calls,
+ * and that statement execution allocates a bounded amount of memory, with all metrics enabled.
+ * Combinations documented as allocating are skipped:
+ * <ul>
+ * <li>On Java 8, {@link ReflectMethodInvoker} allocates on each call: calls going through the method invoker,
+ * all calls for {@link ReflectProxyFactory} and {@link CachingProxyFactory}, intercepted calls for other runtime proxies,
+ * are not checked. {@link JdbcWrapperProxyFactory} never uses the method invoker.</li>
+ * <li>{@link java.lang.reflect.Proxy}, used by {@link ReflectProxyFactory} and {@link CachingProxyFactory},
+ * allocates the argument array of methods having arguments, on all Java versions.</li>
+ * <li>On Java 8, {@link java.lang.reflect.Proxy#newProxyInstance} allocates cache keys on each result set proxy
+ * created by {@link ReflectProxyFactory}, statement execution is not checked.</li>
+ * </ul>
+ */
+@RunWith(Parameterized.class)
+public class AllocationTest {
+    private static final int ITERATIONS = 100000;
+    /**
+     * Maximum memory allocated by a statement execution: the result set, its proxy and the timers
+     */
+    private static final long EXECUTE_MAX_BYTES = 512L;
+    private final ProxyFactory factory;
+    private final MethodInvoker methodInvoker;
+    private Connection connection;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+
+    public AllocationTest(ProxyFactory factory, MethodInvoker methodInvoker) {
+        this.factory = factory;
+        this.methodInvoker = methodInvoker;
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getParameters() {
+        return new ParametersBuilder()
+                .add(new ReflectProxyFactory(), ReflectMethodInvoker.INSTANCE)
+                .add(new CGLibProxyFactory(), ReflectMethodInvoker.INSTANCE)
+                .add(new CachingProxyFactory(), ReflectMethodInvoker.INSTANCE)
+                .add(new ByteBuddyProxyFactory(), ReflectMethodInvoker.INSTANCE)
+                .add(new JdbcWrapperProxyFactory(), ReflectMethodInvoker.INSTANCE)
+                .add(new ReflectProxyFactory(), new MethodHandleMethodInvoker())
+                .add(new CGLibProxyFactory(), new MethodHandleMethodInvoker())
+                .add(new CachingProxyFactory(), new MethodHandleMethodInvoker())
+                .add(new ByteBuddyProxyFactory(), new MethodHandleMethodInvoker())
+                .add(new JdbcWrapperProxyFactory(), new MethodHandleMethodInvoker())
+                .build();
+    }
+
+    private static boolean isJava8() {
+        return System.getProperty("java.specification.version").startsWith("1.");
+    }
+
+    /**
+     * Whether proxies are based on {@link java.lang.reflect.Proxy}, where all calls go through the proxy handler
+     */
+    private boolean isJdkProxy() {
+        return factory instanceof ReflectProxyFactory || factory instanceof CachingProxyFactory;
+    }
+
+    private boolean isReflectMethodInvokerOnJava8() {
+        return isJava8() && methodInvoker instanceof ReflectMethodInvoker;
+    }
+
+    @Before
+    public void setUp() throws SQLException {
+        // CGLib can't define classes on Java 9+ without opening java.lang
+        assumeTrue(isJava8() || !(factory instanceof CGLibProxyFactory));
+        connection = MetricsSql.forRegistry(new SimpleMeterRegistry())
+                .withProxyFactory(factory)
+                .withMethodInvoker(methodInvoker)
+                .wrap(new StubConnection(Integer.MAX_VALUE));
+        statement = connection.prepareStatement("select * from METRICS_TEST");
+        resultSet = statement.executeQuery();
+    }
+
+    @After
+    public void tearDown() {
+        H2DbUtil.close(resultSet, statement, connection);
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        assumeTrue(sunThreadMXBean.isThreadAllocatedMemorySupported() && sunThreadMXBean.isThreadAllocatedMemoryEnabled());
+        return sunThreadMXBean;
+    }
+
+    private interface Call {
+        void call() throws SQLException;
+    }
+
+    /**
+     * Measure memory allocated by current thread while running given call many times
+     */
+    private static long measureAllocatedBytes(Call call) throws SQLException {
+        com.sun.management.ThreadMXBean threadMXBean = getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        // Warm up
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.call();
+        }
+        long start = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.call();
+        }
+        return threadMXBean.getThreadAllocatedBytes(threadId) - start;
+    }
+
+    @Test
+    public void testPassThroughCall() throws SQLException {
+        assumeFalse(isReflectMethodInvokerOnJava8() && isJdkProxy());
+        long allocatedBytes = measureAllocatedBytes(() -> resultSet.wasNull());
+        // Less than 1 byte per call
+        assertThat(allocatedBytes, lessThan((long) ITERATIONS));
+    }
+
+    @Test
+    public void testInterceptedCall() throws SQLException {
+        assumeFalse(isReflectMethodInvokerOnJava8() && !(factory instanceof JdbcWrapperProxyFactory));
+        long allocatedBytes = measureAllocatedBytes(() -> resultSet.next());
+        // Less than 1 byte per call
+        assertThat(allocatedBytes, lessThan((long) ITERATIONS));
+    }
+
+    @Test
+    public void testArgumentCall() throws SQLException {
+        assumeFalse(isJdkProxy());
+        long allocatedBytes = measureAllocatedBytes(() -> resultSet.getString(2));
+        // Less than 1 byte per call
+        assertThat(allocatedBytes, lessThan((long) ITERATIONS));
+    }
+
+    @Test
+    public void testExecuteQuery() throws SQLException {
+        assumeFalse(isJava8() && factory instanceof ReflectProxyFactory);
+        long allocatedBytes = measureAllocatedBytes(() -> statement.executeQuery().close());
+        assertThat(allocatedBytes, lessThan(EXECUTE_MAX_BYTES * ITERATIONS));
+    }
+}
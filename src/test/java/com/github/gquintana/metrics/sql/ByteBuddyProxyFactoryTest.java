@@ -0,0 +1,60 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.proxy.ByteBuddyProxyFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Integration test between {@link ByteBuddyProxyFactory} and {@link JdbcProxyFactory}
+ */
+public class ByteBuddyProxyFactoryTest {
+    private MeterRegistry meterRegistry;
+    private JdbcProxyFactory proxyFactory;
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ByteBuddyProxyFactory factory = new ByteBuddyProxyFactory();
+        proxyFactory = MetricsSql.forRegistry(meterRegistry)
+                .withProxyFactory(factory)
+                .build();
+    }
+    @Test
+    public void testConnectionLife() throws SQLException {
+        // Act
+        Connection connection = proxyFactory.wrapConnection(H2DbUtil.openConnection());
+        H2DbUtil.close(connection);
+        // Assert
+        assertNotNull(connection);
+        assertFalse(Proxy.isProxyClass(connection.getClass()));
+        assertNotNull(meterRegistry.get("java.sql.Connection").timer());
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+public class CachingMetricNamingStrategyTest {
+    /**
+     * Naming strategy counting generated SQL Ids and names
+     */
+    private static class CountingMetricNamingStrategy extends DefaultMetricNamingStrategy {
+        private final AtomicInteger sqlIdCount = new AtomicInteger();
+        private final AtomicInteger executeTimerCount = new AtomicInteger();
+
+        @Override
+        public String getSqlId(String sql) {
+            sqlIdCount.incrementAndGet();
+            return super.getSqlId(sql);
+        }
+
+        @Override
+        public String getPreparedStatementExecuteTimer(String sql, String sqlId) {
+            executeTimerCount.incrementAndGet();
+            return super.getPreparedStatementExecuteTimer(sql, sqlId);
+        }
+    }
+
+    @Test
+    public void testCache() {
+        // Given
+        CountingMetricNamingStrategy countingStrategy = new CountingMetricNamingStrategy();
+        CachingMetricNamingStrategy namingStrategy = new CachingMetricNamingStrategy(countingStrategy);
+        String sql = "select * from METRICS_TEST";
+        // When
+        for (int i = 0; i < 10; i++) {
+            String sqlId = namingStrategy.getSqlId(sql);
+            assertEquals("java.sql.PreparedStatement.[select * from metrics_test].exec", namingStrategy.getPreparedStatementExecuteTimer(sql, sqlId));
+        }
+        // Then
+        assertEquals(1, countingStrategy.sqlIdCount.get());
+        assertEquals(1, countingStrategy.executeTimerCount.get());
+        assertEquals(18L, namingStrategy.getHitCount());
+        assertEquals(2L, namingStrategy.getMissCount());
+    }
+
+    @Test
+    public void testCacheOtherSqlId() {
+        // Given
+        CachingMetricNamingStrategy namingStrategy = new CachingMetricNamingStrategy(new DefaultMetricNamingStrategy());
+        String sql = "select * from METRICS_TEST";
+        // When
+        String name1 = namingStrategy.getPreparedStatementExecuteTimer(sql, "id1");
+        String name2 = namingStrategy.getPreparedStatementExecuteTimer(sql, "id2");
+        // Then
+        assertEquals("java.sql.PreparedStatement.id1.exec", name1);
+        assertEquals("java.sql.PreparedStatement.id2.exec", name2);
+    }
+
+    @Test
+    public void testMaximumSize() {
+        // Given
+        CachingMetricNamingStrategy namingStrategy = new CachingMetricNamingStrategy(new DefaultMetricNamingStrategy(), 10);
+        // When
+        for (int i = 0; i < 100; i++) {
+            namingStrategy.getSqlId("select * from METRICS_TEST where ID=" + i);
+        }
+        // Then
+        assertThat(namingStrategy.size(), lessThanOrEqualTo(10L));
+        assertEquals(100L, namingStrategy.size() + namingStrategy.getEvictionCount());
+    }
+
+    @Test
+    public void testBindTo() {
+        // Given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CachingMetricNamingStrategy namingStrategy = new CachingMetricNamingStrategy(new DefaultMetricNamingStrategy());
+        MetricsSql.forRegistry(meterRegistry)
+                .withNamingStrategy(namingStrategy)
+                .build();
+        // When
+        namingStrategy.getSqlId("select 1");
+        namingStrategy.getSqlId("select 1");
+        // Then
+        assertEquals(1.0D, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count(), 0.1D);
+        assertEquals(1.0D, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count(), 0.1D);
+    }
+}
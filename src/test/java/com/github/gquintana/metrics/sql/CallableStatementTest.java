@@ -79,7 +79,7 @@ public class CallableStatementTest {
         // Assert
         assertNotNull(connection);
         assertTrue(Proxy.isProxyClass(resultSet.getClass()));
-        assertNotNull(meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlCallableStatement[select * from metrics_test]Exec"));
+        assertNotNull(meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlCallableStatement[select * from metrics_test]Exec.outcome.success"));
         
     }
     @Test(expected = Exception.class)
@@ -92,7 +92,7 @@ public class CallableStatementTest {
         // Assert
         assertNotNull(connection);
         assertTrue(Proxy.isProxyClass(resultSet.getClass()));
-        assertNotNull(meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlCallableStatement[select * from metrics_test order by created desc]Exec"));
+        assertNotNull(meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlCallableStatement[select * from metrics_test order by created desc]Exec.outcome.success"));
         
     }
 
@@ -107,7 +107,7 @@ public class CallableStatementTest {
         // Assert
         assertNotNull(connection);
         assertTrue(Proxy.isProxyClass(resultSet.getClass()));
-        assertEquals(1, meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlCallableStatement[select * from metrics_test order by id]Exec").getCount());
+        assertEquals(1, meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlCallableStatement[select * from metrics_test order by id]Exec.outcome.success").getCount());
     }
 
 }
@@ -0,0 +1,109 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.sql.stub.StubConnection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class CardinalityLimiterTest {
+    private MeterRegistry meterRegistry;
+    private JdbcProxyFactory proxyFactory;
+    private Connection connection;
+
+    @Before
+    public void setUp() throws SQLException {
+        meterRegistry = new SimpleMeterRegistry();
+        proxyFactory = MetricsSql.forRegistry(meterRegistry)
+                .withMaximumSqlIds(3)
+                .build();
+        connection = proxyFactory.wrapConnection(new StubConnection(1));
+    }
+
+    @After
+    public void tearDown() {
+        H2DbUtil.close(connection);
+    }
+
+    private static String executeTimer(String sqlId) {
+        return "java.sql.Statement." + sqlId + ".exec";
+    }
+
+    @Test
+    public void testOverflow() throws SQLException {
+        // Given
+        try (Statement statement = connection.createStatement()) {
+            // When
+            for (int i = 0; i < 3; i++) {
+                statement.execute("select " + i);
+                statement.execute("select " + i);
+            }
+            statement.execute("select 3");
+            statement.execute("select 4");
+        }
+        // Then
+        assertEquals(2L, meterRegistry.get(executeTimer("[select 0]")).timer().count());
+        assertNull(meterRegistry.find(executeTimer("[select 3]")).timer());
+        assertEquals(2L, meterRegistry.get(executeTimer("[other]")).timer().count());
+        CardinalityLimiter limiter = proxyFactory.getMetricHelper().getLimiter(QueryMeter.STATEMENT_EXECUTE_SUCCESS_TIMER);
+        assertEquals(3, limiter.size());
+        assertEquals(2L, limiter.getOverflowCount());
+        assertEquals(0L, limiter.getEvictionCount());
+    }
+
+    @Test
+    public void testEvictIdle() throws SQLException {
+        // Given
+        proxyFactory = MetricsSql.forRegistry(meterRegistry)
+                .withMaximumSqlIds(2)
+                .build();
+        try (Connection connection = proxyFactory.wrapConnection(new StubConnection(1));
+             Statement statement = connection.createStatement()) {
+            statement.execute("select a");
+            statement.execute("select b");
+            // When
+            statement.execute("select c"); // a gets a second chance
+            statement.execute("select a");
+            statement.execute("select d"); // b gets a second chance
+            statement.execute("select e"); // a was used since, it gets another chance
+            statement.execute("select f"); // b was not used since, it is evicted
+        }
+        // Then
+        assertEquals(2L, meterRegistry.get(executeTimer("[select a]")).timer().count());
+        assertNull(meterRegistry.find(executeTimer("[select b]")).timer());
+        assertNotNull(meterRegistry.find(executeTimer("[select f]")).timer());
+        assertEquals(3L, meterRegistry.get(executeTimer("[other]")).timer().count());
+        CardinalityLimiter limiter = proxyFactory.getMetricHelper().getLimiter(QueryMeter.STATEMENT_EXECUTE_SUCCESS_TIMER);
+        assertEquals(2, limiter.size());
+        assertEquals(1L, limiter.getEvictionCount());
+    }
+}
@@ -0,0 +1,114 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.backend.MeterName;
+import com.github.gquintana.metrics.sql.stub.StubConnection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class DimensionalMetricNamingStrategyTest {
+    @Test
+    public void testNames() {
+        // Given
+        DimensionalMetricNamingStrategy namingStrategy = DimensionalMetricNamingStrategy.builder()
+                .withDatabaseName("test")
+                .build();
+        // When
+        String sqlId = namingStrategy.getSqlId("select * from METRICS_TEST where ID=42");
+        MeterName executeTimer = namingStrategy.getTaggedPreparedStatementExecuteTimer(null, sqlId);
+        // Then
+        assertEquals("select * from metrics_test where id=?", sqlId);
+        assertEquals("jdbc.statement.execute", executeTimer.getName());
+        assertEquals(Tags.of("database", "test", "statement", "prepared", "sql", sqlId), executeTimer.getTags());
+        assertEquals("jdbc.statement.execute", namingStrategy.getPreparedStatementExecuteTimer(null, sqlId));
+        assertEquals(MeterName.of("jdbc.connection.life", Tags.of("database", "test")), namingStrategy.getTaggedConnectionLifeTimer());
+        assertSame(namingStrategy.getTaggedStatementLifeTimer(), namingStrategy.getTaggedStatementLifeTimer());
+    }
+
+    @Test
+    public void testSameTagKeys() {
+        // Given
+        DimensionalMetricNamingStrategy namingStrategy = DimensionalMetricNamingStrategy.builder()
+                .withDatabaseName("test")
+                .build();
+        String sqlId = namingStrategy.getSqlId("select * from METRICS_TEST where ID=42");
+        // When
+        MeterName statementLifeTimer = namingStrategy.getTaggedStatementLifeTimer();
+        MeterName preparedStatementLifeTimer = namingStrategy.getTaggedPreparedStatementLifeTimer(null, sqlId);
+        // Then
+        assertEquals(preparedStatementLifeTimer.getName(), statementLifeTimer.getName());
+        assertEquals(tagKeys(preparedStatementLifeTimer), tagKeys(statementLifeTimer));
+        assertEquals(Tags.of("database", "test", "statement", "statement", "sql", ""), statementLifeTimer.getTags());
+    }
+
+    private static List<String> tagKeys(MeterName meterName) {
+        return meterName.getTags().stream().map(Tag::getKey).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testMeters() throws SQLException {
+        // Given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Connection connection = MetricsSql.forRegistry(meterRegistry)
+                .withDimensionalNamingStrategy("test")
+                .withCachingNamingStrategy(100)
+                .wrap(new StubConnection(2));
+        // When
+        try (PreparedStatement preparedStatement = connection.prepareStatement("select * from METRICS_TEST where ID=?")) {
+            preparedStatement.execute();
+            preparedStatement.execute();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("select * from METRICS_TEST where ID=1");
+            statement.execute("select * from METRICS_TEST where ID=2");
+            try (ResultSet resultSet = statement.executeQuery("select * from METRICS_TEST")) {
+                while (resultSet.next()) {
+                }
+            }
+        }
+        connection.close();
+        // Then
+        Timer preparedTimer = meterRegistry.get("jdbc.statement.execute").tags("statement", "prepared").timer();
+        assertEquals(2L, preparedTimer.count());
+        assertEquals("select * from metrics_test where id=?", preparedTimer.getId().getTag("sql"));
+        assertEquals(2L, meterRegistry.get("jdbc.statement.execute")
+                .tags("statement", "statement", "sql", "select * from metrics_test where id=?").timer().count());
+        assertEquals(5L, meterRegistry.get("jdbc.statement.execute").tags("database", "test").timers().stream().mapToLong(Timer::count).sum());
+        assertEquals(2.0D, meterRegistry.get("jdbc.resultset.rows").counter().count(), 0.1D);
+        assertEquals(1L, meterRegistry.get("jdbc.connection.life").timer().count());
+    }
+}
@@ -76,7 +76,7 @@ public class DriverTest {
         assertNotNull(connection);
         assertTrue(Proxy.isProxyClass(resultSet.getClass()));
         DropwizardMeterRegistry meterRegistry = MeterRegistryHelper.createDropwizardMeterRegistry();
-        assertNotNull(meterRegistry.getDropwizardRegistry().getTimers().get("java.sql.Statement.[select current_date].exec"));
+        assertNotNull(meterRegistry.getDropwizardRegistry().getTimers().get("java.sql.Statement.[select current_date].exec.outcome.success"));
 
     }
 
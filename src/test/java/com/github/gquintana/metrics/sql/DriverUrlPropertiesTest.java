@@ -20,8 +20,12 @@ package com.github.gquintana.metrics.sql;
  * #L%
  */
 
+import com.github.gquintana.metrics.proxy.ByteBuddyProxyFactory;
 import com.github.gquintana.metrics.proxy.CGLibProxyFactory;
+import com.github.gquintana.metrics.proxy.MethodHandleMethodInvoker;
+import com.github.gquintana.metrics.proxy.ReflectMethodInvoker;
 import com.github.gquintana.metrics.proxy.ReflectProxyFactory;
+import com.github.gquintana.metrics.sql.wrapper.JdbcWrapperProxyFactory;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
@@ -37,8 +41,9 @@ public class DriverUrlPropertiesTest {
 
     @Test
     public void testProperties() {
-        DriverUrl driverUrl = DriverUrl.parse("jdbc:metrics:h2:~/test;AUTO_SERVER=TRUE;;AUTO_RECONNECT=TRUE;metrics_driver=org.h2.Driver;metrics_proxy_factory=cglib;metrics_naming_strategy=" + CustomMetricNamingStrategy.class.getName() + ";metrics_database=test");
+        DriverUrl driverUrl = DriverUrl.parse("jdbc:metrics:h2:~/test;AUTO_SERVER=TRUE;;AUTO_RECONNECT=TRUE;metrics_driver=org.h2.Driver;metrics_proxy_factory=cglib;metrics_method_invoker=method_handle;metrics_naming_strategy=" + CustomMetricNamingStrategy.class.getName() + ";metrics_database=test");
         assertEquals(CGLibProxyFactory.class, driverUrl.getProxyFactoryClass());
+        assertEquals(MethodHandleMethodInvoker.class, driverUrl.getMethodInvokerClass());
         assertEquals(CustomMetricNamingStrategy.class, driverUrl.getNamingStrategyClass());
         assertEquals("test", driverUrl.getDatabaseName());
         assertEquals(org.h2.Driver.class, driverUrl.getDriverClass());
@@ -48,8 +53,47 @@ public class DriverUrlPropertiesTest {
     public void testPropertiesDefault() {
         DriverUrl driverUrl = DriverUrl.parse("jdbc:metrics:h2:~/test;AUTO_SERVER=TRUE;;AUTO_RECONNECT=TRUE");
         assertEquals(ReflectProxyFactory.class, driverUrl.getProxyFactoryClass());
+        assertEquals(ReflectMethodInvoker.class, driverUrl.getMethodInvokerClass());
         assertEquals(DefaultMetricNamingStrategy.class, driverUrl.getNamingStrategyClass());
         assertNull(driverUrl.getDatabaseName());
         assertNull(null, driverUrl.getDriverClass());
+        assertEquals(0, driverUrl.getMaximumSqlIds());
+        assertEquals(1.0D, driverUrl.getSamplingRates().getStatementRate(), 0.001D);
+    }
+
+    @Test
+    public void testPropertiesMaximumSqlIds() {
+        DriverUrl driverUrl = DriverUrl.parse("jdbc:metrics:h2:~/test;metrics_max_sql_ids=500");
+        assertEquals(500, driverUrl.getMaximumSqlIds());
+    }
+
+    @Test
+    public void testPropertiesSampling() {
+        DriverUrl driverUrl = DriverUrl.parse("jdbc:metrics:h2:~/test;metrics_sampling=0.25");
+        assertEquals(0.25D, driverUrl.getSamplingRates().getPreparedStatementRate(), 0.001D);
+    }
+
+    @Test
+    public void testPropertiesSlowQueryThreshold() {
+        DriverUrl driverUrl = DriverUrl.parse("jdbc:metrics:h2:~/test;metrics_slow_query_threshold=500");
+        assertEquals(500L, driverUrl.getSlowQueryThreshold());
+    }
+
+    @Test
+    public void testPropertiesByteBuddy() {
+        DriverUrl driverUrl = DriverUrl.parse("jdbc:metrics:h2:~/test;metrics_proxy_factory=bytebuddy");
+        assertEquals(ByteBuddyProxyFactory.class, driverUrl.getProxyFactoryClass());
+    }
+
+    @Test
+    public void testPropertiesNormalizing() {
+        DriverUrl driverUrl = DriverUrl.parse("jdbc:metrics:h2:~/test;metrics_naming_strategy=normalizing");
+        assertEquals(NormalizingMetricNamingStrategy.class, driverUrl.getNamingStrategyClass());
+    }
+
+    @Test
+    public void testPropertiesWrapper() {
+        DriverUrl driverUrl = DriverUrl.parse("jdbc:metrics:h2:~/test;metrics_proxy_factory=wrapper");
+        assertEquals(JdbcWrapperProxyFactory.class, driverUrl.getProxyFactoryClass());
     }
 }
@@ -0,0 +1,147 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Check executions are timed and counted by outcome
+ */
+public class ExecutionOutcomeTest {
+    @Test
+    public void testOf() {
+        assertEquals(ExecutionOutcome.TIMEOUT, ExecutionOutcome.of(new SQLTimeoutException()));
+        assertEquals(ExecutionOutcome.TIMEOUT, ExecutionOutcome.of(new SQLException("Canceled", "57014")));
+        assertEquals(ExecutionOutcome.ROLLBACK, ExecutionOutcome.of(new SQLTransactionRollbackException()));
+        assertEquals(ExecutionOutcome.ROLLBACK, ExecutionOutcome.of(new SQLException("Deadlock", "40001")));
+        assertEquals(ExecutionOutcome.CONNECTION, ExecutionOutcome.of(new SQLTransientConnectionException()));
+        assertEquals(ExecutionOutcome.CONNECTION, ExecutionOutcome.of(new SQLException("Link failure", "08S01")));
+        assertEquals(ExecutionOutcome.ERROR, ExecutionOutcome.of(new SQLSyntaxErrorException("Syntax", "42000")));
+        assertEquals(ExecutionOutcome.ERROR, ExecutionOutcome.of(new SQLException()));
+        assertEquals(ExecutionOutcome.ERROR, ExecutionOutcome.of(new IllegalStateException()));
+    }
+
+    /**
+     * Connection whose prepared statements fail on execution
+     */
+    private static Connection failingConnection(SQLException exception) {
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(ExecutionOutcomeTest.class.getClassLoader(),
+                new Class[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        throw exception;
+                    }
+                    return null;
+                });
+        return (Connection) Proxy.newProxyInstance(ExecutionOutcomeTest.class.getClassLoader(),
+                new Class[]{Connection.class}, (proxy, method, args) ->
+                        method.getName().equals("prepareStatement") ? statement : null);
+    }
+
+    @Test
+    public void testFailedExecution() throws SQLException {
+        // Given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SQLTimeoutException exception = new SQLTimeoutException("Timeout");
+        Connection connection = MetricsSql.forRegistry(meterRegistry)
+                .wrap(failingConnection(exception));
+        PreparedStatement statement = connection.prepareStatement("select * from METRICS_TEST");
+        // When
+        for (int i = 0; i < 2; i++) {
+            try {
+                statement.executeQuery();
+                fail("Exception expected");
+            } catch (SQLException e) {
+                assertSame(exception, e);
+            }
+        }
+        // Then
+        assertEquals(2L, meterRegistry.get("java.sql.PreparedStatement.[select * from metrics_test].exec")
+                .tag("outcome", "timeout").timer().count());
+        assertNull(meterRegistry.find("java.sql.PreparedStatement.[select * from metrics_test].exec")
+                .tag("outcome", "success").timer());
+    }
+
+    @Test
+    public void testSampledExecution() throws SQLException {
+        // Given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Connection connection = MetricsSql.forRegistry(meterRegistry)
+                .withSampling(SamplingRates.of(0.0D))
+                .wrap(failingConnection(new SQLTransactionRollbackException("Deadlock")));
+        PreparedStatement statement = connection.prepareStatement("select * from METRICS_TEST");
+        // When
+        for (int i = 0; i < 3; i++) {
+            try {
+                statement.executeQuery();
+                fail("Exception expected");
+            } catch (SQLException e) {
+            }
+        }
+        // Then
+        assertEquals(3.0D, meterRegistry.get("java.sql.PreparedStatement.[select * from metrics_test].exec.count")
+                .tag("outcome", "rollback").counter().count(), 0.1D);
+        assertNull(meterRegistry.find("java.sql.PreparedStatement.[select * from metrics_test].exec.count")
+                .tag("outcome", "success").counter());
+        assertNull(meterRegistry.find("java.sql.PreparedStatement.[select * from metrics_test].exec").timer());
+    }
+
+    @Test
+    public void testFailedExecutionLimited() throws SQLException {
+        // Given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JdbcProxyFactory proxyFactory = MetricsSql.forRegistry(meterRegistry)
+                .withMaximumSqlIds(1)
+                .build();
+        Connection connection = proxyFactory.wrapConnection(failingConnection(new SQLTimeoutException("Timeout")));
+        // When
+        for (int i = 0; i < 2; i++) {
+            try {
+                connection.prepareStatement("select " + i).executeQuery();
+                fail("Exception expected");
+            } catch (SQLException e) {
+            }
+        }
+        // Then
+        assertEquals(1L, meterRegistry.get("java.sql.PreparedStatement.[select 0].exec")
+                .tag("outcome", "timeout").timer().count());
+        assertEquals(1L, meterRegistry.get("java.sql.PreparedStatement.[other].exec")
+                .tag("outcome", "timeout").timer().count());
+        CardinalityLimiter limiter = proxyFactory.getMetricHelper().getLimiter(QueryMeter.PREPARED_STATEMENT_EXECUTE_TIMEOUT_TIMER);
+        assertEquals(1, limiter.size());
+        assertEquals(1L, limiter.getOverflowCount());
+    }
+}
@@ -70,7 +70,7 @@ public class FilteringMetricNamingStrategyTest {
         final SortedMap<String, Timer> timers = meterRegistry.getDropwizardRegistry().getTimers();
         assertNull(timers.get("java.sql.Connection"));
         assertNull(timers.get("java.sql.PreparedStatement.[select * from metrics_test]"));
-        assertNotNull(timers.get("java.sql.PreparedStatement.[select * from metrics_test].exec"));
+        assertNotNull(timers.get("java.sql.PreparedStatement.[select * from metrics_test].exec.outcome.success"));
         assertNotNull(timers.get("java.sql.ResultSet.[select * from metrics_test]"));
     }
     @Test
@@ -85,7 +85,7 @@ public class FilteringMetricNamingStrategyTest {
         final SortedMap<String, Timer> timers = meterRegistry.getDropwizardRegistry().getTimers();
         assertNull(timers.get("java.sql.Connection"));
         assertNull(timers.get("java.sql.CallableStatement.[select * from metrics_test]"));
-        assertNotNull(timers.get("java.sql.CallableStatement.[select * from metrics_test].exec"));
+        assertNotNull(timers.get("java.sql.CallableStatement.[select * from metrics_test].exec.outcome.success"));
         assertNotNull(timers.get("java.sql.ResultSet.[select * from metrics_test]"));
     }
 }
@@ -0,0 +1,85 @@
+package com.github.gquintana.metrics.sql;
+
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.*;
+
+public class FingerprintMetricNamingStrategyTest {
+
+    @Test
+    public void testSqlId() throws Exception {
+        // Given
+        FingerprintMetricNamingStrategy namingStrategy = new FingerprintMetricNamingStrategy("test");
+        // When
+        String sqlId1 = namingStrategy.getSqlId("select * from METRICS_TEST where ID=42");
+        String sqlId2 = namingStrategy.getSqlId("SELECT * FROM metrics_test WHERE ID=43");
+        String sqlId3 = namingStrategy.getSqlId("select * from METRICS_TEST order by ID");
+        // Then
+        assertTrue(sqlId1.matches("\\[[0-9a-f]{16}\\]"));
+        assertThat(sqlId2, equalTo(sqlId1));
+        assertNotEquals(sqlId1, sqlId3);
+        assertThat(namingStrategy.getStatementExecuteTimer(null, sqlId1), equalTo("java.sql.Statement.test." + sqlId1 + ".exec"));
+        assertThat(namingStrategy.getSql(sqlId1), equalTo("select * from metrics_test where id=?"));
+        assertThat(namingStrategy.getSql(sqlId3.substring(1, 17)), equalTo("select * from metrics_test order by id"));
+        assertEquals(2L, namingStrategy.getSqlTextCount());
+    }
+
+    @Test
+    public void testMaximumSize() throws Exception {
+        // Given
+        FingerprintMetricNamingStrategy namingStrategy = FingerprintMetricNamingStrategy.builder()
+                .withMaximumSize(10)
+                .build();
+        // When
+        for (int i = 0; i < 100; i++) {
+            namingStrategy.getSqlId("select * from METRICS_TEST_" + i);
+        }
+        // Then
+        assertTrue(namingStrategy.getSqlTextCount() <= 10L);
+        Map<String, String> sqlTexts = namingStrategy.getSqlTexts();
+        assertEquals(namingStrategy.getSqlTextCount(), sqlTexts.size());
+    }
+
+    @Test
+    public void testLongSql() throws Exception {
+        // Given
+        FingerprintMetricNamingStrategy namingStrategy = FingerprintMetricNamingStrategy.builder()
+                .withMaxLength(30)
+                .build();
+        String sqlPrefix = "select * from METRICS_TEST where ID=42 and NAME='";
+        // When
+        String sqlId1 = namingStrategy.getSqlId(sqlPrefix + "A' order by ID");
+        String sqlId2 = namingStrategy.getSqlId(sqlPrefix + "B' order by ID");
+        String sqlId3 = namingStrategy.getSqlId(sqlPrefix + "A' order by NAME");
+        // Then
+        assertThat(sqlId2, equalTo(sqlId1));
+        assertNotEquals(sqlId1, sqlId3);
+        assertThat(namingStrategy.getSql(sqlId1), equalTo("select * from metrics_test whe"));
+        assertThat(namingStrategy.getSql(sqlId3), equalTo("select * from metrics_test whe"));
+    }
+
+    @Test
+    public void testMBean() throws Exception {
+        // Given
+        FingerprintMetricNamingStrategy namingStrategy = new FingerprintMetricNamingStrategy();
+        String sqlId = namingStrategy.getSqlId("select * from METRICS_TEST where ID=42");
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("com.github.gquintana.metrics:type=FingerprintMetricNamingStrategy,name=test");
+        // When
+        mBeanServer.registerMBean(namingStrategy, objectName);
+        try {
+            // Then
+            assertEquals(1L, mBeanServer.getAttribute(objectName, "SqlTextCount"));
+            Object sql = mBeanServer.invoke(objectName, "getSql", new Object[]{sqlId}, new String[]{String.class.getName()});
+            assertEquals("select * from metrics_test where id=?", sql);
+        } finally {
+            mBeanServer.unregisterMBean(objectName);
+        }
+    }
+}
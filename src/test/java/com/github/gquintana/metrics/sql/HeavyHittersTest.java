@@ -0,0 +1,152 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.sql.stub.StubConnection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check heavy hitters tracking
+ */
+public class HeavyHittersTest {
+    private static Query query(String name) {
+        return new Query("select " + name, "[select " + name + "]");
+    }
+
+    @Test
+    public void testReplaceLowest() {
+        // Given
+        HeavyHitters heavyHitters = new HeavyHitters(3);
+        // When
+        for (int i = 0; i < 5; i++) {
+            heavyHitters.record(query("a"), 100L);
+        }
+        heavyHitters.record(query("b"), 50L);
+        heavyHitters.record(query("c"), 10L);
+        heavyHitters.record(query("d"), 1L);
+        // Then
+        List<HeavyHitter> topQueries = heavyHitters.getTopQueries();
+        assertEquals(3, topQueries.size());
+        assertEquals("[select a]", topQueries.get(0).getSqlId());
+        assertEquals(500L, topQueries.get(0).getTotalNanos());
+        assertEquals(5L, topQueries.get(0).getCount());
+        assertEquals(100L, topQueries.get(0).getMaxNanos());
+        assertEquals("[select b]", topQueries.get(1).getSqlId());
+        HeavyHitter replacing = topQueries.get(2);
+        assertEquals("[select d]", replacing.getSqlId());
+        assertEquals(11L, replacing.getTotalNanos());
+        assertEquals(10L, replacing.getErrorNanos());
+        assertEquals(1L, replacing.getCount());
+    }
+
+    @Test
+    public void testSkewedWorkload() {
+        // Given
+        HeavyHitters heavyHitters = new HeavyHitters(20);
+        // When
+        for (int i = 0; i < 10000; i++) {
+            heavyHitters.record(query("rare" + i), 1L);
+            if (i % 10 == 0) {
+                heavyHitters.record(query("hot" + (i % 30)), 1000L);
+            }
+        }
+        // Then
+        List<HeavyHitter> topQueries = heavyHitters.getTopQueries(3);
+        assertEquals(3, topQueries.size());
+        for (HeavyHitter heavyHitter : topQueries) {
+            assertTrue(heavyHitter.getSqlId().startsWith("[select hot"));
+        }
+    }
+
+    @Test
+    public void testStripes() throws Exception {
+        // Given
+        HeavyHitters heavyHitters = new HeavyHitters(64, 4);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    heavyHitters.record(query("q" + (i % 8)), 1L + i % 8);
+                }
+            }));
+        }
+        // When
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // Then
+        assertEquals(4, heavyHitters.getStripes());
+        List<HeavyHitter> topQueries = heavyHitters.getTopQueries(3);
+        assertEquals(3, topQueries.size());
+        assertEquals("[select q7]", topQueries.get(0).getSqlId());
+        assertEquals(4 * 1250L * 8L, topQueries.get(0).getTotalNanos());
+        assertEquals(5000L, topQueries.get(0).getCount());
+        assertEquals("[select q6]", topQueries.get(1).getSqlId());
+        assertEquals("[select q5]", topQueries.get(2).getSqlId());
+        assertEquals(8, heavyHitters.getTopQueries().size());
+    }
+
+    @Test
+    public void testWrap() throws Exception {
+        // Given
+        HeavyHitters heavyHitters = new HeavyHitters();
+        Connection connection = MetricsSql.forRegistry(new SimpleMeterRegistry())
+                .withHeavyHitters(heavyHitters)
+                .wrap(new StubConnection(1));
+        // When
+        try (PreparedStatement statement = connection.prepareStatement("select * from METRICS_TEST")) {
+            for (int i = 0; i < 3; i++) {
+                statement.execute();
+            }
+        }
+        connection.close();
+        // Then
+        List<HeavyHitter> topQueries = heavyHitters.getTopQueries(10);
+        assertEquals(1, topQueries.size());
+        assertEquals("[select * from metrics_test]", topQueries.get(0).getSqlId());
+        assertEquals(3L, topQueries.get(0).getCount());
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("com.github.gquintana.metrics:type=HeavyHitters,name=test");
+        mBeanServer.registerMBean(heavyHitters, objectName);
+        try {
+            CompositeData[] jmxTopQueries = (CompositeData[]) mBeanServer.getAttribute(objectName, "TopQueries");
+            assertEquals(3L, jmxTopQueries[0].get("count"));
+        } finally {
+            mBeanServer.unregisterMBean(objectName);
+        }
+    }
+}
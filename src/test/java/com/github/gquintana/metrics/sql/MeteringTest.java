@@ -132,19 +132,19 @@ public class MeteringTest {
         // statement
         timer = dropwizardMetricRegistry.timer("java.sql.Statement");
         assertThat(timer.getCount(), equalTo((long) iterations));
-        timer = dropwizardMetricRegistry.timer("java.sql.Statement.[select count(*) from metrics_test].exec");
+        timer = dropwizardMetricRegistry.timer("java.sql.Statement.[select count(*) from metrics_test].exec.outcome.success");
         assertThat(timer.getCount(), equalTo((long) iterations));
-        timer = dropwizardMetricRegistry.timer("java.sql.Statement.[select * from metrics_test order by id asc].exec");
+        timer = dropwizardMetricRegistry.timer("java.sql.Statement.[select * from metrics_test order by id asc].exec.outcome.success");
         assertThat(timer.getCount(), equalTo((long) iterations));
 
         // prepared statement
-        timer = dropwizardMetricRegistry.timer("java.sql.PreparedStatement.[insert into metrics_test(id, text, created) values (?,?,?)].exec");
+        timer = dropwizardMetricRegistry.timer("java.sql.PreparedStatement.[insert into metrics_test(id, text, created) values (?,?,?)].exec.outcome.success");
         assertThat(timer.getCount(), equalTo((long) iterations * inserts));
 
         timer = dropwizardMetricRegistry.timer("java.sql.PreparedStatement.[insert into metrics_test(id, text, created) values (?,?,?)]");
         assertThat(timer.getCount(), equalTo((long) iterations));
 
-        timer = dropwizardMetricRegistry.timer("java.sql.PreparedStatement.[select * from metrics_test where text=? order by id asc].exec");
+        timer = dropwizardMetricRegistry.timer("java.sql.PreparedStatement.[select * from metrics_test where text=? order by id asc].exec.outcome.success");
         assertThat(timer.getCount(), equalTo((long) iterations));
         Snapshot timerSnapshot = timer.getSnapshot();
         double preparedStatementExecMean = timerSnapshot.getMean();
@@ -0,0 +1,114 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.sql.stub.StubConnection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Check that meters are resolved once per query
+ */
+public class MetricHelperTest {
+    /**
+     * Naming strategy counting generated names
+     */
+    private static class CountingMetricNamingStrategy extends DefaultMetricNamingStrategy {
+        private final AtomicInteger executeTimerCount = new AtomicInteger();
+        private final AtomicInteger rowMeterCount = new AtomicInteger();
+        private final AtomicInteger statementLifeTimerCount = new AtomicInteger();
+
+        @Override
+        public String getPreparedStatementExecuteTimer(String sql, String sqlId) {
+            executeTimerCount.incrementAndGet();
+            return super.getPreparedStatementExecuteTimer(sql, sqlId);
+        }
+
+        @Override
+        public String getResultSetRowMeter(String sql, String sqlId) {
+            rowMeterCount.incrementAndGet();
+            return super.getResultSetRowMeter(sql, sqlId);
+        }
+
+        @Override
+        public String getStatementLifeTimer() {
+            statementLifeTimerCount.incrementAndGet();
+            return null;
+        }
+    }
+
+    private MeterRegistry meterRegistry;
+    private CountingMetricNamingStrategy namingStrategy;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        namingStrategy = new CountingMetricNamingStrategy();
+    }
+
+    @Test
+    public void testQueryMetersResolvedOnce() throws SQLException {
+        // Given
+        Connection connection = MetricsSql.forRegistry(meterRegistry)
+                .withNamingStrategy(namingStrategy)
+                .wrap(new StubConnection(10));
+        PreparedStatement statement = connection.prepareStatement("select * from METRICS_TEST");
+        // When
+        for (int i = 0; i < 3; i++) {
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                }
+            }
+        }
+        H2DbUtil.close(statement, connection);
+        // Then
+        assertEquals(1, namingStrategy.executeTimerCount.get());
+        assertEquals(1, namingStrategy.rowMeterCount.get());
+        assertEquals(3L, meterRegistry.get("java.sql.PreparedStatement.[select * from metrics_test].exec").timer().count());
+        assertEquals(30.0D, meterRegistry.get("java.sql.ResultSet.[select * from metrics_test].rows").counter().count(), 0.1D);
+    }
+
+    @Test
+    public void testDisabledMeterResolvedOnce() throws SQLException {
+        // Given
+        Connection connection = MetricsSql.forRegistry(meterRegistry)
+                .withNamingStrategy(namingStrategy)
+                .wrap(new StubConnection(10));
+        // When
+        for (int i = 0; i < 3; i++) {
+            connection.createStatement().close();
+        }
+        connection.close();
+        // Then
+        assertEquals(1, namingStrategy.statementLifeTimerCount.get());
+        assertEquals(0, meterRegistry.find("java.sql.Statement").timers().size());
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.gquintana.metrics.sql;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.*;
+
+public class NormalizingMetricNamingStrategyTest {
+
+    @Test
+    public void testDefault() throws Exception {
+        // Given
+        NormalizingMetricNamingStrategy namingStrategy = new NormalizingMetricNamingStrategy();
+        // When
+        String sqlId1 = namingStrategy.getSqlId("select * from METRICS_TEST where ID=42");
+        String sqlId2 = namingStrategy.getSqlId("SELECT *\n FROM metrics_test WHERE id = 43 -- other");
+        String executeTimer = namingStrategy.getStatementExecuteTimer(null, sqlId1);
+        // Then
+        assertThat(sqlId1, equalTo("[select * from metrics_test where id=?]"));
+        assertThat(sqlId2, equalTo("[select * from metrics_test where id = ?]"));
+        assertThat(executeTimer, equalTo("java.sql.Statement.[select * from metrics_test where id=?].exec"));
+    }
+
+    @Test
+    public void testBuilder() throws Exception {
+        // Given
+        NormalizingMetricNamingStrategy namingStrategy = NormalizingMetricNamingStrategy.builder()
+                .withDatabaseName("test")
+                .withMaxLength(20)
+                .build();
+        // When
+        String sqlId = namingStrategy.getSqlId("select * from METRICS_TEST where ID in (1, 2, 3)");
+        String connectionLifeTimer = namingStrategy.getConnectionLifeTimer();
+        // Then
+        assertThat(sqlId, equalTo("[select * from metric]"));
+        assertThat(connectionLifeTimer, equalTo("java.sql.Connection.test"));
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.backend.MeterName;
+import com.github.gquintana.metrics.backend.MicrometerMetricsBackend;
+import com.github.gquintana.metrics.backend.Timer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check overhead controller transitions
+ */
+public class OverheadControllerTest {
+    private static final int WINDOW_SIZE = 5;
+    private MeterRegistry meterRegistry;
+    private MicrometerMetricsBackend backend;
+    private OverheadController overheadController;
+    private Timer timer;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        backend = new MicrometerMetricsBackend(meterRegistry);
+        overheadController = new OverheadController(0.02D, WINDOW_SIZE, backend);
+        timer = backend.timer(MeterName.of("test.exec"));
+    }
+
+    /**
+     * Simulate executions where instrumentation started long before the statement
+     */
+    private void observeCostly() {
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            overheadController.startObservation(timer, System.nanoTime() - 1000000000L).close();
+        }
+    }
+
+    /**
+     * Simulate executions where the statement lasts much longer than instrumentation
+     */
+    private void observeCheap() throws InterruptedException {
+        for (int i = 0; i < WINDOW_SIZE; i++) {
+            TimeObservation observation = overheadController.startObservation(timer, System.nanoTime());
+            Thread.sleep(20L);
+            observation.close();
+        }
+    }
+
+    private double transitionCount(String mode) {
+        return meterRegistry.get("metrics-sql.overhead.transitions").tag("mode", mode).counter().count();
+    }
+
+    @Test
+    public void testDegrade() {
+        // When
+        observeCostly();
+        // Then
+        assertEquals(OverheadController.Mode.SAMPLED, overheadController.getMode());
+        assertEquals(0.1D, overheadController.getSamplingRate(1.0D), 0.001D);
+        assertTrue(overheadController.getOverheadRatio() > 0.02D);
+        // When
+        observeCostly();
+        // Then
+        assertEquals(OverheadController.Mode.COUNTED, overheadController.getMode());
+        assertEquals(0.0D, overheadController.getSamplingRate(1.0D), 0.001D);
+        assertEquals(2.0D, meterRegistry.get("metrics-sql.overhead.mode").gauge().value(), 0.1D);
+        assertEquals(1.0D, transitionCount("sampled"), 0.1D);
+        assertEquals(1.0D, transitionCount("counted"), 0.1D);
+        assertEquals(2L * WINDOW_SIZE, timer.count());
+    }
+
+    @Test
+    public void testProbeAndRecover() throws InterruptedException {
+        // Given
+        observeCostly();
+        observeCostly();
+        // When
+        for (int i = 0; i < 10 * WINDOW_SIZE; i++) {
+            overheadController.skip();
+        }
+        // Then
+        assertEquals(OverheadController.Mode.SAMPLED, overheadController.getMode());
+        // When
+        observeCheap();
+        // Then
+        assertEquals(OverheadController.Mode.FULL, overheadController.getMode());
+        assertEquals(1.0D, overheadController.getSamplingRate(1.0D), 0.001D);
+        assertEquals(1.0D, transitionCount("full"), 0.1D);
+        assertEquals(2.0D, transitionCount("sampled"), 0.1D);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBudget() {
+        new OverheadController(0.0D, WINDOW_SIZE, backend);
+    }
+}
@@ -20,10 +20,12 @@ package com.github.gquintana.metrics.sql;
  * #L%
  */
 
+import com.github.gquintana.metrics.proxy.ByteBuddyProxyFactory;
 import com.github.gquintana.metrics.proxy.CGLibProxyFactory;
 import com.github.gquintana.metrics.proxy.CachingProxyFactory;
 import com.github.gquintana.metrics.proxy.ProxyFactory;
 import com.github.gquintana.metrics.proxy.ReflectProxyFactory;
+import com.github.gquintana.metrics.sql.wrapper.JdbcWrapperProxyFactory;
 import com.github.gquintana.metrics.util.ParametersBuilder;
 import io.micrometer.core.instrument.dropwizard.DropwizardMeterRegistry;
 import org.junit.After;
@@ -62,6 +64,8 @@ public class PerformanceTest {
                 .add("reflect", new ReflectProxyFactory())
                 .add("cglib", new CGLibProxyFactory())
                 .add("caching",new CachingProxyFactory())
+                .add("bytebuddy", new ByteBuddyProxyFactory())
+                .add("wrapper", new JdbcWrapperProxyFactory())
                 .add("raw", null)
                 .build();
     }
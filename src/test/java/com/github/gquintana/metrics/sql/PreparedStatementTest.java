@@ -80,7 +80,7 @@ public class PreparedStatementTest {
         // Assert
         assertNotNull(connection);
         assertTrue(Proxy.isProxyClass(resultSet.getClass()));
-        assertNotNull(meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlPreparedStatement[select * from metrics_test]Exec"));
+        assertNotNull(meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlPreparedStatement[select * from metrics_test]Exec.outcome.success"));
         
     }
     @Test(expected = Exception.class)
@@ -93,7 +93,7 @@ public class PreparedStatementTest {
         // Assert
         assertNotNull(connection);
         assertTrue(Proxy.isProxyClass(resultSet.getClass()));
-        assertNotNull(meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlPreparedStatement[select * from metrics_test order by created desc]Exec"));
+        assertNotNull(meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlPreparedStatement[select * from metrics_test order by created desc]Exec.outcome.success"));
         
     }
 
@@ -108,7 +108,7 @@ public class PreparedStatementTest {
         // Assert
         assertNotNull(connection);
         assertTrue(Proxy.isProxyClass(resultSet.getClass()));
-        assertEquals(1, meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlPreparedStatement[select * from metrics_test order by id]Exec").getCount());
+        assertEquals(1, meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlPreparedStatement[select * from metrics_test order by id]Exec.outcome.success").getCount());
     }
 
 }
@@ -0,0 +1,102 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.sql.stub.StubConnection;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Check result set rows counting
+ */
+public class ResultSetProxyHandlerTest {
+    private static final String ROW_METER = "java.sql.ResultSet.[select * from metrics_test].rows";
+    private static final String ROW_SUMMARY = "java.sql.ResultSet.[select * from metrics_test].size";
+    private MeterRegistry meterRegistry;
+    private Connection connection;
+    private PreparedStatement statement;
+
+    @Before
+    public void setUp() throws SQLException {
+        meterRegistry = new SimpleMeterRegistry();
+        connection = MetricsSql.forRegistry(meterRegistry)
+                .wrap(new StubConnection(3000));
+        statement = connection.prepareStatement("select * from METRICS_TEST");
+    }
+
+    @After
+    public void tearDown() {
+        H2DbUtil.close(statement, connection);
+    }
+
+    private double getRowCount() {
+        return meterRegistry.get(ROW_METER).counter().count();
+    }
+
+    @Test
+    public void testWholeResultSet() throws SQLException {
+        // When
+        for (int i = 0; i < 2; i++) {
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                }
+            }
+        }
+        // Then
+        assertEquals(6000.0D, getRowCount(), 0.1D);
+        DistributionSummary summary = meterRegistry.get(ROW_SUMMARY).summary();
+        assertEquals(2L, summary.count());
+        assertEquals(6000.0D, summary.totalAmount(), 0.1D);
+    }
+
+    @Test
+    public void testPartialResultSet() throws SQLException {
+        // Given
+        ResultSet resultSet = statement.executeQuery();
+        // When
+        for (int i = 0; i < 1500; i++) {
+            resultSet.next();
+        }
+        // Then
+        assertEquals(ResultSetProxyHandler.ROW_FLUSH_THRESHOLD, getRowCount(), 0.1D);
+        assertNull(meterRegistry.find(ROW_SUMMARY).summary());
+        // When
+        resultSet.close();
+        resultSet.close();
+        // Then
+        assertEquals(1500.0D, getRowCount(), 0.1D);
+        DistributionSummary summary = meterRegistry.get(ROW_SUMMARY).summary();
+        assertEquals(1L, summary.count());
+        assertEquals(1500.0D, summary.totalAmount(), 0.1D);
+    }
+}
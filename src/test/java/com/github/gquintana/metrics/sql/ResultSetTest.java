@@ -78,7 +78,7 @@ public class ResultSetTest {
         assertEquals(1L, timer.getCount());
         Meter meter = meterRegistry.getDropwizardRegistry().meter("javaSqlResultSet[select * from metrics_test]Rows");
         assertNotNull(meter);
-        assertEquals(11L, meter.getCount());
+        assertEquals(10L, meter.getCount());
     }
     @Test
     public void testResultSetUnwrap() throws SQLException {
@@ -0,0 +1,118 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.sql.stub.StubConnection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Check sampling of statement execution timers
+ */
+public class SamplingTest {
+    private MeterRegistry meterRegistry;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testParse() {
+        // When
+        SamplingRates samplingRates = SamplingRates.parse("0.1, callable_statement:1,prepared_statement:0.5");
+        // Then
+        assertEquals(0.1D, samplingRates.getStatementRate(), 0.001D);
+        assertEquals(0.5D, samplingRates.getPreparedStatementRate(), 0.001D);
+        assertEquals(1.0D, samplingRates.getCallableStatementRate(), 0.001D);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalidRate() {
+        SamplingRates.parse("1.5");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalidType() {
+        SamplingRates.parse("result_set:0.5");
+    }
+
+    @Test
+    public void testNoSampling() throws SQLException {
+        // Given
+        Connection connection = MetricsSql.forRegistry(meterRegistry)
+                .wrap(new StubConnection(1));
+        // When
+        try (Statement statement = connection.createStatement()) {
+            for (int i = 0; i < 5; i++) {
+                statement.execute("select * from METRICS_TEST");
+            }
+        }
+        connection.close();
+        // Then
+        assertEquals(5L, meterRegistry.get("java.sql.Statement.[select * from metrics_test].exec").timer().count());
+        assertNull(meterRegistry.find("java.sql.Statement.[select * from metrics_test].exec.count").counter());
+    }
+
+    @Test
+    public void testSamplingCountsEveryExecution() throws SQLException {
+        // Given
+        Connection connection = MetricsSql.forRegistry(meterRegistry)
+                .withSampling(SamplingRates.of(0.0D))
+                .wrap(new StubConnection(1));
+        PreparedStatement statement = connection.prepareStatement("select * from METRICS_TEST");
+        // When
+        for (int i = 0; i < 5; i++) {
+            statement.execute();
+        }
+        H2DbUtil.close(statement, connection);
+        // Then
+        assertEquals(5.0D, meterRegistry.get("java.sql.PreparedStatement.[select * from metrics_test].exec.count").counter().count(), 0.1D);
+        assertNull(meterRegistry.find("java.sql.PreparedStatement.[select * from metrics_test].exec").timer());
+    }
+
+    @Test
+    public void testAdaptiveSamplingCountsEveryExecution() throws SQLException {
+        // Given
+        Connection connection = MetricsSql.forRegistry(meterRegistry)
+                .withAdaptiveSampling(0.02D)
+                .wrap(new StubConnection(1));
+        PreparedStatement statement = connection.prepareStatement("select * from METRICS_TEST");
+        // When
+        for (int i = 0; i < 5; i++) {
+            statement.execute();
+        }
+        H2DbUtil.close(statement, connection);
+        // Then
+        assertEquals(5.0D, meterRegistry.get("java.sql.PreparedStatement.[select * from metrics_test].exec.count").counter().count(), 0.1D);
+        assertEquals(5L, meterRegistry.get("java.sql.PreparedStatement.[select * from metrics_test].exec").timer().count());
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.sql.stub.StubConnection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Check slow query capture
+ */
+public class SlowQueryLogTest {
+    private final List<SlowQuery> drained = new ArrayList<>();
+
+    @Test
+    public void testThreshold() {
+        // Given
+        SlowQueryLog slowQueryLog = new SlowQueryLog(10, TimeUnit.MILLISECONDS).addListener(drained::add);
+        // When
+        slowQueryLog.offer(new Query("select 1", "[select 1]"), TimeUnit.MILLISECONDS.toNanos(5));
+        slowQueryLog.offer(new Query("select 2", "[select 2]"), TimeUnit.MILLISECONDS.toNanos(15));
+        // Then
+        assertEquals(1, slowQueryLog.drain());
+        assertEquals(1, drained.size());
+        SlowQuery slowQuery = drained.get(0);
+        assertEquals("select 2", slowQuery.getSql());
+        assertEquals("[select 2]", slowQuery.getSqlId());
+        assertEquals(15L, TimeUnit.NANOSECONDS.toMillis(slowQuery.getElapsedNanos()));
+        assertEquals(Thread.currentThread().getName(), slowQuery.getThreadName());
+        assertEquals(0, slowQueryLog.drain());
+    }
+
+    @Test
+    public void testOverwrite() {
+        // Given
+        SlowQueryLog slowQueryLog = new SlowQueryLog(0, TimeUnit.MILLISECONDS, 3).addListener(drained::add);
+        // When
+        for (int i = 0; i < 6; i++) {
+            slowQueryLog.offer(new Query("select " + i, "[select " + i + "]"), 1L);
+        }
+        // Then
+        assertEquals(4, slowQueryLog.getSlowQueries().size());
+        assertEquals("select 2", slowQueryLog.getSlowQueries().get(0).getSql());
+        assertEquals(4, slowQueryLog.drain());
+        assertEquals("select 5", drained.get(3).getSql());
+        assertEquals(6L, slowQueryLog.getCaptureCount());
+        assertEquals(2L, slowQueryLog.getDropCount());
+    }
+
+    @Test
+    public void testJmx() throws Exception {
+        // Given
+        SlowQueryLog slowQueryLog = new SlowQueryLog(0, TimeUnit.MILLISECONDS);
+        slowQueryLog.offer(new Query("select 1", "[select 1]"), 1L);
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("com.github.gquintana.metrics:type=SlowQueryLog,name=test");
+        mBeanServer.registerMBean(slowQueryLog, objectName);
+        try {
+            // When
+            CompositeData[] slowQueries = (CompositeData[]) mBeanServer.getAttribute(objectName, "SlowQueries");
+            // Then
+            assertEquals(1, slowQueries.length);
+            assertEquals("select 1", slowQueries[0].get("sql"));
+            assertEquals(1L, mBeanServer.getAttribute(objectName, "CaptureCount"));
+        } finally {
+            mBeanServer.unregisterMBean(objectName);
+        }
+    }
+
+    @Test
+    public void testWrap() throws SQLException {
+        // Given
+        SlowQueryLog slowQueryLog = new SlowQueryLog(0, TimeUnit.MILLISECONDS).addListener(drained::add);
+        Connection connection = MetricsSql.forRegistry(new SimpleMeterRegistry())
+                .withSampling(0.0D)
+                .withSlowQueryLog(slowQueryLog)
+                .wrap(new StubConnection(1));
+        // When
+        try (PreparedStatement statement = connection.prepareStatement("select * from METRICS_TEST")) {
+            statement.execute();
+        }
+        connection.close();
+        slowQueryLog.close();
+        // Then
+        assertEquals(1, drained.size());
+        assertEquals("[select * from metrics_test]", drained.get(0).getSqlId());
+        assertTrue(drained.get(0).getElapsedNanos() >= 0L);
+    }
+}
@@ -80,7 +80,7 @@ public class StatementTest {
         // Assert
         assertNotNull(connection);
         assertTrue(Proxy.isProxyClass(resultSet.getClass()));
-        assertEquals(1, meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlStatement[select * from metrics_test]Exec").getCount());
+        assertEquals(1, meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlStatement[select * from metrics_test]Exec.outcome.success").getCount());
         
     }
 
@@ -95,7 +95,7 @@ public class StatementTest {
         // Assert
         assertNotNull(connection);
         assertTrue(Proxy.isProxyClass(resultSet.getClass()));
-        assertEquals(1, meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlStatement[select * from metrics_test order by id]Exec").getCount());
+        assertEquals(1, meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlStatement[select * from metrics_test order by id]Exec.outcome.success").getCount());
     }
 
     @Test
@@ -112,7 +112,7 @@ public class StatementTest {
         
         H2DbUtil.close(resultSet, statement, connection);
         // Assert
-        assertEquals(0, meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlStatement[select * from unknown_table]Exec").getCount());
+        assertEquals(1, meterRegistry.getDropwizardRegistry().getTimers().get("javaSqlStatement[select * from unknown_table]Exec.outcome.error").getCount());
         
     }
 }
@@ -0,0 +1,232 @@
+package com.github.gquintana.metrics.sql;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.sql.stub.StubConnection;
+import com.github.gquintana.metrics.sql.stub.StubDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Integration test between the stub JDBC driver and metrics-sql
+ */
+public class StubDriverTest {
+    /**
+     * Naming strategy counting its instances
+     */
+    public static class CountingMetricNamingStrategy extends DefaultMetricNamingStrategy {
+        private static final AtomicInteger INSTANCE_COUNT = new AtomicInteger();
+
+        public CountingMetricNamingStrategy() {
+            INSTANCE_COUNT.incrementAndGet();
+        }
+    }
+
+    private MeterRegistry meterRegistry;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private static int readWholeResultSet(ResultSet resultSet) throws SQLException {
+        int rows = 0;
+        while (resultSet.next()) {
+            assertEquals(rows + 1, resultSet.getInt("ID"));
+            assertEquals("Text " + (rows + 1), resultSet.getString("TEXT"));
+            rows++;
+        }
+        return rows;
+    }
+
+    @Test
+    public void testDataSource() throws SQLException {
+        // Given
+        DataSource dataSource = MetricsSql.forRegistry(meterRegistry)
+                .wrap(new StubDataSource(3));
+        // When
+        int rows;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select * from METRICS_TEST");
+             ResultSet resultSet = statement.executeQuery()) {
+            rows = readWholeResultSet(resultSet);
+        }
+        // Then
+        assertEquals(3, rows);
+        assertEquals(1L, meterRegistry.get("java.sql.PreparedStatement.[select * from metrics_test].exec").timer().count());
+    }
+
+    @Test
+    public void testDriver() throws SQLException {
+        // When
+        int rows;
+        try (Connection connection = DriverManager.getConnection("jdbc:metrics:stub:test;rows=5");
+             PreparedStatement statement = connection.prepareStatement("select * from METRICS_TEST");
+             ResultSet resultSet = statement.executeQuery()) {
+            // Then
+            assertTrue(Proxy.isProxyClass(connection.getClass()));
+            assertTrue(connection.isWrapperFor(StubConnection.class));
+            rows = readWholeResultSet(resultSet);
+        }
+        assertEquals(5, rows);
+    }
+
+    @Test
+    public void testDriverFactoryReused() throws SQLException {
+        // Given
+        MeterRegistry previousRegistry = Driver.getMeterRegistry();
+        Driver.setMeterRegistry(meterRegistry);
+        String url = "jdbc:metrics:stub:reused;rows=1;metrics_naming_strategy=" + CountingMetricNamingStrategy.class.getName();
+        int instanceCount = CountingMetricNamingStrategy.INSTANCE_COUNT.get();
+        try {
+            // When
+            for (int i = 0; i < 3; i++) {
+                try (Connection connection = DriverManager.getConnection(url)) {
+                    assertTrue(connection.isWrapperFor(StubConnection.class));
+                }
+            }
+        } finally {
+            Driver.setMeterRegistry(previousRegistry);
+        }
+        // Then
+        assertEquals(instanceCount + 1, CountingMetricNamingStrategy.INSTANCE_COUNT.get());
+        assertEquals(3L, meterRegistry.get("java.sql.Connection.get").timer().count());
+    }
+
+    @Test
+    public void testDriverNamedRegistry() throws SQLException {
+        // Given
+        Driver.setMeterRegistry("stub", meterRegistry);
+        try {
+            // When
+            try (Connection connection = DriverManager.getConnection("jdbc:metrics:stub:named;rows=1;metrics_registry=stub");
+                 PreparedStatement statement = connection.prepareStatement("select * from METRICS_TEST");
+                 ResultSet resultSet = statement.executeQuery()) {
+                readWholeResultSet(resultSet);
+            }
+        } finally {
+            Driver.setMeterRegistry("stub", null);
+        }
+        // Then
+        assertEquals(1L, meterRegistry.get("java.sql.Connection.get").timer().count());
+        assertEquals(1L, meterRegistry.get("java.sql.PreparedStatement.[select * from metrics_test].exec").timer().count());
+    }
+
+    @Test
+    public void testDriverUnboundRegistry() throws SQLException {
+        // Given
+        MeterRegistry previousRegistry = Driver.getMeterRegistry();
+        Driver.setMeterRegistry(meterRegistry);
+        MeterRegistry boundRegistry = new SimpleMeterRegistry();
+        Logger logger = Logger.getLogger("com.github.gquintana.metrics");
+        List<LogRecord> logRecords = new ArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                logRecords.add(record);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        logger.addHandler(handler);
+        String url = "jdbc:metrics:stub:unbound;rows=1;metrics_registry=unbound";
+        try {
+            // When
+            try (Connection connection = DriverManager.getConnection(url)) {
+                assertTrue(connection.isWrapperFor(StubConnection.class));
+            }
+            Driver.setMeterRegistry("unbound", boundRegistry);
+            try (Connection connection = DriverManager.getConnection(url)) {
+                assertTrue(connection.isWrapperFor(StubConnection.class));
+            }
+        } finally {
+            logger.removeHandler(handler);
+            Driver.setMeterRegistry("unbound", null);
+            Driver.setMeterRegistry(previousRegistry);
+        }
+        // Then
+        assertEquals(1L, meterRegistry.get("java.sql.Connection.get").timer().count());
+        assertEquals(1L, boundRegistry.get("java.sql.Connection.get").timer().count());
+        assertSame(previousRegistry, Driver.getMeterRegistry("unbound"));
+        assertEquals(1L, logRecords.stream()
+                .filter(record -> record.getLevel() == Level.WARNING && record.getMessage().contains("unbound"))
+                .count());
+    }
+
+    private static long countSlowQueryLogThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("metrics-sql-slow-query-log"))
+                .count();
+    }
+
+    @Test
+    public void testDriverSlowQueryLogShared() throws SQLException {
+        // Given
+        Driver.setMeterRegistry("slow", meterRegistry);
+        long threadCount = countSlowQueryLogThreads();
+        try {
+            // When
+            for (int i = 0; i < 3; i++) {
+                if (i == 2) {
+                    // Factories are rebuilt when the registry changes
+                    Driver.setMeterRegistry("slow", new SimpleMeterRegistry());
+                }
+                for (String db : new String[]{"slow1", "slow2"}) {
+                    try (Connection connection = DriverManager.getConnection("jdbc:metrics:stub:" + db
+                            + ";rows=1;metrics_registry=slow;metrics_slow_query_threshold=12345")) {
+                        assertTrue(connection.isWrapperFor(StubConnection.class));
+                    }
+                }
+            }
+        } finally {
+            Driver.setMeterRegistry("slow", null);
+        }
+        // Then
+        assertEquals(threadCount + 1L, countSlowQueryLogThreads());
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.gquintana.metrics.sql.stub;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import javax.sql.DataSource;
+
+import java.io.PrintWriter;
+import java.sql.*;
+import java.util.logging.Logger;
+
+/**
+ * {@link DataSource} opening {@link StubConnection}s.
+ */
+public class StubDataSource implements DataSource {
+    private final int rowCount;
+    private int loginTimeout;
+    private PrintWriter logWriter;
+
+    public StubDataSource() {
+        this(StubDriver.DEFAULT_ROW_COUNT);
+    }
+
+    /**
+     * @param rowCount Number of rows returned by each query
+     */
+    public StubDataSource(int rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return new StubConnection(rowCount);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return loginTimeout;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return StubDriver.LOGGER;
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+}
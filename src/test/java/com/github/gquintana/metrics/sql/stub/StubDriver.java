@@ -0,0 +1,98 @@
+package com.github.gquintana.metrics.sql.stub;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC Driver opening {@link StubConnection}s, used to measure metrics-sql overhead
+ * without any real database work.
+ * URL format is {@code jdbc:stub:name} or {@code jdbc:stub:name;rows=100}.
+ * It is reachable through the metrics driver with {@code jdbc:metrics:stub:name}.
+ */
+public class StubDriver implements java.sql.Driver {
+    public static final String URL_PREFIX = "jdbc:stub:";
+    public static final int DEFAULT_ROW_COUNT = 10;
+    static final Logger LOGGER = Logger.getLogger("com.github.gquintana.metrics.sql.stub");
+    private static final Pattern ROWS_PATTERN = Pattern.compile("[;?&]rows=(\\d+)");
+
+    static {
+        try {
+            DriverManager.registerDriver(new StubDriver());
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        return new StubConnection(getRowCount(url, info));
+    }
+
+    private static int getRowCount(String url, Properties info) {
+        Matcher matcher = ROWS_PATTERN.matcher(url);
+        if (matcher.find()) {
+            return Integer.parseInt(matcher.group(1));
+        }
+        String rows = info == null ? null : info.getProperty("rows");
+        return rows == null ? DEFAULT_ROW_COUNT : Integer.parseInt(rows);
+    }
+
+    @Override
+    public boolean acceptsURL(String url) throws SQLException {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return LOGGER;
+    }
+}
@@ -0,0 +1,431 @@
+package com.github.gquintana.metrics.sql.wrapper;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.proxy.ProxyHandler;
+import com.github.gquintana.metrics.sql.CallableStatementProxyHandler;
+import com.github.gquintana.metrics.sql.ConnectionProxyHandler;
+import com.github.gquintana.metrics.sql.DataSourceProxyHandler;
+import com.github.gquintana.metrics.sql.JdbcProxyFactory;
+import com.github.gquintana.metrics.sql.JdbcProxyHandler;
+import com.github.gquintana.metrics.sql.MetricsSql;
+import com.github.gquintana.metrics.sql.PreparedStatementProxyHandler;
+import com.github.gquintana.metrics.sql.Query;
+import com.github.gquintana.metrics.sql.ResultSetProxyHandler;
+import com.github.gquintana.metrics.sql.StatementProxyHandler;
+import com.github.gquintana.metrics.sql.TimeObservation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Generates the {@link JdbcWrapper} sub classes of the {@code com.github.gquintana.metrics.sql.wrapper} package
+ * from the JDBC interfaces and the invocation filters of JDBC proxy handlers.
+ * Methods intercepted by the proxy handler are inlined: they call the delegate and the metric helper directly,
+ * the same way the proxy handler does, without going through {@link ProxyHandler#invoke(Object, Method, Object[])}.
+ * Run it with {@code mvn -Pgenerate-wrappers process-test-classes} after changing
+ * which methods a proxy handler intercepts, {@link JdbcWrapperGeneratorTest} fails when generated
+ * sources are not up to date.
+ */
+public class JdbcWrapperGenerator {
+    static final String PACKAGE_NAME = "com.github.gquintana.metrics.sql.wrapper";
+    /**
+     * Default methods added to JDBC interfaces after Java 8, they can not be implemented while
+     * targeting Java 8, the interface default implementation is used.
+     */
+    private static final Set<String> POST_JAVA_8_METHODS = new HashSet<>(Arrays.asList(
+            "beginRequest", "endRequest", "setShardingKey", "setShardingKeyIfValid",
+            "enquoteLiteral", "enquoteIdentifier", "isSimpleIdentifier", "enquoteNCharLiteral",
+            "createConnectionBuilder", "createShardingKeyBuilder"));
+    private static final String LICENSE_HEADER =
+            "/*\n" +
+            " * #%L\n" +
+            " * Metrics SQL\n" +
+            " * %%\n" +
+            " * Copyright (C) 2014 Open-Source\n" +
+            " * %%\n" +
+            " * Licensed under the Apache License, Version 2.0 (the \"License\");\n" +
+            " * you may not use this file except in compliance with the License.\n" +
+            " * You may obtain a copy of the License at\n" +
+            " * \n" +
+            " *      http://www.apache.org/licenses/LICENSE-2.0\n" +
+            " * \n" +
+            " * Unless required by applicable law or agreed to in writing, software\n" +
+            " * distributed under the License is distributed on an \"AS IS\" BASIS,\n" +
+            " * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.\n" +
+            " * See the License for the specific language governing permissions and\n" +
+            " * limitations under the License.\n" +
+            " * #L%\n" +
+            " */\n";
+    private final Class<?> type;
+    private final Class<?> handlerType;
+    private final ProxyHandler.InvocationFilter invocationFilter;
+    private final Set<String> imports = new TreeSet<>();
+    private final Map<String, Class<?>> importsBySimpleName = new HashMap<>();
+
+    public JdbcWrapperGenerator(Class<?> type, JdbcProxyHandler<?> proxyHandler) {
+        this.type = type;
+        this.handlerType = proxyHandler.getClass();
+        this.invocationFilter = proxyHandler.getInvocationFilter();
+    }
+
+    /**
+     * Generators of all wrappers, indexed by wrapper class simple name
+     */
+    public static Map<String, JdbcWrapperGenerator> createGenerators() {
+        JdbcProxyFactory proxyFactory = MetricsSql.forRegistry(new SimpleMeterRegistry()).build();
+        Map<String, JdbcWrapperGenerator> generators = new LinkedHashMap<>();
+        addGenerator(generators, DataSource.class, new DataSourceProxyHandler(null, proxyFactory));
+        addGenerator(generators, Connection.class, new ConnectionProxyHandler(null, proxyFactory, null));
+        addGenerator(generators, Statement.class, new StatementProxyHandler(null, proxyFactory, null));
+        addGenerator(generators, PreparedStatement.class, new PreparedStatementProxyHandler(null, proxyFactory, null, null));
+        addGenerator(generators, CallableStatement.class, new CallableStatementProxyHandler(null, proxyFactory, null, null));
+        addGenerator(generators, ResultSet.class, new ResultSetProxyHandler<>(null, ResultSet.class, proxyFactory, null, null));
+        return generators;
+    }
+
+    private static void addGenerator(Map<String, JdbcWrapperGenerator> generators, Class<?> type, JdbcProxyHandler<?> proxyHandler) {
+        JdbcWrapperGenerator generator = new JdbcWrapperGenerator(type, proxyHandler);
+        generators.put(generator.getClassName(), generator);
+    }
+
+    public String getClassName() {
+        return "Metrics" + type.getSimpleName();
+    }
+
+    /**
+     * Public methods to implement, sorted by name and parameter types
+     */
+    private List<Method> getMethods() {
+        Map<String, Method> methods = new TreeMap<>();
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())
+                    || (method.isDefault() && POST_JAVA_8_METHODS.contains(method.getName()))) {
+                continue;
+            }
+            String key = method.getName() + Arrays.toString(method.getParameterTypes());
+            Method otherMethod = methods.get(key);
+            // Keep the most specific override
+            if (otherMethod == null || otherMethod.getDeclaringClass().isAssignableFrom(method.getDeclaringClass())) {
+                methods.put(key, method);
+            }
+        }
+        return new ArrayList<>(methods.values());
+    }
+
+    private String importType(Class<?> clazz) {
+        if (clazz.isArray()) {
+            return importType(clazz.getComponentType()) + "[]";
+        }
+        if (clazz.isPrimitive() || clazz.getPackage().getName().equals("java.lang") || clazz.getPackage().getName().equals(PACKAGE_NAME)) {
+            return clazz.getSimpleName();
+        }
+        Class<?> importedClass = importsBySimpleName.get(clazz.getSimpleName());
+        if (importedClass == null) {
+            importsBySimpleName.put(clazz.getSimpleName(), clazz);
+            imports.add(clazz.getName());
+        } else if (!importedClass.equals(clazz)) {
+            return clazz.getName();
+        }
+        return clazz.getSimpleName();
+    }
+
+    private String typeName(Type type) {
+        if (type instanceof Class) {
+            return importType((Class<?>) type);
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            StringBuilder builder = new StringBuilder(typeName(parameterizedType.getRawType())).append('<');
+            Type[] typeArguments = parameterizedType.getActualTypeArguments();
+            for (int i = 0; i < typeArguments.length; i++) {
+                builder.append(i == 0 ? "" : ", ").append(typeName(typeArguments[i]));
+            }
+            return builder.append('>').toString();
+        } else if (type instanceof WildcardType) {
+            WildcardType wildcardType = (WildcardType) type;
+            if (wildcardType.getLowerBounds().length > 0) {
+                return "? super " + typeName(wildcardType.getLowerBounds()[0]);
+            } else if (wildcardType.getUpperBounds().length > 0 && !wildcardType.getUpperBounds()[0].equals(Object.class)) {
+                return "? extends " + typeName(wildcardType.getUpperBounds()[0]);
+            }
+            return "?";
+        } else if (type instanceof GenericArrayType) {
+            return typeName(((GenericArrayType) type).getGenericComponentType()) + "[]";
+        } else if (type instanceof TypeVariable) {
+            return ((TypeVariable<?>) type).getName();
+        }
+        throw new IllegalArgumentException("Unsupported type " + type);
+    }
+
+    /**
+     * Whether the proxy handler holds a query, available to wrapper methods in the {@code query} field
+     */
+    private boolean hasQuery() {
+        try {
+            return handlerType.getMethod("getQuery").getReturnType() == Query.class;
+        } catch (NoSuchMethodException noSuchMethodException) {
+            return false;
+        }
+    }
+
+    /**
+     * Name of the {@code MetricHelper} method starting the execute timer
+     */
+    private String getExecuteTimerStarter() {
+        if (type == Statement.class) {
+            return "startStatementExecuteTimer";
+        } else if (type == PreparedStatement.class) {
+            return "startPreparedStatementExecuteTimer";
+        } else if (type == CallableStatement.class) {
+            return "startCallableStatementExecuteTimer";
+        }
+        throw new IllegalStateException("No execute timer for " + type);
+    }
+
+    private void generateInterceptedMethod(StringBuilder builder, Method method, String arguments) {
+        String typeName = type.getSimpleName();
+        String delegateCall = "delegate." + method.getName() + "(" + arguments + ")";
+        switch (method.getName()) {
+            case "isWrapperFor":
+                builder.append("        return ").append(typeName).append(".class.equals(arg0) || delegate.isWrapperFor(arg0);\n");
+                break;
+            case "unwrap":
+                builder.append("        if (").append(typeName).append(".class.equals(arg0) && !delegate.isWrapperFor(arg0)) {\n")
+                        .append("            return arg0.cast(delegate);\n")
+                        .append("        }\n")
+                        .append("        return delegate.unwrap(arg0);\n");
+                break;
+            case "close":
+                if (type == ResultSet.class) {
+                    builder.append("        recordRowCount();\n");
+                }
+                builder.append("        stopTimer(lifeTimerContext);\n")
+                        .append("        delegate.close();\n");
+                break;
+            case "next":
+                builder.append("        boolean result = delegate.next();\n")
+                        .append("        if (result) {\n")
+                        .append("            rowCount++;\n")
+                        .append("            if (++pendingRowCount >= ").append(importType(ResultSetProxyHandler.class)).append(".ROW_FLUSH_THRESHOLD) {\n")
+                        .append("                flushRowCount();\n")
+                        .append("            }\n")
+                        .append("        } else {\n")
+                        .append("            recordRowCount();\n")
+                        .append("        }\n")
+                        .append("        return result;\n");
+                break;
+            case "execute":
+            case "executeQuery":
+            case "executeUpdate":
+                String query;
+                if (method.getParameterCount() > 0) {
+                    query = "currentQuery";
+                    builder.append("        ").append(importType(Query.class)).append(" currentQuery = new Query(arg0);\n");
+                } else {
+                    query = "query";
+                }
+                builder.append("        ").append(importType(TimeObservation.class)).append(" timerContext = metricHelper.")
+                        .append(getExecuteTimerStarter()).append('(').append(query).append(");\n")
+                        .append("        ").append(typeName(method.getGenericReturnType())).append(" result;\n")
+                        .append("        try {\n")
+                        .append("            result = ").append(delegateCall).append(";\n")
+                        .append("        } catch (SQLException | RuntimeException | Error throwable) {\n")
+                        .append("            metricHelper.markExecuteFailure(timerContext, throwable);\n")
+                        .append("            throw throwable;\n")
+                        .append("        } finally {\n")
+                        .append("            stopTimer(timerContext);\n")
+                        .append("        }\n");
+                if (method.getReturnType() == ResultSet.class) {
+                    builder.append("        return wrapResultSet(").append(query).append(", result);\n");
+                } else {
+                    builder.append("        return result;\n");
+                }
+                break;
+            case "createStatement":
+                builder.append("        return proxyFactory.wrapStatement(").append(delegateCall).append(");\n");
+                break;
+            case "prepareStatement":
+                builder.append("        return proxyFactory.wrapPreparedStatement(").append(delegateCall).append(", arg0);\n");
+                break;
+            case "prepareCall":
+                builder.append("        return proxyFactory.wrapCallableStatement(").append(delegateCall).append(", arg0);\n");
+                break;
+            case "getConnection":
+                builder.append("        ").append(importType(TimeObservation.class)).append(" getTimerContext = metricHelper.startConnectionGetTimer();\n")
+                        .append("        Connection connection = ").append(delegateCall).append(";\n")
+                        .append("        stopTimer(getTimerContext);\n")
+                        .append("        return proxyFactory.wrapConnection(connection);\n");
+                break;
+            default:
+                throw new IllegalStateException("Intercepted method " + method + " can not be inlined");
+        }
+    }
+
+    private void generateMethod(StringBuilder builder, Method method, boolean intercepted) {
+        Type returnType = method.getGenericReturnType();
+        String returnTypeName = typeName(returnType);
+        if (method.isAnnotationPresent(Deprecated.class)) {
+            // Overriding a deprecated JDBC method without deprecating it raises a compiler warning
+            builder.append("    @Deprecated\n");
+        }
+        builder.append("    @Override\n    public ");
+        TypeVariable<Method>[] typeParameters = method.getTypeParameters();
+        if (typeParameters.length > 0) {
+            builder.append('<');
+            for (int i = 0; i < typeParameters.length; i++) {
+                builder.append(i == 0 ? "" : ", ").append(typeParameters[i].getName());
+            }
+            builder.append("> ");
+        }
+        builder.append(returnTypeName).append(' ').append(method.getName()).append('(');
+        Type[] parameterTypes = method.getGenericParameterTypes();
+        StringBuilder arguments = new StringBuilder();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            builder.append(i == 0 ? "" : ", ").append(typeName(parameterTypes[i])).append(" arg").append(i);
+            arguments.append(i == 0 ? "" : ", ").append("arg").append(i);
+        }
+        builder.append(')');
+        Class<?>[] exceptionTypes = method.getExceptionTypes();
+        for (int i = 0; i < exceptionTypes.length; i++) {
+            builder.append(i == 0 ? " throws " : ", ").append(importType(exceptionTypes[i]));
+        }
+        builder.append(" {\n");
+        if (intercepted) {
+            if (!Arrays.asList(exceptionTypes).contains(SQLException.class)) {
+                throw new IllegalStateException("Intercepted method " + method + " must throw SQLException");
+            }
+            generateInterceptedMethod(builder, method, arguments.toString());
+        } else {
+            builder.append("        ");
+            if (method.getReturnType() != void.class) {
+                builder.append("return ");
+            }
+            builder.append("delegate.").append(method.getName()).append('(').append(arguments).append(");\n");
+        }
+        builder.append("    }\n");
+    }
+
+    /**
+     * Generate wrapper source code
+     */
+    public String generate() {
+        imports.clear();
+        importsBySimpleName.clear();
+        importType(type);
+        String handlerTypeName = importType(handlerType) + (handlerType.getTypeParameters().length > 0 ? "<" + type.getSimpleName() + ">" : "");
+        List<Method> methods = getMethods();
+        StringBuilder body = new StringBuilder();
+        boolean hasQuery = hasQuery();
+        if (hasQuery) {
+            body.append("    private final ").append(importType(Query.class)).append(" query;\n");
+        }
+        if (type == ResultSet.class) {
+            body.append("    /**\n     * Rows read and not yet added to row meter\n     */\n    private int pendingRowCount;\n")
+                    .append("    /**\n     * Rows read since result set creation\n     */\n    private long rowCount;\n")
+                    .append("    /**\n     * Whether row count was recorded in row summary\n     */\n    private boolean rowCountRecorded;\n");
+        }
+        if (body.length() > 0) {
+            body.append('\n');
+        }
+        body.append("    public ").append(getClassName()).append('(').append(handlerTypeName).append(" handler) {\n")
+                .append("        super(handler);\n");
+        if (hasQuery) {
+            body.append("        this.query = handler.getQuery();\n");
+        }
+        body.append("    }\n");
+        for (Method method : methods) {
+            body.append('\n');
+            generateMethod(body, method, invocationFilter.isIntercepted(method));
+        }
+        if (type == ResultSet.class) {
+            body.append("\n    private void flushRowCount() {\n")
+                    .append("        if (pendingRowCount > 0) {\n")
+                    .append("            metricHelper.markResultSetRowMeter(query, pendingRowCount);\n")
+                    .append("            pendingRowCount = 0;\n")
+                    .append("        }\n")
+                    .append("    }\n")
+                    .append("\n    private void recordRowCount() {\n")
+                    .append("        flushRowCount();\n")
+                    .append("        if (!rowCountRecorded) {\n")
+                    .append("            metricHelper.recordResultSetRowSummary(query, rowCount);\n")
+                    .append("            rowCountRecorded = true;\n")
+                    .append("        }\n")
+                    .append("    }\n");
+        }
+        String typeName = type.getSimpleName();
+        StringBuilder builder = new StringBuilder();
+        builder.append("package ").append(PACKAGE_NAME).append(";\n\n").append(LICENSE_HEADER).append('\n');
+        for (String anImport : imports) {
+            builder.append("import ").append(anImport).append(";\n");
+        }
+        builder.append("\n/**\n * {@link ").append(typeName).append("} wrapper generated by {@code JdbcWrapperGenerator}, do not edit.\n */\n")
+                .append("public class ").append(getClassName()).append(" extends JdbcWrapper<").append(typeName)
+                .append("> implements ").append(typeName).append(" {\n")
+                .append(body)
+                .append("}\n");
+        return builder.toString();
+    }
+
+    public static Path getSourceDirectory(Path baseDirectory) {
+        return baseDirectory.resolve(Paths.get("src", "main", "java")).resolve(PACKAGE_NAME.replace('.', '/'));
+    }
+
+    /**
+     * Write generated wrappers in source directory
+     *
+     * @param args Maven project base directory, current directory by default
+     */
+    public static void main(String[] args) throws IOException {
+        Path sourceDirectory = getSourceDirectory(Paths.get(args.length > 0 ? args[0] : "."));
+        for (Map.Entry<String, JdbcWrapperGenerator> generator : createGenerators().entrySet()) {
+            Path sourceFile = sourceDirectory.resolve(generator.getKey() + ".java");
+            Files.write(sourceFile, generator.getValue().generate().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.gquintana.metrics.sql.wrapper;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class JdbcWrapperGeneratorTest {
+    @Test
+    public void testGeneratedSourcesUpToDate() throws IOException {
+        // Given
+        Path sourceDirectory = JdbcWrapperGenerator.getSourceDirectory(Paths.get("."));
+        for (Map.Entry<String, JdbcWrapperGenerator> generator : JdbcWrapperGenerator.createGenerators().entrySet()) {
+            // When
+            String generatedSource = generator.getValue().generate();
+            // Then
+            String source = new String(Files.readAllBytes(sourceDirectory.resolve(generator.getKey() + ".java")), StandardCharsets.UTF_8);
+            assertEquals(generator.getKey() + " is not up to date, run mvn -Pgenerate-wrappers process-test-classes", generatedSource, source);
+        }
+    }
+}
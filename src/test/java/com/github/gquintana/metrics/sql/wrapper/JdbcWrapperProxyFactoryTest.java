@@ -0,0 +1,145 @@
+package com.github.gquintana.metrics.sql.wrapper;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.github.gquintana.metrics.proxy.ReflectMethodInvoker;
+import com.github.gquintana.metrics.sql.MetricsSql;
+import com.github.gquintana.metrics.sql.stub.StubConnection;
+import com.github.gquintana.metrics.sql.stub.StubDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Integration test between {@link JdbcWrapperProxyFactory} and the stub JDBC driver
+ */
+public class JdbcWrapperProxyFactoryTest {
+    private MeterRegistry meterRegistry;
+    private DataSource dataSource;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = MetricsSql.forRegistry(meterRegistry)
+                .withProxyFactory(new JdbcWrapperProxyFactory())
+                .wrap(new StubDataSource(3));
+    }
+
+    @Test
+    public void testPreparedStatement() throws SQLException {
+        // When
+        int rows = 0;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select * from METRICS_TEST");
+             ResultSet resultSet = statement.executeQuery()) {
+            assertThat(dataSource, instanceOf(MetricsDataSource.class));
+            assertThat(connection, instanceOf(MetricsConnection.class));
+            assertThat(statement, instanceOf(MetricsPreparedStatement.class));
+            assertThat(resultSet, instanceOf(MetricsResultSet.class));
+            while (resultSet.next()) {
+                rows++;
+                assertEquals(rows, resultSet.getInt("ID"));
+            }
+        }
+        // Then
+        assertEquals(3, rows);
+        assertEquals(1L, meterRegistry.get("java.sql.PreparedStatement.[select * from metrics_test].exec").timer().count());
+        assertEquals(1L, meterRegistry.get("java.sql.Connection").timer().count());
+    }
+
+    @Test
+    public void testStatement() throws SQLException {
+        // When
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             CallableStatement callableStatement = connection.prepareCall("call metrics_test")) {
+            assertThat(statement, instanceOf(MetricsStatement.class));
+            assertThat(callableStatement, instanceOf(MetricsCallableStatement.class));
+            statement.executeUpdate("update METRICS_TEST set TEXT='Text'");
+            callableStatement.execute();
+        }
+        // Then
+        assertEquals(1L, meterRegistry.get("java.sql.Statement.[update metrics_test set text='text'].exec").timer().count());
+        assertEquals(1L, meterRegistry.get("java.sql.CallableStatement.[call metrics_test].exec").timer().count());
+    }
+
+    @Test
+    public void testUnwrap() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            assertTrue(connection.isWrapperFor(Connection.class));
+            assertTrue(connection.isWrapperFor(StubConnection.class));
+            assertThat(connection.unwrap(StubConnection.class), instanceOf(StubConnection.class));
+            assertSame(connection.unwrap(Connection.class), connection.unwrap(StubConnection.class));
+        }
+    }
+
+    @Test
+    public void testResultSetNextAllocation() throws SQLException {
+        // Given
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        assumeTrue(sunThreadMXBean.isThreadAllocatedMemorySupported() && sunThreadMXBean.isThreadAllocatedMemoryEnabled());
+        final int iterations = 100000;
+        // Reflective invocation allocates on Java 8, the wrapper must not use the method invoker
+        Connection connection = MetricsSql.forRegistry(meterRegistry)
+                .withProxyFactory(new JdbcWrapperProxyFactory())
+                .withMethodInvoker(ReflectMethodInvoker.INSTANCE)
+                .wrap(new StubConnection(Integer.MAX_VALUE));
+        try (PreparedStatement statement = connection.prepareStatement("select * from METRICS_TEST");
+             ResultSet resultSet = statement.executeQuery()) {
+            assertThat(resultSet, instanceOf(MetricsResultSet.class));
+            long threadId = Thread.currentThread().getId();
+            for (int i = 0; i < iterations; i++) {
+                resultSet.next();
+            }
+            // When
+            long start = sunThreadMXBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < iterations; i++) {
+                resultSet.next();
+            }
+            long allocatedBytes = sunThreadMXBean.getThreadAllocatedBytes(threadId) - start;
+            // Then
+            assertThat(allocatedBytes, lessThan((long) iterations));
+        } finally {
+            connection.close();
+        }
+    }
+}
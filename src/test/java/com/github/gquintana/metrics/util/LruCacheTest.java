@@ -0,0 +1,76 @@
+package com.github.gquintana.metrics.util;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+public class LruCacheTest {
+    @Test
+    public void testGetPut() {
+        // Given
+        LruCache<String, String> cache = new LruCache<>(10);
+        cache.put("a", "A");
+        // When
+        String hit = cache.get("a");
+        String miss = cache.get("b");
+        // Then
+        assertEquals("A", hit);
+        assertNull(miss);
+        assertEquals(1L, cache.getHitCount());
+        assertEquals(1L, cache.getMissCount());
+        assertEquals(1L, cache.size());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        // Given
+        LruCache<Integer, String> cache = new LruCache<>(2, 1);
+        cache.put(1, "1");
+        cache.put(2, "2");
+        cache.get(1);
+        // When
+        cache.put(3, "3");
+        // Then
+        assertEquals("1", cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals("3", cache.get(3));
+        assertEquals(1L, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testMaximumSize() {
+        // Given
+        LruCache<Integer, Integer> cache = new LruCache<>(100);
+        // When
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+        // Then
+        assertThat(cache.size(), lessThanOrEqualTo(100L));
+        assertThat(cache.size() + cache.getEvictionCount(), equalTo(1000L));
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.gquintana.metrics.util;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class MurmurHashTest {
+    @Test
+    public void testHash64() {
+        // When
+        long hash1 = MurmurHash.hash64("select * from metrics_test where id=?");
+        long hash2 = MurmurHash.hash64("select * from metrics_test where id=?");
+        long hash3 = MurmurHash.hash64("select * from metrics_test where id>?");
+        // Then
+        assertEquals(hash1, hash2);
+        assertNotEquals(hash1, hash3);
+        assertEquals(0L, MurmurHash.hash64(""));
+    }
+
+    @Test
+    public void testHash64Distinct() {
+        // Given
+        Set<Long> hashes = new HashSet<>();
+        // When
+        for (int i = 0; i < 10000; i++) {
+            hashes.add(MurmurHash.hash64("select * from metrics_test_" + i));
+        }
+        // Then
+        assertEquals(10000, hashes.size());
+    }
+
+    @Test
+    public void testToHex() {
+        assertEquals("0000000000000000", MurmurHash.toHex(0L));
+        assertEquals("00000000000000ff", MurmurHash.toHex(255L));
+        assertEquals("ffffffffffffffff", MurmurHash.toHex(-1L));
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.gquintana.metrics.util;
+
+/*
+ * #%L
+ * Metrics SQL
+ * %%
+ * Copyright (C) 2014 Open-Source
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+public class SqlNormalizerTest {
+    private final String sql;
+    private final String expectedSql;
+    private final SqlNormalizer normalizer = new SqlNormalizer(60);
+
+    public SqlNormalizerTest(String sql, String expectedSql) {
+        this.sql = sql;
+        this.expectedSql = expectedSql;
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> getParameters() {
+        return new ParametersBuilder()
+                .add("select * from METRICS_TEST order by ID", "select * from metrics_test order by id")
+                .add("  select *\n\tfrom  METRICS_TEST  ", "select * from metrics_test")
+                .add("select * from METRICS_TEST where ID=42 and TEXT='It''s'", "select * from metrics_test where id=? and text=?")
+                .add("select * from METRICS_TEST where ID = ? and SCORE > 1.5e-3", "select * from metrics_test where id = ? and score > ?")
+                .add("select * from METRICS_TEST where ID in (1, 2, 3)", "select * from metrics_test where id in (?)")
+                .add("select * from METRICS_TEST where ID IN(?,?,?,?)", "select * from metrics_test where id in(?)")
+                .add("select * from T where ID in (select ID from U where X=1)", "select * from t where id in (select id from u where x=?)")
+                .add("select -- comment\n * /* block\n comment */ from T", "select * from t")
+                .add("select \"Id\", `Text` from T where N='x' and X=N'y'", "select \"Id\", `Text` from t where n=? and x=?")
+                .add("insert into T(ID, TEXT) values (0x1F, $1)", "insert into t(id, text) values (?, ?)")
+                .add("select COL1, COL2, COL3, COL4, COL5, COL6, COL7, COL8, COL9 from T", "select col1, col2, col3, col4, col5, col6, col7, col8, col9")
+                .add("select COLUMN1, COLUMN2, COLUMN3, COLUMN4, COLUMN5, COLUMNXYZ from T", "select column1, column2, column3, column4, column5, columnxy")
+                .build();
+    }
+
+    @Test
+    public void testNormalize() {
+        assertEquals(expectedSql, normalizer.normalize(sql));
+    }
+}